@@ -2,9 +2,15 @@ package com.example.swiggy_project.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
+@EnableAsync
+@EnableScheduling
+@EnableMongoAuditing
 public class AppConfig {
 
     @Bean
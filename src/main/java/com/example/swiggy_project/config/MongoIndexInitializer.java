@@ -0,0 +1,90 @@
+package com.example.swiggy_project.config;
+
+import com.example.swiggy_project.model.Cart;
+import com.example.swiggy_project.model.MenuItem;
+import com.example.swiggy_project.model.Order;
+import com.example.swiggy_project.model.Restaurant;
+import com.example.swiggy_project.model.Review;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeospatialIndex;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Creates the indexes the application relies on once the context is up. Automatic index
+ * creation is off in Spring Data MongoDB, so the indexes are declared here explicitly.
+ * Runs asynchronously and tolerates failures so an unreachable database never blocks startup.
+ */
+@Component
+public class MongoIndexInitializer {
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexInitializer.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${cart.ttl-days:30}")
+    private long cartTtlDays;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        logger.info("Ensuring MongoDB indexes");
+        ensureIndex(Cart.class, new Index().on("userId", Sort.Direction.ASC).unique());
+        // Carts untouched for cart.ttl-days are expired by MongoDB itself
+        ensureIndex(Cart.class, new Index().on("lastModified", Sort.Direction.ASC).expire(Duration.ofDays(cartTtlDays)));
+        ensureIndex(MenuItem.class, new Index().on("restaurantId", Sort.Direction.ASC));
+        // Serves the faceted menu browse, whose leading match is an equality on foodMenuId
+        ensureIndex(MenuItem.class, new Index()
+                .on("foodMenuId", Sort.Direction.ASC)
+                .on("cuisineType", Sort.Direction.ASC)
+                .on("mealType", Sort.Direction.ASC)
+                .on("vegOrNonVeg", Sort.Direction.ASC));
+        // Popular items per cuisine: equality on the cuisine, then already in popularity order
+        ensureIndex(MenuItem.class, new Index()
+                .on("cuisineType", Sort.Direction.ASC)
+                .on("numberOfTimesOrdered", Sort.Direction.DESC)
+                .on("rating", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.ASC));
+        // Keyset-paged review reads: newest first within one menu item
+        ensureIndex(Review.class, new Index().on("menuItemId", Sort.Direction.ASC).on("_id", Sort.Direction.DESC));
+        ensureIndex(Review.class, new Index().on("legacyKey", Sort.Direction.ASC).unique().sparse());
+        // Restaurant name search: trigram lookup for longer queries, index key scan for short ones
+        ensureIndex(Restaurant.class, new Index().on("nameNgrams", Sort.Direction.ASC));
+        ensureIndex(Restaurant.class, new Index().on("normalizedName", Sort.Direction.ASC));
+        // Nearby search: $geoNear needs a 2dsphere index on the field it searches
+        ensureIndex(Restaurant.class, new GeospatialIndex("location").typed(GeoSpatialIndexType.GEO_2DSPHERE));
+        // City listings: equality on the city, then already in rating order
+        ensureIndex(Restaurant.class, new Index()
+                .on("normalizedCity", Sort.Direction.ASC)
+                .on("rating", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.ASC));
+        // Ranking signals: open orders per kitchen status, prep times of recently prepared orders
+        ensureIndex(Order.class, new Index().on("status", Sort.Direction.ASC).on("restaurantId", Sort.Direction.ASC));
+        ensureIndex(Order.class, new Index().on("preparedAt", Sort.Direction.ASC).sparse());
+        // Incremental catalog sync: restaurants changed since a timestamp, in change order
+        ensureIndex(Restaurant.class, new Index()
+                .on("updatedAt", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC));
+    }
+
+    private void ensureIndex(Class<?> type, IndexDefinition index) {
+        try {
+            String name = mongoTemplate.indexOps(type).ensureIndex(index);
+            logger.info("Ensured index {} on {}", name, mongoTemplate.getCollectionName(type));
+        } catch (Exception e) {
+            logger.warn("Failed to ensure index {} on {}: {}", index.getIndexKeys(), mongoTemplate.getCollectionName(type), e.getMessage());
+        }
+    }
+}
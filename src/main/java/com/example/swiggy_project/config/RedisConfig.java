@@ -1,12 +1,19 @@
 package com.example.swiggy_project.config;
 
+import com.example.swiggy_project.service.DeliveryZoneIndex;
+import com.example.swiggy_project.service.DishSearchIndex;
+import com.example.swiggy_project.service.MenuCache;
+import com.example.swiggy_project.service.RecommendationCache;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @Configuration
@@ -26,4 +33,26 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory factory, MenuCache menuCache, DishSearchIndex dishSearchIndex,
+                                                                       DeliveryZoneIndex deliveryZoneIndex, RecommendationCache recommendationCache) {
+        // Started by RedisListenerStarter so an unreachable Redis cannot fail application startup
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer() {
+            @Override
+            public boolean isAutoStartup() {
+                return false;
+            }
+        };
+        container.setConnectionFactory(factory);
+        // Cross-node invalidation of the in-process menu cache and dish search index
+        container.addMessageListener(menuCache, new ChannelTopic(MenuCache.INVALIDATION_CHANNEL));
+        container.addMessageListener((message, pattern) -> dishSearchIndex.onMenuInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(MenuCache.INVALIDATION_CHANNEL));
+        container.addMessageListener((message, pattern) -> deliveryZoneIndex.onReloadMessage(),
+                new ChannelTopic(DeliveryZoneIndex.RELOAD_CHANNEL));
+        container.addMessageListener((message, pattern) -> recommendationCache.onEvictionMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(RecommendationCache.EVICTION_CHANNEL));
+        return container;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.example.swiggy_project.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Starts the Redis pub/sub listener container off the startup path and keeps retrying while
+ * Redis is unreachable. Until it is running, menu caches fall back to their max-age expiry.
+ */
+@Component
+public class RedisListenerStarter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisListenerStarter.class);
+
+    @Autowired
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    @Scheduled(fixedDelayString = "${redis.listener.retry-ms:30000}")
+    public void ensureStarted() {
+        if (redisMessageListenerContainer.isRunning()) {
+            return;
+        }
+        try {
+            redisMessageListenerContainer.start();
+            logger.info("Redis listener container started");
+        } catch (Exception e) {
+            logger.warn("Redis listener container could not start, will retry: {}", e.getMessage());
+            try {
+                redisMessageListenerContainer.stop();
+            } catch (Exception ignored) {
+                // Container was never fully started
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -42,6 +42,7 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/auth/**").permitAll()
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/api/restaurants/**").hasAnyRole("RESTAURANT", "ADMIN")
                         .requestMatchers("/api/users/**").hasAnyRole("USER", "RESTAURANT", "ADMIN")
                         .anyRequest().authenticated()
@@ -43,6 +43,12 @@ public class AdminController {
     @Autowired
     private CouponService couponService;
 
+    @Autowired
+    private AbandonedCartSweeper abandonedCartSweeper;
+
+    @Autowired
+    private DeliveryZoneService deliveryZoneService;
+
     // Restaurant Endpoints
     @PostMapping("/restaurants")
     public ResponseEntity<Restaurant> addRestaurant(@Valid @RequestBody Restaurant restaurant) {
@@ -117,11 +123,11 @@ public class AdminController {
 
     // Menu Item Endpoints
     @GetMapping("/menu-items/{id}")
-    @PreAuthorize("hasRole('ADMIN') or (hasRole('RESTAURANT') and @menuItemService.getMenuItemById(#id).foodMenu.restaurantId == authentication.principal.id)")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('RESTAURANT') and @menuItemService.getMenuItemById(#id).restaurantId == authentication.principal.id)")
     public ResponseEntity<MenuItem> getMenuItemById(@PathVariable String id) {
         logger.info("Received request to fetch menu item with ID: {}", id);
         try {
-            MenuItem menuItem = menuItemService.getMenuItemById(id);
+            MenuItem menuItem = menuItemService.getHydratedMenuItem(id);
             logger.info("Menu item fetched successfully with ID: {}", id);
             return ResponseEntity.ok(menuItem);
         } catch (ResourceNotFoundException e) {
@@ -310,4 +316,87 @@ public class AdminController {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    // Delivery Zone Endpoints
+    @PostMapping("/delivery-zones")
+    public ResponseEntity<DeliveryZone> addDeliveryZone(@Valid @RequestBody DeliveryZone zone) {
+        logger.info("Received request to add delivery zone: {}", zone.getName());
+        try {
+            DeliveryZone saved = deliveryZoneService.addZone(zone);
+            logger.info("Delivery zone added successfully with ID: {}", saved.getId());
+            return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+        } catch (ResourceNotFoundException e) {
+            logger.warn("Failed to add delivery zone: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to add delivery zone: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("Unexpected error while adding delivery zone: {}", e.getMessage(), e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PutMapping("/delivery-zones/{id}")
+    public ResponseEntity<DeliveryZone> updateDeliveryZone(@PathVariable String id, @Valid @RequestBody DeliveryZone zone) {
+        logger.info("Received request to update delivery zone with ID: {}", id);
+        try {
+            DeliveryZone saved = deliveryZoneService.updateZone(id, zone);
+            logger.info("Delivery zone updated successfully with ID: {}", id);
+            return ResponseEntity.ok(saved);
+        } catch (ResourceNotFoundException e) {
+            logger.warn("Failed to update delivery zone: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to update delivery zone: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("Unexpected error while updating delivery zone: {}", e.getMessage(), e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @DeleteMapping("/delivery-zones/{id}")
+    public ResponseEntity<Void> deleteDeliveryZone(@PathVariable String id) {
+        logger.info("Received request to delete delivery zone with ID: {}", id);
+        try {
+            deliveryZoneService.deleteZone(id);
+            logger.info("Delivery zone deleted successfully with ID: {}", id);
+            return ResponseEntity.noContent().build();
+        } catch (ResourceNotFoundException e) {
+            logger.warn("Failed to delete delivery zone: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            logger.error("Unexpected error while deleting delivery zone: {}", e.getMessage(), e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/delivery-zones")
+    public ResponseEntity<List<DeliveryZone>> getDeliveryZones(@RequestParam(required = false) String restaurantId,
+                                                               @RequestParam(required = false) String city) {
+        logger.info("Received request to fetch delivery zones for restaurant ID: {} city: {}", restaurantId, city);
+        try {
+            List<DeliveryZone> zones = deliveryZoneService.getZones(restaurantId, city);
+            logger.info("Fetched {} delivery zones", zones.size());
+            return ResponseEntity.ok(zones);
+        } catch (Exception e) {
+            logger.error("Unexpected error while fetching delivery zones: {}", e.getMessage(), e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // Maintenance Endpoints
+    @PostMapping("/carts/sweep")
+    public ResponseEntity<CartSweepReport> sweepAbandonedCarts() {
+        logger.info("Received request to sweep abandoned carts");
+        try {
+            CartSweepReport report = abandonedCartSweeper.sweep();
+            logger.info("Abandoned-cart sweep removed {} carts", report.getTotalDeleted());
+            return ResponseEntity.ok(report);
+        } catch (Exception e) {
+            logger.error("Unexpected error while sweeping carts: {}", e.getMessage(), e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
 }
\ No newline at end of file
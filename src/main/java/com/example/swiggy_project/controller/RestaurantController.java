@@ -2,17 +2,21 @@ package com.example.swiggy_project.controller;
 
 import com.example.swiggy_project.exception.ResourceNotFoundException;
 import com.example.swiggy_project.model.FoodMenu;
+import com.example.swiggy_project.model.MenuImportReport;
 import com.example.swiggy_project.model.MenuItem;
+import com.example.swiggy_project.service.MenuItemImportService;
 import com.example.swiggy_project.service.MenuItemService;
 import com.example.swiggy_project.service.MenuService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -28,6 +32,9 @@ public class RestaurantController {
     @Autowired
     private MenuItemService menuItemService;
 
+    @Autowired
+    private MenuItemImportService menuItemImportService;
+
     @PostMapping("/{restaurantId}/menus")
     @PreAuthorize("hasRole('ADMIN') or (hasRole('RESTAURANT') and #restaurantId == authentication.principal.id)")
     public ResponseEntity<FoodMenu> addMenuByRestaurantId(@PathVariable String restaurantId, @Valid @RequestBody FoodMenu foodMenu) {
@@ -61,4 +68,32 @@ public class RestaurantController {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    /**
+     * Imports menu items from a JSON array or a CSV file (header line naming name, price,
+     * cuisineType, mealType and vegOrNonVeg). The body is streamed, not buffered, so uploads of
+     * any size are accepted. Invalid rows are skipped and listed in the returned report.
+     */
+    @PostMapping(value = "/{restaurantId}/menu-items/import", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('RESTAURANT') and #restaurantId == authentication.principal.id)")
+    public ResponseEntity<MenuImportReport> importMenuItems(@PathVariable String restaurantId, HttpServletRequest request) {
+        logger.info("Received request to import menu items for restaurant ID: {}", restaurantId);
+        try {
+            MenuItemImportService.Format format = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.APPLICATION_JSON)
+                    ? MenuItemImportService.Format.JSON
+                    : MenuItemImportService.Format.CSV;
+            MenuImportReport report = menuItemImportService.importMenuItems(restaurantId, request.getInputStream(), format);
+            logger.info("Imported {} menu items with {} failures for restaurant ID: {}", report.getImported(), report.getFailed(), restaurantId);
+            return ResponseEntity.ok(report);
+        } catch (ResourceNotFoundException e) {
+            logger.warn("Failed to import menu items: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to import menu items: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("Unexpected error while importing menu items: {}", e.getMessage(), e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
 }
\ No newline at end of file
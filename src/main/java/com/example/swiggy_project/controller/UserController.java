@@ -10,8 +10,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.Arrays;
 import java.util.List;
 
@@ -50,6 +53,12 @@ public class UserController {
     @Autowired
     private RecommendationService recommendationService;
 
+    @Autowired
+    private DishSearchIndex dishSearchIndex;
+
+    @Autowired
+    private ReviewService reviewService;
+
     // User Endpoints
     @PostMapping
     @PreAuthorize("permitAll()")
@@ -125,12 +134,33 @@ public class UserController {
     // Restaurant Endpoints
     @GetMapping("/restaurants")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public ResponseEntity<List<Restaurant>> getAllRestaurants() {
-        logger.info("Received request to fetch all restaurants");
-        try {
-            List<Restaurant> restaurants = restaurantService.getAllRestaurants();
-            logger.info("Fetched {} restaurants successfully", restaurants.size());
-            return ResponseEntity.ok(restaurants);
+    public ResponseEntity<RestaurantCatalogPage> getRestaurantCatalog(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int limit,
+            WebRequest webRequest) {
+        logger.info("Received request to fetch restaurant catalog since: {}", since);
+        try {
+            if (limit < 1 || limit > 500) {
+                throw new IllegalArgumentException("Limit must be between 1 and 500");
+            }
+            Instant sinceTime;
+            try {
+                sinceTime = since == null ? null : Instant.parse(since);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Since must be an ISO-8601 timestamp");
+            }
+            String eTag = versionETag("restaurants", restaurantService.getCatalogVersion());
+            if (webRequest.checkNotModified(eTag)) {
+                logger.info("Restaurant catalog not modified");
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+            RestaurantCatalogPage page = restaurantService.getRestaurantCatalog(sinceTime, after, limit);
+            logger.info("Fetched {} restaurants successfully", page.getRestaurants().size());
+            return ResponseEntity.ok().eTag(eTag).body(page);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to fetch restaurants: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             logger.error("Unexpected error while fetching restaurants: {}", e.getMessage(), e);
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
@@ -139,12 +169,17 @@ public class UserController {
 
     @GetMapping("/restaurants/{id}")
     @PreAuthorize("hasAnyRole('USER', 'RESTAURANT', 'ADMIN')")
-    public ResponseEntity<Restaurant> getRestaurantById(@PathVariable String id) {
+    public ResponseEntity<Restaurant> getRestaurantById(@PathVariable String id, WebRequest webRequest) {
         logger.info("Received request to fetch restaurant with ID: {}", id);
         try {
+            String eTag = versionETag("restaurant-" + id, restaurantService.getRestaurantVersion(id));
+            if (webRequest.checkNotModified(eTag)) {
+                logger.info("Restaurant not modified with ID: {}", id);
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
             Restaurant restaurant = restaurantService.getRestaurantById(id);
             logger.info("Restaurant fetched successfully with ID: {}", id);
-            return ResponseEntity.ok(restaurant);
+            return ResponseEntity.ok().eTag(eTag).body(restaurant);
         } catch (ResourceNotFoundException e) {
             logger.warn("Failed to fetch restaurant: {}", e.getMessage());
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -156,12 +191,18 @@ public class UserController {
 
     @GetMapping("/restaurants/search/name")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public ResponseEntity<List<Restaurant>> getRestaurantsByName(@RequestParam String name) {
+    public ResponseEntity<List<Restaurant>> getRestaurantsByName(@RequestParam String name, @RequestParam(defaultValue = "20") int limit) {
         logger.info("Received request to search restaurants by name: {}", name);
         try {
-            List<Restaurant> restaurants = restaurantService.getRestaurantsByName(name);
+            if (limit < 1 || limit > 100) {
+                throw new IllegalArgumentException("Limit must be between 1 and 100");
+            }
+            List<Restaurant> restaurants = restaurantService.getRestaurantsByName(name, limit);
             logger.info("Found {} restaurants with name: {}", restaurants.size(), name);
             return ResponseEntity.ok(restaurants);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to search restaurants: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             logger.error("Unexpected error while searching restaurants: {}", e.getMessage(), e);
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
@@ -170,12 +211,21 @@ public class UserController {
 
     @GetMapping("/restaurants/search/city")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public ResponseEntity<List<Restaurant>> getRestaurantsByCity(@RequestParam String city) {
+    public ResponseEntity<List<Restaurant>> getRestaurantsByCity(
+            @RequestParam String city,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
         logger.info("Received request to search restaurants by city: {}", city);
         try {
-            List<Restaurant> restaurants = restaurantService.getRestaurantsByCity(city);
+            if (page < 0 || size < 1 || size > 100) {
+                throw new IllegalArgumentException("Page must be non-negative and size between 1 and 100");
+            }
+            List<Restaurant> restaurants = restaurantService.getRestaurantsByCity(city, page, size);
             logger.info("Found {} restaurants in city: {}", restaurants.size(), city);
             return ResponseEntity.ok(restaurants);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to search restaurants: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             logger.error("Unexpected error while searching restaurants: {}", e.getMessage(), e);
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
@@ -184,13 +234,22 @@ public class UserController {
 
     @GetMapping("/{userId}/restaurants/nearby")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public ResponseEntity<List<Restaurant>> getNearbyHighRatedRestaurants(
+    public ResponseEntity<List<NearbyRestaurant>> getNearbyHighRatedRestaurants(
             @PathVariable String userId,
             @RequestParam(defaultValue = "4.0") double minRating,
-            @RequestParam(defaultValue = "10.0") double maxDistanceKm) {
+            @RequestParam(defaultValue = "10.0") double maxDistanceKm,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "ranked") String sort) {
         logger.info("Received request to fetch nearby high-rated restaurants for user ID: {}", userId);
         try {
-            List<Restaurant> restaurants = restaurantService.findRestaurantsByRatingAndProximity(userId, minRating, maxDistanceKm);
+            if (limit < 1 || limit > 1000) {
+                throw new IllegalArgumentException("Limit must be between 1 and 1000");
+            }
+            if (!"ranked".equals(sort) && !"distance".equals(sort)) {
+                throw new IllegalArgumentException("Sort must be 'ranked' or 'distance'");
+            }
+            List<NearbyRestaurant> restaurants = restaurantService.findRestaurantsByRatingAndProximity(userId, minRating, maxDistanceKm, limit,
+                    "ranked".equals(sort));
             logger.info("Fetched {} nearby high-rated restaurants for user ID: {}", restaurants.size(), userId);
             return ResponseEntity.ok(restaurants);
         } catch (ResourceNotFoundException e) {
@@ -205,15 +264,49 @@ public class UserController {
         }
     }
 
+    @GetMapping("/{userId}/restaurants/nearby/page")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<NearbyRestaurantPage> getNearbyRestaurantsPage(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "4.0") double minRating,
+            @RequestParam(defaultValue = "10.0") double maxDistanceKm,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String after) {
+        logger.info("Received request to fetch a page of nearby restaurants for user ID: {}", userId);
+        try {
+            if (limit < 1 || limit > 100) {
+                throw new IllegalArgumentException("Limit must be between 1 and 100");
+            }
+            NearbyRestaurantPage page = restaurantService.findNearbyRestaurantsPage(userId, minRating, maxDistanceKm, limit, after);
+            logger.info("Fetched {} nearby restaurants for user ID: {}", page.getRestaurants().size(), userId);
+            return ResponseEntity.ok(page);
+        } catch (ResourceNotFoundException e) {
+            logger.warn("Failed to fetch restaurants: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to fetch restaurants: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("Unexpected error while fetching restaurants: {}", e.getMessage(), e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     // Menu Endpoints
     @GetMapping("/menus/{restaurantId}")
     @PreAuthorize("hasAnyRole('USER', 'RESTAURANT', 'ADMIN')")
-    public ResponseEntity<List<MenuItem>> getMenuByRestaurantId(@PathVariable String restaurantId) {
+    public ResponseEntity<List<MenuItem>> getMenuByRestaurantId(@PathVariable String restaurantId, WebRequest webRequest) {
         logger.info("Received request to fetch menu for restaurant ID: {}", restaurantId);
         try {
-            List<MenuItem> menuItems = menuService.getMenuItemsByRestaurantId(restaurantId);
+            MenuCache.MenuSnapshot menu = menuService.getMenuSnapshot(restaurantId);
+            String eTag = menuETag(restaurantId, menu.getVersion());
+            if (webRequest.checkNotModified(eTag)) {
+                logger.info("Menu not modified for restaurant ID: {}", restaurantId);
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+            List<MenuItem> menuItems = menu.getItems();
             logger.info("Menu items fetched successfully for restaurant ID: {}", restaurantId);
-            return ResponseEntity.ok(menuItems);
+            return ResponseEntity.ok().eTag(eTag).body(menuItems);
         } catch (ResourceNotFoundException e) {
             logger.warn("Failed to fetch menu items: {}", e.getMessage());
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -225,12 +318,18 @@ public class UserController {
 
     @GetMapping("/menu-items/{restaurantId}/cuisine/{cuisineType}")
     @PreAuthorize("hasAnyRole('USER', 'RESTAURANT', 'ADMIN')")
-    public ResponseEntity<List<MenuItem>> getMenuItemsByCuisine(@PathVariable String restaurantId, @PathVariable String cuisineType) {
+    public ResponseEntity<List<MenuItem>> getMenuItemsByCuisine(@PathVariable String restaurantId, @PathVariable String cuisineType, WebRequest webRequest) {
         logger.info("Received request to fetch menu items for restaurant ID: {} with cuisine: {}", restaurantId, cuisineType);
         try {
-            List<MenuItem> items = menuItemService.getMenuItemsByCuisine(restaurantId, cuisineType);
+            MenuCache.MenuSnapshot menu = menuService.getMenuSnapshot(restaurantId);
+            String eTag = menuETag(restaurantId, menu.getVersion());
+            if (webRequest.checkNotModified(eTag)) {
+                logger.info("Menu not modified for restaurant ID: {}", restaurantId);
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+            List<MenuItem> items = menuItemService.getMenuItemsByCuisine(menu, cuisineType);
             logger.info("Menu items fetched successfully for restaurant ID: {} with cuisine: {}", restaurantId, cuisineType);
-            return ResponseEntity.ok(items);
+            return ResponseEntity.ok().eTag(eTag).body(items);
         } catch (ResourceNotFoundException e) {
             logger.warn("Failed to fetch menu items: {}", e.getMessage());
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -242,12 +341,18 @@ public class UserController {
 
     @GetMapping("/menu-items/{restaurantId}/meal/{mealType}")
     @PreAuthorize("hasAnyRole('USER', 'RESTAURANT', 'ADMIN')")
-    public ResponseEntity<List<MenuItem>> getMenuItemsByMealType(@PathVariable String restaurantId, @PathVariable String mealType) {
+    public ResponseEntity<List<MenuItem>> getMenuItemsByMealType(@PathVariable String restaurantId, @PathVariable String mealType, WebRequest webRequest) {
         logger.info("Received request to fetch menu items for restaurant ID: {} with meal type: {}", restaurantId, mealType);
         try {
-            List<MenuItem> items = menuItemService.getMenuItemsByMealType(restaurantId, mealType);
+            MenuCache.MenuSnapshot menu = menuService.getMenuSnapshot(restaurantId);
+            String eTag = menuETag(restaurantId, menu.getVersion());
+            if (webRequest.checkNotModified(eTag)) {
+                logger.info("Menu not modified for restaurant ID: {}", restaurantId);
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+            List<MenuItem> items = menuItemService.getMenuItemsByMealType(menu, mealType);
             logger.info("Menu items fetched successfully for restaurant ID: {} with meal type: {}", restaurantId, mealType);
-            return ResponseEntity.ok(items);
+            return ResponseEntity.ok().eTag(eTag).body(items);
         } catch (ResourceNotFoundException e) {
             logger.warn("Failed to fetch menu items: {}", e.getMessage());
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -257,6 +362,97 @@ public class UserController {
         }
     }
 
+    @GetMapping("/menu-items/{restaurantId}/browse")
+    @PreAuthorize("hasAnyRole('USER', 'RESTAURANT', 'ADMIN')")
+    public ResponseEntity<MenuBrowseResult> browseMenuItems(
+            @PathVariable String restaurantId,
+            @RequestParam(required = false) String cuisineType,
+            @RequestParam(required = false) String mealType,
+            @RequestParam(required = false) String vegOrNonVeg,
+            WebRequest webRequest) {
+        logger.info("Received request to browse menu items for restaurant ID: {}", restaurantId);
+        try {
+            // Browsing aggregates in MongoDB; reading the version first keeps the tag no newer than the body
+            String eTag = menuETag(restaurantId, menuService.getMenuVersion(restaurantId));
+            if (webRequest.checkNotModified(eTag)) {
+                logger.info("Menu not modified for restaurant ID: {}", restaurantId);
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+            MenuBrowseResult result = menuItemService.browseMenuItems(restaurantId, cuisineType, mealType, vegOrNonVeg);
+            logger.info("Browsed {} menu items for restaurant ID: {}", result.getItems().size(), restaurantId);
+            return ResponseEntity.ok().eTag(eTag).body(result);
+        } catch (ResourceNotFoundException e) {
+            logger.warn("Failed to browse menu items: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to browse menu items: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("Unexpected error while browsing menu items: {}", e.getMessage(), e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/dishes/autocomplete")
+    @PreAuthorize("hasAnyRole('USER', 'RESTAURANT', 'ADMIN')")
+    public ResponseEntity<List<DishSuggestion>> autocompleteDishes(
+            @RequestParam String q,
+            @RequestParam(required = false) String restaurantId,
+            @RequestParam(defaultValue = "10") int limit) {
+        logger.info("Received request to autocomplete dishes for query: {}", q);
+        try {
+            if (limit < 1 || limit > 50) {
+                throw new IllegalArgumentException("Limit must be between 1 and 50");
+            }
+            List<DishSuggestion> suggestions = dishSearchIndex.autocomplete(q, restaurantId, limit);
+            logger.info("Found {} dish suggestions for query: {}", suggestions.size(), q);
+            return ResponseEntity.ok(suggestions);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to autocomplete dishes: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("Unexpected error while autocompleting dishes: {}", e.getMessage(), e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PostMapping("/menu-items/{menuItemId}/reviews")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('USER') and #userId == authentication.principal.id)")
+    public ResponseEntity<Review> addReview(@PathVariable String menuItemId, @RequestParam String userId, @Valid @RequestBody Review review) {
+        logger.info("Received request to add review for menu item ID: {} by user ID: {}", menuItemId, userId);
+        try {
+            Review saved = reviewService.addReview(menuItemId, userId, review);
+            logger.info("Review added successfully with ID: {}", saved.getId());
+            return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+        } catch (ResourceNotFoundException e) {
+            logger.warn("Failed to add review: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            logger.error("Unexpected error while adding review: {}", e.getMessage(), e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/menu-items/{menuItemId}/reviews")
+    @PreAuthorize("hasAnyRole('USER', 'RESTAURANT', 'ADMIN')")
+    public ResponseEntity<ReviewPage> getReviews(
+            @PathVariable String menuItemId,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "20") int limit) {
+        logger.info("Received request to fetch reviews for menu item ID: {}", menuItemId);
+        try {
+            ReviewPage page = reviewService.getReviews(menuItemId, before, limit);
+            logger.info("Fetched {} reviews for menu item ID: {}", page.getReviews().size(), menuItemId);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to fetch reviews: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("Unexpected error while fetching reviews: {}", e.getMessage(), e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     // Cart Endpoints
     @PutMapping("/cart")
     @PreAuthorize("hasRole('ADMIN') or (hasRole('USER') and #userId == authentication.principal.id)")
@@ -278,6 +474,26 @@ public class UserController {
         }
     }
 
+    @PutMapping("/cart/batch")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('USER') and #userId == authentication.principal.id)")
+    public ResponseEntity<Cart> applyCartOperations(@RequestParam @Valid String userId, @Valid @RequestBody List<CartOperation> operations) {
+        logger.info("Received request to apply {} cart operations for user ID: {}", operations.size(), userId);
+        try {
+            Cart cart = cartService.applyCartOperations(userId, operations);
+            logger.info("Cart operations applied successfully for user ID: {}", userId);
+            return ResponseEntity.ok(cart);
+        } catch (ResourceNotFoundException e) {
+            logger.warn("Failed to apply cart operations: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to apply cart operations: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("Unexpected error while applying cart operations: {}", e.getMessage(), e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     @GetMapping("/cart")
     @PreAuthorize("hasRole('ADMIN') or (hasRole('USER') and #userId == authentication.principal.id)")
     public ResponseEntity<Cart> getCart(@RequestParam @Valid String userId) {
@@ -295,6 +511,23 @@ public class UserController {
         }
     }
 
+    @GetMapping("/cart/checkout-preflight")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('USER') and #userId == authentication.principal.id)")
+    public ResponseEntity<CheckoutValidation> validateCheckout(@RequestParam @Valid String userId, @RequestParam String restaurantId) {
+        logger.info("Received request to revalidate cart for user ID: {} against restaurant ID: {}", userId, restaurantId);
+        try {
+            CheckoutValidation validation = cartService.validateCheckout(userId, restaurantId);
+            logger.info("Cart revalidated for user ID: {}. Orderable: {}", userId, validation.isOrderable());
+            return ResponseEntity.ok(validation);
+        } catch (ResourceNotFoundException e) {
+            logger.warn("Failed to revalidate cart: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            logger.error("Unexpected error while revalidating cart: {}", e.getMessage(), e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     @DeleteMapping("/cart")
     @PreAuthorize("hasRole('ADMIN') or (hasRole('USER') and #userId == authentication.principal.id)")
     public ResponseEntity<Void> clearCart(@RequestParam @Valid String userId) {
@@ -638,6 +871,23 @@ public class UserController {
         }
     }
 
+    @GetMapping("/menu-items/{menuItemId}/also-ordered")
+    @PreAuthorize("hasAnyRole('USER', 'RESTAURANT', 'ADMIN')")
+    public ResponseEntity<List<MenuItem>> getAlsoOrdered(@PathVariable String menuItemId, @RequestParam(defaultValue = "10") int limit) {
+        logger.info("Received request to fetch items ordered together with menu item ID: {}", menuItemId);
+        try {
+            List<MenuItem> items = recommendationService.getAlsoOrdered(menuItemId, limit);
+            logger.info("Found {} items ordered together with menu item ID: {}", items.size(), menuItemId);
+            return ResponseEntity.ok(items);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to fetch items ordered together: {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("Unexpected error while fetching items ordered together: {}", e.getMessage(), e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     @PutMapping("/{userId}/preferences")
     @PreAuthorize("hasRole('ADMIN') or (hasRole('USER') and #userId == authentication.principal.id)")
     public ResponseEntity<Void> updatePreferences(@PathVariable String userId, @RequestBody List<String> favoriteCuisines) {
@@ -654,4 +904,14 @@ public class UserController {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    // Strong ETag built from a content version that is bumped on every write to the resource
+    private static String versionETag(String resource, long version) {
+        return "\"" + resource + "-v" + version + "\"";
+    }
+
+    // Weak: menu items carry order counters that change without a menu version bump
+    private static String menuETag(String restaurantId, long menuVersion) {
+        return "W/" + versionETag("menu-" + restaurantId, menuVersion);
+    }
 }
\ No newline at end of file
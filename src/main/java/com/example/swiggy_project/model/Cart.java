@@ -1,11 +1,15 @@
 package com.example.swiggy_project.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,10 +19,17 @@ public class Cart {
     private String id;
 
     @NotBlank(message = "User ID is mandatory")
+    @Indexed(unique = true)
     private String userId;
 
     private List<CartItem> items = new ArrayList<>();
 
+    @Version
+    private Long version; // Optimistic lock; bumped on every save
+
+    @LastModifiedDate
+    private Instant lastModified; // Drives the TTL index and the abandoned-cart sweeper
+
     // Getters and Setters
     public String getId() {
         return id;
@@ -44,6 +55,21 @@ public class Cart {
         this.items = items;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
 
     public static class CartItem {
         private String id; // Unique ID for the cart item
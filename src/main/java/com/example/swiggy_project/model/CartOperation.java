@@ -0,0 +1,59 @@
+package com.example.swiggy_project.model;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+/**
+ * A single cart mutation submitted as part of a batch cart update.
+ */
+public class CartOperation {
+
+    public enum Type {
+        ADD,    // add quantity to the existing line (or create it)
+        SET,    // set the line to exactly this quantity; 0 removes the line
+        REMOVE  // remove the line regardless of quantity
+    }
+
+    @NotNull(message = "Operation type is mandatory")
+    private Type type;
+
+    @NotBlank(message = "Menu item ID is mandatory")
+    private String menuItemId;
+
+    @PositiveOrZero(message = "Quantity must not be negative")
+    private int quantity;
+
+    public CartOperation() {}
+
+    public CartOperation(Type type, String menuItemId, int quantity) {
+        this.type = type;
+        this.menuItemId = menuItemId;
+        this.quantity = quantity;
+    }
+
+    // Getters and setters
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public String getMenuItemId() {
+        return menuItemId;
+    }
+
+    public void setMenuItemId(String menuItemId) {
+        this.menuItemId = menuItemId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.swiggy_project.model;
+
+/**
+ * Summary of one abandoned-cart sweep.
+ */
+public class CartSweepReport {
+    private long emptyCartsDeleted;
+    private long staleCartsDeleted;
+    private long legacyCartsStamped;
+    private int batches;
+    private long estimatedBytesReclaimed;
+    private long durationMillis;
+
+    // Getters and setters
+    public long getEmptyCartsDeleted() {
+        return emptyCartsDeleted;
+    }
+
+    public void setEmptyCartsDeleted(long emptyCartsDeleted) {
+        this.emptyCartsDeleted = emptyCartsDeleted;
+    }
+
+    public long getStaleCartsDeleted() {
+        return staleCartsDeleted;
+    }
+
+    public void setStaleCartsDeleted(long staleCartsDeleted) {
+        this.staleCartsDeleted = staleCartsDeleted;
+    }
+
+    public long getLegacyCartsStamped() {
+        return legacyCartsStamped;
+    }
+
+    public void setLegacyCartsStamped(long legacyCartsStamped) {
+        this.legacyCartsStamped = legacyCartsStamped;
+    }
+
+    public int getBatches() {
+        return batches;
+    }
+
+    public void setBatches(int batches) {
+        this.batches = batches;
+    }
+
+    public long getEstimatedBytesReclaimed() {
+        return estimatedBytesReclaimed;
+    }
+
+    public void setEstimatedBytesReclaimed(long estimatedBytesReclaimed) {
+        this.estimatedBytesReclaimed = estimatedBytesReclaimed;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public long getTotalDeleted() {
+        return emptyCartsDeleted + staleCartsDeleted;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.swiggy_project.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of revalidating a cart against current menu data before an order is placed.
+ */
+public class CheckoutValidation {
+    private String userId;
+    private String restaurantId;
+    private double cartTotal;    // Total at the prices snapshotted in the cart
+    private double currentTotal; // Total at today's menu prices, for lines that can be ordered
+    private List<LineCheck> lines = new ArrayList<>();
+    private boolean serviceable = true; // Whether the restaurant delivers to the user's location
+
+    public enum LineStatus {
+        OK,
+        PRICE_CHANGED,
+        NOT_FOUND,
+        WRONG_RESTAURANT
+    }
+
+    // Nested class describing the outcome for one cart line
+    public static class LineCheck {
+        private String menuItemId;
+        private String name;
+        private int quantity;
+        private double cartPrice;
+        private double currentPrice;
+        private double priceDelta;
+        private LineStatus status;
+
+        public LineCheck() {}
+
+        public LineCheck(String menuItemId, int quantity, double cartPrice, LineStatus status) {
+            this.menuItemId = menuItemId;
+            this.quantity = quantity;
+            this.cartPrice = cartPrice;
+            this.status = status;
+        }
+
+        // Getters and setters
+        public String getMenuItemId() {
+            return menuItemId;
+        }
+
+        public void setMenuItemId(String menuItemId) {
+            this.menuItemId = menuItemId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+
+        public double getCartPrice() {
+            return cartPrice;
+        }
+
+        public void setCartPrice(double cartPrice) {
+            this.cartPrice = cartPrice;
+        }
+
+        public double getCurrentPrice() {
+            return currentPrice;
+        }
+
+        public void setCurrentPrice(double currentPrice) {
+            this.currentPrice = currentPrice;
+        }
+
+        public double getPriceDelta() {
+            return priceDelta;
+        }
+
+        public void setPriceDelta(double priceDelta) {
+            this.priceDelta = priceDelta;
+        }
+
+        public LineStatus getStatus() {
+            return status;
+        }
+
+        public void setStatus(LineStatus status) {
+            this.status = status;
+        }
+    }
+
+    // Getters and setters
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getRestaurantId() {
+        return restaurantId;
+    }
+
+    public void setRestaurantId(String restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+
+    public double getCartTotal() {
+        return cartTotal;
+    }
+
+    public void setCartTotal(double cartTotal) {
+        this.cartTotal = cartTotal;
+    }
+
+    public double getCurrentTotal() {
+        return currentTotal;
+    }
+
+    public void setCurrentTotal(double currentTotal) {
+        this.currentTotal = currentTotal;
+    }
+
+    public List<LineCheck> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<LineCheck> lines) {
+        this.lines = lines;
+    }
+
+    public boolean isServiceable() {
+        return serviceable;
+    }
+
+    public void setServiceable(boolean serviceable) {
+        this.serviceable = serviceable;
+    }
+
+    /**
+     * @return true if the restaurant delivers to the user and every line still exists and
+     *         belongs to the restaurant; price changes are allowed
+     */
+    public boolean isOrderable() {
+        return serviceable && lines.stream().allMatch(line -> line.getStatus() == LineStatus.OK || line.getStatus() == LineStatus.PRICE_CHANGED);
+    }
+
+    /**
+     * @return true if the cart can be ordered exactly as the user last saw it
+     */
+    public boolean isUnchanged() {
+        return lines.stream().allMatch(line -> line.getStatus() == LineStatus.OK);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.swiggy_project.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * A named counter bumped on every write to a collection-level resource, such as the restaurant
+ * catalog. Used to derive ETags without reading the resource itself.
+ */
+@Document(collection = "content_versions")
+public class ContentVersion {
+    @Id
+    private String id;
+
+    private long version;
+
+    // Getters and setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,94 @@
+package com.example.swiggy_project.model;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An area a restaurant delivers to, as a polygon. A zone belongs either to one restaurant or to
+ * a whole city; a restaurant with zones of its own ignores its city's zones, and a restaurant
+ * with neither delivers everywhere.
+ */
+@Document(collection = "delivery_zones")
+public class DeliveryZone {
+    @Id
+    private String id;
+
+    private String name;
+
+    private String restaurantId; // Set for a restaurant's own zone
+
+    private String city; // Set for a city-wide zone, matched on the restaurants' normalized city
+
+    @NotEmpty(message = "Polygon is mandatory")
+    @Size(min = 3, message = "Polygon must have at least 3 points")
+    private List<double[]> polygon = new ArrayList<>(); // Outer ring of [longitude, latitude] points; closing point optional
+
+    private boolean active = true;
+
+    @LastModifiedDate
+    private Instant updatedAt;
+
+    // Getters and setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getRestaurantId() {
+        return restaurantId;
+    }
+
+    public void setRestaurantId(String restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public List<double[]> getPolygon() {
+        return polygon;
+    }
+
+    public void setPolygon(List<double[]> polygon) {
+        this.polygon = polygon;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
\ No newline at end of file
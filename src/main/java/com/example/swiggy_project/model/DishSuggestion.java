@@ -0,0 +1,73 @@
+package com.example.swiggy_project.model;
+
+/**
+ * A single dish autocomplete suggestion served from the in-memory dish search index.
+ */
+public class DishSuggestion {
+    private String menuItemId;
+    private String name;
+    private String restaurantId;
+    private String cuisineType;
+    private String mealType;
+    private int score; // Higher is better; exact and name matches outrank typo and category matches
+
+    public DishSuggestion() {}
+
+    public DishSuggestion(String menuItemId, String name, String restaurantId, String cuisineType, String mealType, int score) {
+        this.menuItemId = menuItemId;
+        this.name = name;
+        this.restaurantId = restaurantId;
+        this.cuisineType = cuisineType;
+        this.mealType = mealType;
+        this.score = score;
+    }
+
+    // Getters and setters
+    public String getMenuItemId() {
+        return menuItemId;
+    }
+
+    public void setMenuItemId(String menuItemId) {
+        this.menuItemId = menuItemId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getRestaurantId() {
+        return restaurantId;
+    }
+
+    public void setRestaurantId(String restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+
+    public String getCuisineType() {
+        return cuisineType;
+    }
+
+    public void setCuisineType(String cuisineType) {
+        this.cuisineType = cuisineType;
+    }
+
+    public String getMealType() {
+        return mealType;
+    }
+
+    public void setMealType(String mealType) {
+        this.mealType = mealType;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public void setScore(int score) {
+        this.score = score;
+    }
+}
\ No newline at end of file
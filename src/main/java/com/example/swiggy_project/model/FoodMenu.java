@@ -20,6 +20,8 @@ public class FoodMenu {
     @NotBlank(message = "Menu name is mandatory")
     private String name;
 
+    private long menuVersion; // Bumped atomically whenever an item of this menu changes
+
     public String getId() {
         return id;
     }
@@ -51,4 +53,12 @@ public class FoodMenu {
     public void setName(String name) {
         this.name = name;
     }
+
+    public long getMenuVersion() {
+        return menuVersion;
+    }
+
+    public void setMenuVersion(long menuVersion) {
+        this.menuVersion = menuVersion;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.example.swiggy_project.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Menu items matching a set of browse filters, together with the facet counts used to render
+ * filter chips. Each facet is counted with every other filter applied but not its own, so a
+ * chip shows how many items selecting that value would return.
+ */
+public class MenuBrowseResult {
+    private String restaurantId;
+    private List<MenuItem> items = new ArrayList<>();
+    private Map<String, Long> cuisineTypeCounts = new LinkedHashMap<>();
+    private Map<String, Long> mealTypeCounts = new LinkedHashMap<>();
+    private Map<String, Long> vegOrNonVegCounts = new LinkedHashMap<>();
+
+    // Getters and setters
+    public String getRestaurantId() {
+        return restaurantId;
+    }
+
+    public void setRestaurantId(String restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+
+    public List<MenuItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<MenuItem> items) {
+        this.items = items;
+    }
+
+    public Map<String, Long> getCuisineTypeCounts() {
+        return cuisineTypeCounts;
+    }
+
+    public void setCuisineTypeCounts(Map<String, Long> cuisineTypeCounts) {
+        this.cuisineTypeCounts = cuisineTypeCounts;
+    }
+
+    public Map<String, Long> getMealTypeCounts() {
+        return mealTypeCounts;
+    }
+
+    public void setMealTypeCounts(Map<String, Long> mealTypeCounts) {
+        this.mealTypeCounts = mealTypeCounts;
+    }
+
+    public Map<String, Long> getVegOrNonVegCounts() {
+        return vegOrNonVegCounts;
+    }
+
+    public void setVegOrNonVegCounts(Map<String, Long> vegOrNonVegCounts) {
+        this.vegOrNonVegCounts = vegOrNonVegCounts;
+    }
+}
\ No newline at end of file
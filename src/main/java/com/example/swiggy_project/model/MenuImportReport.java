@@ -0,0 +1,114 @@
+package com.example.swiggy_project.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk menu import. Rows are numbered from 1 in upload order (for CSV, the header
+ * line is not counted). Only the first errors up to the configured cap are listed individually.
+ */
+public class MenuImportReport {
+    private String restaurantId;
+    private long rowsRead;
+    private long imported;
+    private long failed;
+    private boolean errorsTruncated;
+    private boolean aborted; // The upload itself was malformed; rows after the failure point were not read
+    private long durationMillis;
+    private List<RowError> errors = new ArrayList<>();
+
+    // Nested class describing why one row was rejected
+    public static class RowError {
+        private long row;
+        private String message;
+
+        public RowError() {}
+
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        // Getters and setters
+        public long getRow() {
+            return row;
+        }
+
+        public void setRow(long row) {
+            this.row = row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+
+    // Getters and setters
+    public String getRestaurantId() {
+        return restaurantId;
+    }
+
+    public void setRestaurantId(String restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    public void setAborted(boolean aborted) {
+        this.aborted = aborted;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+}
\ No newline at end of file
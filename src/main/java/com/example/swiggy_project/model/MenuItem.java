@@ -1,14 +1,14 @@
 package com.example.swiggy_project.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
 
-import java.util.ArrayList;
-import java.util.List;
-
 @Document(collection = "menu_items")
 public class MenuItem {
     @Id
@@ -22,7 +22,12 @@ public class MenuItem {
 
     private String foodMenuId;
 
-    private FoodMenu foodMenu;
+    @Indexed
+    private String restaurantId; // Denormalized from the FoodMenu so items can be scoped without a join
+
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private FoodMenu foodMenu; // Not stored; hydrated on demand from FoodMenuCache
 
     @NotBlank(message = "Cuisine type is mandatory")
     private String cuisineType;
@@ -35,9 +40,11 @@ public class MenuItem {
 
     private int numberOfTimesOrdered = 0;
 
-    private double rating = 0.0;
+    private double rating = 0.0; // Running average, ratingSum / ratingCount
+
+    private long ratingCount = 0; // Maintained with $inc by ReviewService; reviews live in their own collection
 
-    private List<String> reviews = new ArrayList<>();
+    private double ratingSum = 0.0;
 
     // Getters and setters
     public String getId() {
@@ -72,6 +79,14 @@ public class MenuItem {
         this.foodMenuId = foodMenuId;
     }
 
+    public String getRestaurantId() {
+        return restaurantId;
+    }
+
+    public void setRestaurantId(String restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+
     public FoodMenu getFoodMenu() {
         return foodMenu;
     }
@@ -120,11 +135,19 @@ public class MenuItem {
         this.rating = rating;
     }
 
-    public List<String> getReviews() {
-        return reviews;
+    public long getRatingCount() {
+        return ratingCount;
+    }
+
+    public void setRatingCount(long ratingCount) {
+        this.ratingCount = ratingCount;
+    }
+
+    public double getRatingSum() {
+        return ratingSum;
     }
 
-    public void setReviews(List<String> reviews) {
-        this.reviews = reviews;
+    public void setRatingSum(double ratingSum) {
+        this.ratingSum = ratingSum;
     }
 }
\ No newline at end of file
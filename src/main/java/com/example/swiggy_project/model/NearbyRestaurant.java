@@ -0,0 +1,73 @@
+package com.example.swiggy_project.model;
+
+/**
+ * List view of a restaurant in a nearby search, with its distance from the searching user.
+ */
+public class NearbyRestaurant {
+    private String id;
+    private String name;
+    private String address;
+    private String city;
+    private double rating;
+    private double[] location; // [longitude, latitude]
+    private double distanceKm;
+
+    public NearbyRestaurant() {}
+
+    // Getters and setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public double getRating() {
+        return rating;
+    }
+
+    public void setRating(double rating) {
+        this.rating = rating;
+    }
+
+    public double[] getLocation() {
+        return location;
+    }
+
+    public void setLocation(double[] location) {
+        this.location = location;
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.example.swiggy_project.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of a nearby restaurant search, nearest first. Pass {@code nextCursor} back as
+ * {@code after} to fetch the following page; it is null on the last page.
+ */
+public class NearbyRestaurantPage {
+    private List<NearbyRestaurant> restaurants = new ArrayList<>();
+    private String nextCursor;
+
+    public NearbyRestaurantPage() {}
+
+    public NearbyRestaurantPage(List<NearbyRestaurant> restaurants, String nextCursor) {
+        this.restaurants = restaurants;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and setters
+    public List<NearbyRestaurant> getRestaurants() {
+        return restaurants;
+    }
+
+    public void setRestaurants(List<NearbyRestaurant> restaurants) {
+        this.restaurants = restaurants;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
\ No newline at end of file
@@ -1,8 +1,11 @@
 package com.example.swiggy_project.model;
 
+import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -19,8 +22,17 @@ public class Order {
     private String couponCode;
     private List<OrderItem> items = new ArrayList<>();
 
+    @CreatedDate
+    private Instant placedAt;
+
+    private Instant preparedAt; // First time the order was packed or dispatched; placedAt to preparedAt is the prep time
+
+    @Version
+    private Long version; // Optimistic lock; bumped on every save
+
     // Nested class to represent an item in the order
     public static class OrderItem {
+        private String menuItemId;
         private String name;
         private double price;
         private int quantity;
@@ -33,7 +45,20 @@ public class Order {
             this.quantity = quantity;
         }
 
+        public OrderItem(String menuItemId, String name, double price, int quantity) {
+            this(name, price, quantity);
+            this.menuItemId = menuItemId;
+        }
+
         // Getters and setters
+        public String getMenuItemId() {
+            return menuItemId;
+        }
+
+        public void setMenuItemId(String menuItemId) {
+            this.menuItemId = menuItemId;
+        }
+
         public String getName() {
             return name;
         }
@@ -131,4 +156,28 @@ public class Order {
     public void setItems(List<OrderItem> items) {
         this.items = items;
     }
+
+    public Instant getPlacedAt() {
+        return placedAt;
+    }
+
+    public void setPlacedAt(Instant placedAt) {
+        this.placedAt = placedAt;
+    }
+
+    public Instant getPreparedAt() {
+        return preparedAt;
+    }
+
+    public void setPreparedAt(Instant preparedAt) {
+        this.preparedAt = preparedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
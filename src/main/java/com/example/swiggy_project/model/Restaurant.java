@@ -1,6 +1,8 @@
 package com.example.swiggy_project.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
 import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
@@ -8,6 +10,8 @@ import org.springframework.data.mongodb.core.mapping.Document;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import java.time.Instant;
+import java.util.List;
 
 @Document(collection = "restaurants")
 public class Restaurant {
@@ -17,12 +21,30 @@ public class Restaurant {
     @NotBlank(message = "Name is mandatory")
     private String name;
 
+    @JsonIgnore
+    private String normalizedName; // SearchText.normalize(name); maintained on write for indexed name search
+
+    @JsonIgnore
+    private List<String> nameNgrams; // Trigrams of normalizedName, multikey-indexed
+
     @NotBlank(message = "Address is mandatory")
     private String address;
 
+    private String city; // Taken from the address when not given explicitly
+
+    @JsonIgnore
+    private String normalizedCity; // SearchText.normalize(city); indexed with rating for city listings
+
+    @JsonIgnore
+    private int searchFieldsVersion; // Version of the derived search fields; older documents are backfilled
+
     @Min(value = 0, message = "Rating must be at least 0")
     @Max(value = 5, message = "Rating cannot exceed 5")
-    private double rating;
+    private double rating; // Running average of item reviews once any exist, ratingSum / ratingCount
+
+    private long ratingCount;
+
+    private double ratingSum;
 
     @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
     private double[] location; // [longitude, latitude]
@@ -30,6 +52,11 @@ public class Restaurant {
     @NotBlank(message = "Owner ID is mandatory")
     private String ownerId; // ID of the user with ROLE_RESTAURANT who owns this restaurant
 
+    private long contentVersion; // Bumped on every write; used as the restaurant's ETag
+
+    @LastModifiedDate
+    private Instant updatedAt; // Set on every write; drives incremental catalog sync
+
     // Getters and setters
     public String getId() {
         return id;
@@ -47,6 +74,22 @@ public class Restaurant {
         this.name = name;
     }
 
+    public String getNormalizedName() {
+        return normalizedName;
+    }
+
+    public void setNormalizedName(String normalizedName) {
+        this.normalizedName = normalizedName;
+    }
+
+    public List<String> getNameNgrams() {
+        return nameNgrams;
+    }
+
+    public void setNameNgrams(List<String> nameNgrams) {
+        this.nameNgrams = nameNgrams;
+    }
+
     public String getAddress() {
         return address;
     }
@@ -55,6 +98,30 @@ public class Restaurant {
         this.address = address;
     }
 
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public String getNormalizedCity() {
+        return normalizedCity;
+    }
+
+    public void setNormalizedCity(String normalizedCity) {
+        this.normalizedCity = normalizedCity;
+    }
+
+    public int getSearchFieldsVersion() {
+        return searchFieldsVersion;
+    }
+
+    public void setSearchFieldsVersion(int searchFieldsVersion) {
+        this.searchFieldsVersion = searchFieldsVersion;
+    }
+
     public double getRating() {
         return rating;
     }
@@ -63,6 +130,22 @@ public class Restaurant {
         this.rating = rating;
     }
 
+    public long getRatingCount() {
+        return ratingCount;
+    }
+
+    public void setRatingCount(long ratingCount) {
+        this.ratingCount = ratingCount;
+    }
+
+    public double getRatingSum() {
+        return ratingSum;
+    }
+
+    public void setRatingSum(double ratingSum) {
+        this.ratingSum = ratingSum;
+    }
+
     public double[] getLocation() {
         return location;
     }
@@ -78,4 +161,20 @@ public class Restaurant {
     public void setOwnerId(String ownerId) {
         this.ownerId = ownerId;
     }
+
+    public long getContentVersion() {
+        return contentVersion;
+    }
+
+    public void setContentVersion(long contentVersion) {
+        this.contentVersion = contentVersion;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
\ No newline at end of file
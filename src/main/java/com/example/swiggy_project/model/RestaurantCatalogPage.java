@@ -0,0 +1,49 @@
+package com.example.swiggy_project.model;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of the restaurant catalog. Pass {@code nextCursor} back as {@code after} to fetch
+ * the following page; it is null on the last page. Keep the {@code syncedAt} of the first page
+ * of a sync and pass it as {@code since} next time to fetch only what changed in between.
+ */
+public class RestaurantCatalogPage {
+    private List<RestaurantSummary> restaurants = new ArrayList<>();
+    private String nextCursor;
+    private Instant syncedAt;
+
+    public RestaurantCatalogPage() {}
+
+    public RestaurantCatalogPage(List<RestaurantSummary> restaurants, String nextCursor, Instant syncedAt) {
+        this.restaurants = restaurants;
+        this.nextCursor = nextCursor;
+        this.syncedAt = syncedAt;
+    }
+
+    // Getters and setters
+    public List<RestaurantSummary> getRestaurants() {
+        return restaurants;
+    }
+
+    public void setRestaurants(List<RestaurantSummary> restaurants) {
+        this.restaurants = restaurants;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Instant getSyncedAt() {
+        return syncedAt;
+    }
+
+    public void setSyncedAt(Instant syncedAt) {
+        this.syncedAt = syncedAt;
+    }
+}
\ No newline at end of file
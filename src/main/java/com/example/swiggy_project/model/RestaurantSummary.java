@@ -0,0 +1,85 @@
+package com.example.swiggy_project.model;
+
+import java.time.Instant;
+
+/**
+ * Catalog view of a restaurant: the fields a client needs to list it.
+ */
+public class RestaurantSummary {
+    private String id;
+    private String name;
+    private String address;
+    private String city;
+    private double rating;
+    private double[] location; // [longitude, latitude]
+    private Instant updatedAt;
+
+    public RestaurantSummary() {}
+
+    public RestaurantSummary(Restaurant restaurant) {
+        this.id = restaurant.getId();
+        this.name = restaurant.getName();
+        this.address = restaurant.getAddress();
+        this.city = restaurant.getCity();
+        this.rating = restaurant.getRating();
+        this.location = restaurant.getLocation();
+        this.updatedAt = restaurant.getUpdatedAt();
+    }
+
+    // Getters and setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public double getRating() {
+        return rating;
+    }
+
+    public void setRating(double rating) {
+        this.rating = rating;
+    }
+
+    public double[] getLocation() {
+        return location;
+    }
+
+    public void setLocation(double[] location) {
+        this.location = location;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.example.swiggy_project.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.Instant;
+
+/**
+ * A review of a menu item. Reviews live in their own collection so menu items stay small;
+ * the item and its restaurant only keep a running rating count and sum.
+ */
+@Document(collection = "reviews")
+public class Review {
+    @Id
+    private String id;
+
+    private String menuItemId;
+
+    private String restaurantId;
+
+    private String userId;
+
+    @NotNull(message = "Rating is mandatory")
+    @Min(value = 1, message = "Rating must be at least 1")
+    @Max(value = 5, message = "Rating cannot exceed 5")
+    private Integer rating; // Null only for reviews migrated from the old embedded text list
+
+    @Size(max = 2000, message = "Comment cannot exceed 2000 characters")
+    private String comment;
+
+    private Instant createdAt;
+
+    private String legacyKey; // menuItemId:index for reviews migrated from MenuItem.reviews
+
+    // Getters and setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getMenuItemId() {
+        return menuItemId;
+    }
+
+    public void setMenuItemId(String menuItemId) {
+        this.menuItemId = menuItemId;
+    }
+
+    public String getRestaurantId() {
+        return restaurantId;
+    }
+
+    public void setRestaurantId(String restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public Integer getRating() {
+        return rating;
+    }
+
+    public void setRating(Integer rating) {
+        this.rating = rating;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public void setComment(String comment) {
+        this.comment = comment;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getLegacyKey() {
+        return legacyKey;
+    }
+
+    public void setLegacyKey(String legacyKey) {
+        this.legacyKey = legacyKey;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.example.swiggy_project.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of reviews, newest first. Pass {@code nextCursor} back as {@code before} to fetch
+ * the following page; it is null on the last page.
+ */
+public class ReviewPage {
+    private List<Review> reviews = new ArrayList<>();
+    private String nextCursor;
+
+    public ReviewPage() {}
+
+    public ReviewPage(List<Review> reviews, String nextCursor) {
+        this.reviews = reviews;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and setters
+    public List<Review> getReviews() {
+        return reviews;
+    }
+
+    public void setReviews(List<Review> reviews) {
+        this.reviews = reviews;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
\ No newline at end of file
@@ -54,6 +54,10 @@ public class User implements UserDetails {
 
     private List<String> orderHistory = new ArrayList<>(); // List of Order IDs
 
+    // Quantities of veg and non-veg items ordered, incremented when an order is placed
+    private long vegItemsOrdered;
+    private long nonVegItemsOrdered;
+
     private List<String> addresses = new ArrayList<>(); // Multiple addresses for delivery
 
     // Getters and setters
@@ -177,6 +181,22 @@ public class User implements UserDetails {
         this.orderHistory = orderHistory;
     }
 
+    public long getVegItemsOrdered() {
+        return vegItemsOrdered;
+    }
+
+    public void setVegItemsOrdered(long vegItemsOrdered) {
+        this.vegItemsOrdered = vegItemsOrdered;
+    }
+
+    public long getNonVegItemsOrdered() {
+        return nonVegItemsOrdered;
+    }
+
+    public void setNonVegItemsOrdered(long nonVegItemsOrdered) {
+        this.nonVegItemsOrdered = nonVegItemsOrdered;
+    }
+
     public List<String> getAddresses() {
         return addresses;
     }
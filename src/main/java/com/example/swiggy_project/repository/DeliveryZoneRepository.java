@@ -0,0 +1,14 @@
+package com.example.swiggy_project.repository;
+
+import com.example.swiggy_project.model.DeliveryZone;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface DeliveryZoneRepository extends MongoRepository<DeliveryZone, String> {
+    List<DeliveryZone> findByRestaurantId(String restaurantId);
+
+    List<DeliveryZone> findByCity(String city);
+
+    List<DeliveryZone> findByActiveTrue();
+}
\ No newline at end of file
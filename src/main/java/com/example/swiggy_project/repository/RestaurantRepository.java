@@ -1,6 +1,7 @@
 package com.example.swiggy_project.repository;
 
 import com.example.swiggy_project.model.Restaurant;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 
@@ -11,5 +12,7 @@ public interface RestaurantRepository extends MongoRepository<Restaurant, String
 
     List<Restaurant> findByNameContainingIgnoreCase(String name);
 
-    List<Restaurant> findByAddressContainingIgnoreCase(String city);
+    List<Restaurant> findByAddressContainingIgnoreCase(String city, Pageable pageable);
+
+    List<Restaurant> findByNormalizedCity(String normalizedCity, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.example.swiggy_project.repository;
+
+import com.example.swiggy_project.model.Review;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface ReviewRepository extends MongoRepository<Review, String> {
+}
\ No newline at end of file
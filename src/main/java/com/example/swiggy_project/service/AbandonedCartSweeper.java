@@ -0,0 +1,152 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.model.Cart;
+import com.example.swiggy_project.model.CartSweepReport;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Deletes carts nobody is coming back for: carts emptied by checkout or by the user that have
+ * not been touched for a grace period, and carts of any content that have gone stale. Work is
+ * done in bounded batches so a large backlog never turns into one long-running delete.
+ * The TTL index on {@code lastModified} is the safety net; this sweeper reclaims empty carts
+ * much earlier and reports what it removed.
+ */
+@Service
+public class AbandonedCartSweeper {
+    private static final Logger logger = LoggerFactory.getLogger(AbandonedCartSweeper.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cart.sweeper.empty-grace-hours:24}")
+    private long emptyGraceHours;
+
+    @Value("${cart.ttl-days:30}")
+    private long staleAfterDays;
+
+    @Value("${cart.sweeper.batch-size:500}")
+    private int batchSize;
+
+    @Value("${cart.sweeper.max-batches:20}")
+    private int maxBatches;
+
+    @Scheduled(fixedDelayString = "${cart.sweeper.interval-ms:3600000}", initialDelayString = "${cart.sweeper.initial-delay-ms:300000}")
+    public void scheduledSweep() {
+        try {
+            sweep();
+        } catch (Exception e) {
+            logger.warn("Abandoned-cart sweep failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Runs one sweep of at most {@code cart.sweeper.max-batches} batches.
+     *
+     * @return how many carts were deleted and roughly how much storage that freed
+     */
+    public CartSweepReport sweep() {
+        long start = System.currentTimeMillis();
+        Instant now = Instant.now();
+        Criteria emptyAndIdle = new Criteria().andOperator(
+                Criteria.where("items").size(0),
+                new Criteria().orOperator(
+                        Criteria.where("lastModified").lt(now.minus(Duration.ofHours(emptyGraceHours))),
+                        Criteria.where("lastModified").exists(false)));
+        Criteria stale = Criteria.where("lastModified").lt(now.minus(Duration.ofDays(staleAfterDays)));
+
+        CartSweepReport report = new CartSweepReport();
+        long averageCartSize = averageCartSize();
+
+        // Carts written before lastModified existed would never age out; start their clock now.
+        // Stamped carts stop matching, so each batch picks up where the previous one ended.
+        Criteria legacy = Criteria.where("lastModified").exists(false).and("items").not().size(0);
+        for (int batch = 0; batch < maxBatches; batch++) {
+            long stamped = stampBatch(legacy, now);
+            report.setLegacyCartsStamped(report.getLegacyCartsStamped() + stamped);
+            if (stamped < batchSize) {
+                break;
+            }
+        }
+
+        while (report.getBatches() < maxBatches) {
+            long empty = deleteBatch(emptyAndIdle);
+            long stalled = empty < batchSize ? deleteBatch(stale) : 0;
+            report.setBatches(report.getBatches() + 1);
+            report.setEmptyCartsDeleted(report.getEmptyCartsDeleted() + empty);
+            report.setStaleCartsDeleted(report.getStaleCartsDeleted() + stalled);
+            if (empty < batchSize && stalled < batchSize) {
+                break;
+            }
+        }
+
+        report.setEstimatedBytesReclaimed(report.getTotalDeleted() * averageCartSize);
+        report.setDurationMillis(System.currentTimeMillis() - start);
+        meterRegistry.counter("carts.sweeper.deleted", "reason", "empty").increment(report.getEmptyCartsDeleted());
+        meterRegistry.counter("carts.sweeper.deleted", "reason", "stale").increment(report.getStaleCartsDeleted());
+        meterRegistry.counter("carts.sweeper.bytes.reclaimed").increment(report.getEstimatedBytesReclaimed());
+        logger.info("Cart sweep removed {} empty and {} stale carts (~{} bytes) in {} batches, {} ms",
+                report.getEmptyCartsDeleted(), report.getStaleCartsDeleted(), report.getEstimatedBytesReclaimed(),
+                report.getBatches(), report.getDurationMillis());
+        return report;
+    }
+
+    private long deleteBatch(Criteria criteria) {
+        List<Object> ids = selectBatch(criteria);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // Re-apply the criteria so a cart that was filled in the meantime survives
+        Query delete = new Query(new Criteria().andOperator(Criteria.where("_id").in(ids), criteria));
+        return mongoTemplate.remove(delete, Cart.class).getDeletedCount();
+    }
+
+    private long stampBatch(Criteria criteria, Instant now) {
+        List<Object> ids = selectBatch(criteria);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // Re-apply the criteria so a cart stamped by a write in the meantime keeps its own time
+        Query stamp = new Query(new Criteria().andOperator(Criteria.where("_id").in(ids), criteria));
+        return mongoTemplate.updateMulti(stamp, new Update().set("lastModified", now), Cart.class).getModifiedCount();
+    }
+
+    // IDs of up to one batch of carts matching the criteria
+    private List<Object> selectBatch(Criteria criteria) {
+        Query select = new Query(criteria).limit(batchSize);
+        select.fields().include("_id");
+        return mongoTemplate.find(select, Document.class, mongoTemplate.getCollectionName(Cart.class))
+                .stream()
+                .map(document -> document.get("_id"))
+                .collect(Collectors.toList());
+    }
+
+    private long averageCartSize() {
+        try {
+            Document stats = mongoTemplate.executeCommand(new Document("collStats", mongoTemplate.getCollectionName(Cart.class)));
+            Number averageSize = (Number) stats.get("avgObjSize");
+            return averageSize != null ? averageSize.longValue() : 0;
+        } catch (Exception e) {
+            logger.debug("Could not read cart collection stats: {}", e.getMessage());
+            return 0;
+        }
+    }
+}
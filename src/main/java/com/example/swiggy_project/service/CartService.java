@@ -3,15 +3,30 @@ package com.example.swiggy_project.service;
 import com.example.swiggy_project.exception.ResourceNotFoundException;
 import com.example.swiggy_project.model.Cart;
 import com.example.swiggy_project.model.Cart.CartItem;
+import com.example.swiggy_project.model.CartOperation;
+import com.example.swiggy_project.model.CheckoutValidation;
+import com.example.swiggy_project.model.CheckoutValidation.LineCheck;
+import com.example.swiggy_project.model.CheckoutValidation.LineStatus;
+import com.example.swiggy_project.model.FoodMenu;
 import com.example.swiggy_project.model.MenuItem;
+import com.example.swiggy_project.model.User;
 import com.example.swiggy_project.repository.CartRepository;
+import com.example.swiggy_project.repository.FoodMenuRepository;
+import com.example.swiggy_project.repository.UserRepository;
+import com.example.swiggy_project.util.OptimisticRetryTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 public class CartService {
@@ -23,6 +38,18 @@ public class CartService {
     @Autowired
     private MenuItemService menuItemService;
 
+    @Autowired
+    private FoodMenuRepository foodMenuRepository;
+
+    @Autowired
+    private OptimisticRetryTemplate optimisticRetryTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DeliveryZoneService deliveryZoneService;
+
     /**
      * Updates the cart for a user by adding or updating an item.
      *
@@ -45,40 +72,139 @@ public class CartService {
         MenuItem menuItem = menuItemService.getMenuItemById(menuItemId);
         double price = menuItem.getPrice();
 
-        // Fetch or create cart for the user
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseGet(() -> {
-                    Cart newCart = new Cart();
-                    newCart.setUserId(userId);
-                    return newCart;
-                });
+        // Read-modify-write, re-applied on a fresh copy if another request saved the cart first
+        return optimisticRetryTemplate.execute("cart", () -> {
+            Cart cart = loadOrCreateCart(userId);
+
+            // Check if the menu item already exists in the cart
+            Optional<CartItem> existingItem = cart.getItems().stream()
+                    .filter(item -> item.getMenuItemId().equals(menuItemId))
+                    .findFirst();
+
+            if (existingItem.isPresent()) {
+                // Update quantity if item exists
+                CartItem cartItem = existingItem.get();
+                cartItem.setQuantity(cartItem.getQuantity() + quantity);
+                cartItem.setPrice(price); // Update price in case it has changed
+                logger.debug("Updated quantity for menuItemId: {}, new quantity: {}", menuItemId, cartItem.getQuantity());
+            } else {
+                // Add new item if it doesn't exist
+                cart.getItems().add(newCartItem(menuItemId, quantity, price));
+                logger.debug("Added new item to cart: menuItemId: {}, quantity: {}, price: {}", menuItemId, quantity, price);
+            }
 
-        // Check if the menu item already exists in the cart
+            // Save the cart
+            Cart savedCart = cartRepository.save(cart);
+            logger.info("Cart updated successfully for user ID: {}", userId);
+            return savedCart;
+        });
+    }
+
+    /**
+     * Applies a list of add/set/remove operations to a user's cart in one call.
+     * All referenced menu items are fetched with a single query, the operations are
+     * applied in order in memory and the cart is persisted once.
+     *
+     * @param userId     the ID of the user
+     * @param operations the operations to apply, in order
+     * @return the updated Cart object
+     * @throws ResourceNotFoundException if a menu item referenced by an ADD or SET is not found
+     * @throws IllegalArgumentException  if the batch is empty or an operation is invalid
+     */
+    public Cart applyCartOperations(String userId, List<CartOperation> operations) {
+        logger.info("Applying {} cart operations for user ID: {}", operations == null ? 0 : operations.size(), userId);
+
+        if (operations == null || operations.isEmpty()) {
+            logger.error("No cart operations provided for user ID: {}", userId);
+            throw new IllegalArgumentException("At least one cart operation is required");
+        }
+        for (CartOperation operation : operations) {
+            validateOperation(operation);
+        }
+
+        // Fetch every menu item that needs a price in one round trip
+        List<String> pricedIds = operations.stream()
+                .filter(operation -> operation.getType() != CartOperation.Type.REMOVE)
+                .map(CartOperation::getMenuItemId)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<String, MenuItem> menuItems = menuItemService.getMenuItemsByIds(pricedIds);
+        for (String menuItemId : pricedIds) {
+            if (!menuItems.containsKey(menuItemId)) {
+                logger.warn("Menu item not found with id: {}", menuItemId);
+                throw new ResourceNotFoundException("Menu item not found with id: " + menuItemId);
+            }
+        }
+
+        return optimisticRetryTemplate.execute("cart", () -> {
+            Cart cart = loadOrCreateCart(userId);
+            for (CartOperation operation : operations) {
+                applyOperation(cart, operation, menuItems.get(operation.getMenuItemId()));
+            }
+            Cart savedCart = cartRepository.save(cart);
+            logger.info("Applied {} cart operations for user ID: {}", operations.size(), userId);
+            return savedCart;
+        });
+    }
+
+    private void validateOperation(CartOperation operation) {
+        if (operation == null || operation.getType() == null || operation.getMenuItemId() == null) {
+            logger.error("Invalid cart operation: {}", operation);
+            throw new IllegalArgumentException("Each cart operation needs a type and a menu item ID");
+        }
+        if (operation.getType() == CartOperation.Type.ADD && operation.getQuantity() <= 0) {
+            logger.error("Quantity must be positive for ADD: {}", operation.getQuantity());
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        if (operation.getType() == CartOperation.Type.SET && operation.getQuantity() < 0) {
+            logger.error("Quantity must not be negative for SET: {}", operation.getQuantity());
+            throw new IllegalArgumentException("Quantity must not be negative");
+        }
+    }
+
+    private void applyOperation(Cart cart, CartOperation operation, MenuItem menuItem) {
+        String menuItemId = operation.getMenuItemId();
         Optional<CartItem> existingItem = cart.getItems().stream()
                 .filter(item -> item.getMenuItemId().equals(menuItemId))
                 .findFirst();
 
-        if (existingItem.isPresent()) {
-            // Update quantity if item exists
-            CartItem cartItem = existingItem.get();
-            cartItem.setQuantity(cartItem.getQuantity() + quantity);
-            cartItem.setPrice(price); // Update price in case it has changed
-            logger.debug("Updated quantity for menuItemId: {}, new quantity: {}", menuItemId, cartItem.getQuantity());
-        } else {
-            // Add new item if it doesn't exist
-            CartItem newItem = new CartItem();
-            newItem.setId(UUID.randomUUID().toString());
-            newItem.setMenuItemId(menuItemId);
-            newItem.setQuantity(quantity);
-            newItem.setPrice(price);
-            cart.getItems().add(newItem);
-            logger.debug("Added new item to cart: menuItemId: {}, quantity: {}, price: {}", menuItemId, quantity, price);
+        switch (operation.getType()) {
+            case ADD -> {
+                if (existingItem.isPresent()) {
+                    CartItem cartItem = existingItem.get();
+                    cartItem.setQuantity(cartItem.getQuantity() + operation.getQuantity());
+                    cartItem.setPrice(menuItem.getPrice());
+                } else {
+                    cart.getItems().add(newCartItem(menuItemId, operation.getQuantity(), menuItem.getPrice()));
+                }
+            }
+            case SET -> {
+                if (operation.getQuantity() == 0) {
+                    removeItem(cart, menuItemId);
+                } else if (existingItem.isPresent()) {
+                    CartItem cartItem = existingItem.get();
+                    cartItem.setQuantity(operation.getQuantity());
+                    cartItem.setPrice(menuItem.getPrice());
+                } else {
+                    cart.getItems().add(newCartItem(menuItemId, operation.getQuantity(), menuItem.getPrice()));
+                }
+            }
+            case REMOVE -> removeItem(cart, menuItemId);
         }
+        logger.debug("Applied {} for menuItemId: {}, quantity: {}", operation.getType(), menuItemId, operation.getQuantity());
+    }
 
-        // Save the cart
-        Cart savedCart = cartRepository.save(cart);
-        logger.info("Cart updated successfully for user ID: {}", userId);
-        return savedCart;
+    private CartItem newCartItem(String menuItemId, int quantity, double price) {
+        CartItem newItem = new CartItem();
+        newItem.setId(UUID.randomUUID().toString());
+        newItem.setMenuItemId(menuItemId);
+        newItem.setQuantity(quantity);
+        newItem.setPrice(price);
+        return newItem;
+    }
+
+    private void removeItem(Cart cart, String menuItemId) {
+        cart.getItems().removeIf(item -> item.getMenuItemId().equals(menuItemId));
     }
 
     /**
@@ -97,6 +223,77 @@ public class CartService {
                 });
     }
 
+    /**
+     * Checkout pre-flight: revalidates every cart line against current menu data with a
+     * single query, so price changes, removed items and items from another restaurant are
+     * reported to the client before an order is written. Also checks that the restaurant
+     * delivers to the user's location.
+     *
+     * @param userId       the ID of the user
+     * @param restaurantId the ID of the restaurant the order will be placed with
+     * @return the per-line outcome with price deltas
+     * @throws ResourceNotFoundException if the user, the cart or the restaurant's menu is not found
+     */
+    public CheckoutValidation validateCheckout(String userId, String restaurantId) {
+        logger.info("Revalidating cart for user ID: {} against restaurant ID: {}", userId, restaurantId);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
+        Cart cart = getCart(userId);
+        Map<String, MenuItem> menuItems = menuItemService.getMenuItemsByIds(
+                cart.getItems().stream().map(CartItem::getMenuItemId).collect(Collectors.toList()));
+        return checkCart(cart, restaurantId, menuItems, user.getLocation());
+    }
+
+    /**
+     * Compares cart lines with already fetched menu items.
+     *
+     * @param cart         the cart to check
+     * @param restaurantId the restaurant every item must belong to
+     * @param menuItems    current menu items keyed by ID, as returned by {@link MenuItemService#getMenuItemsByIds}
+     * @param location     the delivery location as [longitude, latitude], or null if unknown
+     * @return the per-line outcome with price deltas
+     */
+    CheckoutValidation checkCart(Cart cart, String restaurantId, Map<String, MenuItem> menuItems, double[] location) {
+        FoodMenu foodMenu = foodMenuRepository.findByRestaurantId(restaurantId);
+        if (foodMenu == null) {
+            logger.warn("No menu found for restaurant with id: {}", restaurantId);
+            throw new ResourceNotFoundException("No menu found for restaurant with id: " + restaurantId);
+        }
+
+        CheckoutValidation validation = new CheckoutValidation();
+        validation.setUserId(cart.getUserId());
+        validation.setRestaurantId(restaurantId);
+        validation.setServiceable(deliveryZoneService.isServiceable(restaurantId, location));
+        double cartTotal = 0;
+        double currentTotal = 0;
+        for (CartItem cartItem : cart.getItems()) {
+            LineCheck line = new LineCheck(cartItem.getMenuItemId(), cartItem.getQuantity(), cartItem.getPrice(), LineStatus.OK);
+            cartTotal += cartItem.getPrice() * cartItem.getQuantity();
+            MenuItem menuItem = menuItems.get(cartItem.getMenuItemId());
+            if (menuItem == null) {
+                line.setStatus(LineStatus.NOT_FOUND);
+            } else {
+                line.setName(menuItem.getName());
+                line.setCurrentPrice(menuItem.getPrice());
+                line.setPriceDelta(menuItem.getPrice() - cartItem.getPrice());
+                if (!foodMenu.getId().equals(menuItem.getFoodMenuId())) {
+                    line.setStatus(LineStatus.WRONG_RESTAURANT);
+                } else {
+                    if (Double.compare(menuItem.getPrice(), cartItem.getPrice()) != 0) {
+                        line.setStatus(LineStatus.PRICE_CHANGED);
+                    }
+                    currentTotal += menuItem.getPrice() * cartItem.getQuantity();
+                }
+            }
+            validation.getLines().add(line);
+        }
+        validation.setCartTotal(cartTotal);
+        validation.setCurrentTotal(currentTotal);
+        logger.info("Cart revalidated for user ID: {}. Orderable: {}, unchanged: {}, serviceable: {}",
+                cart.getUserId(), validation.isOrderable(), validation.isUnchanged(), validation.isServiceable());
+        return validation;
+    }
+
     /**
      * Clears the cart for a user by removing all items.
      *
@@ -105,13 +302,78 @@ public class CartService {
      */
     public void clearCart(String userId) {
         logger.info("Clearing cart for user ID: {}", userId);
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseThrow(() -> {
-                    logger.warn("Cart not found for user ID: {}", userId);
-                    return new ResourceNotFoundException("Cart not found for user: " + userId);
-                });
-        cart.getItems().clear();
-        cartRepository.save(cart);
+        optimisticRetryTemplate.execute("cart", () -> {
+            Cart cart = findCart(userId)
+                    .orElseThrow(() -> {
+                        logger.warn("Cart not found for user ID: {}", userId);
+                        return new ResourceNotFoundException("Cart not found for user: " + userId);
+                    });
+            cart.getItems().clear();
+            return cartRepository.save(cart);
+        });
         logger.info("Cart cleared successfully for user ID: {}", userId);
     }
+
+    /**
+     * Removes the lines of a placed order from the cart it was placed from. The cart read at
+     * checkout is saved empty when nobody wrote it since; otherwise only the ordered quantities
+     * are taken out of the latest version, so items added during checkout are kept.
+     *
+     * @param ordered the cart as read at checkout; its items are cleared
+     */
+    public void clearOrderedItems(Cart ordered) {
+        String userId = ordered.getUserId();
+        logger.info("Clearing ordered items from cart for user ID: {}", userId);
+        Map<String, Integer> orderedQuantities = ordered.getItems().stream()
+                .collect(Collectors.toMap(CartItem::getMenuItemId, CartItem::getQuantity, Integer::sum));
+        try {
+            ordered.getItems().clear();
+            cartRepository.save(ordered);
+            logger.info("Cart cleared successfully for user ID: {}", userId);
+            return;
+        } catch (OptimisticLockingFailureException | DuplicateKeyException e) {
+            // Saved in between, or a legacy cart without a version
+            logger.info("Cart for user ID: {} changed during checkout, removing only the ordered items", userId);
+        }
+        optimisticRetryTemplate.execute("cart", () -> {
+            Optional<Cart> latest = findCart(userId);
+            if (latest.isEmpty()) {
+                return null; // Already gone, e.g. swept
+            }
+            Cart cart = latest.get();
+            for (Iterator<CartItem> items = cart.getItems().iterator(); items.hasNext(); ) {
+                CartItem item = items.next();
+                int remaining = item.getQuantity() - orderedQuantities.getOrDefault(item.getMenuItemId(), 0);
+                if (remaining > 0) {
+                    item.setQuantity(remaining);
+                } else {
+                    items.remove();
+                }
+            }
+            return cartRepository.save(cart);
+        });
+    }
+
+    /**
+     * Loads the user's cart, stamping carts written before versioning was introduced
+     * so that they are saved as updates rather than re-inserted.
+     */
+    private Optional<Cart> findCart(String userId) {
+        Optional<Cart> cart = cartRepository.findByUserId(userId);
+        cart.filter(existing -> existing.getVersion() == null)
+                .ifPresent(existing -> {
+                    optimisticRetryTemplate.adoptUnversioned(Cart.class, existing.getId());
+                    existing.setVersion(0L);
+                });
+        return cart;
+    }
+
+    private Cart loadOrCreateCart(String userId) {
+        return findCart(userId)
+                .orElseGet(() -> {
+                    Cart newCart = new Cart();
+                    newCart.setUserId(userId);
+                    return newCart;
+                });
+    }
 }
\ No newline at end of file
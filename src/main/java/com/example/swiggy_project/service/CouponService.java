@@ -5,6 +5,7 @@ import com.example.swiggy_project.model.Coupon;
 import com.example.swiggy_project.model.Order;
 import com.example.swiggy_project.repository.CouponRepository;
 import com.example.swiggy_project.repository.OrderRepository;
+import com.example.swiggy_project.util.OptimisticRetryTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,6 +21,9 @@ public class CouponService {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OptimisticRetryTemplate optimisticRetryTemplate;
+
     /**
      * Creates a new coupon.
      *
@@ -126,45 +130,52 @@ public class CouponService {
             throw new IllegalArgumentException("Coupon is not active: " + couponCode);
         }
 
-        // Fetch and validate the order
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> {
-                    logger.warn("Order not found with ID: {}", orderId);
-                    return new ResourceNotFoundException("Order not found with ID: " + orderId);
-                });
-
-        // Check if the order is in a state where a coupon can be applied
-        if (!"PLACED".equals(order.getStatus())) {
-            logger.warn("Cannot apply coupon to order with status: {}", order.getStatus());
-            throw new IllegalStateException("Cannot apply coupon to an order with status: " + order.getStatus());
-        }
-
-        // Check if a coupon has already been applied
-        if (order.getCouponCode() != null) {
-            logger.warn("A coupon has already been applied to order ID: {}", orderId);
-            throw new IllegalStateException("A coupon has already been applied to this order");
-        }
-
-        // Apply the discount as a percentage
-        double originalTotal = order.getTotalAmount();
-        double discountPercentage = coupon.getDiscount(); // e.g., 10 for 10%
-        double discountAmount = (discountPercentage / 100) * originalTotal;
-        double newTotal = originalTotal - discountAmount;
-
-        // Ensure the total doesn't go negative
-        if (newTotal < 0) {
-            logger.warn("Discount would result in a negative total. Setting total to 0 for order ID: {}", orderId);
-            newTotal = 0;
-        }
-
-        // Log the discount details
-        logger.info("Applying {}% discount to order ID: {}. Original total: {}, Discount amount: {}, New total: {}",
-                discountPercentage, orderId, originalTotal, discountAmount, newTotal);
-
-        // Update the order
-        order.setTotalAmount(newTotal);
-        order.setCouponCode(couponCode);
-        Order updatedOrder = orderRepository.save(order);
+        // Re-read and re-check the order on every attempt so a coupon can never be applied twice
+        Order updatedOrder = optimisticRetryTemplate.execute("order", () -> {
+            // Fetch and validate the order
+            Order order = orderRepository.findById(orderId)
+                    .orElseThrow(() -> {
+                        logger.warn("Order not found with ID: {}", orderId);
+                        return new ResourceNotFoundException("Order not found with ID: " + orderId);
+                    });
+            if (order.getVersion() == null) {
+                optimisticRetryTemplate.adoptUnversioned(Order.class, orderId);
+                order.setVersion(0L);
+            }
+
+            // Check if the order is in a state where a coupon can be applied
+            if (!"PLACED".equals(order.getStatus())) {
+                logger.warn("Cannot apply coupon to order with status: {}", order.getStatus());
+                throw new IllegalStateException("Cannot apply coupon to an order with status: " + order.getStatus());
+            }
+
+            // Check if a coupon has already been applied
+            if (order.getCouponCode() != null) {
+                logger.warn("A coupon has already been applied to order ID: {}", orderId);
+                throw new IllegalStateException("A coupon has already been applied to this order");
+            }
+
+            // Apply the discount as a percentage
+            double originalTotal = order.getTotalAmount();
+            double discountPercentage = coupon.getDiscount(); // e.g., 10 for 10%
+            double discountAmount = (discountPercentage / 100) * originalTotal;
+            double newTotal = originalTotal - discountAmount;
+
+            // Ensure the total doesn't go negative
+            if (newTotal < 0) {
+                logger.warn("Discount would result in a negative total. Setting total to 0 for order ID: {}", orderId);
+                newTotal = 0;
+            }
+
+            // Log the discount details
+            logger.info("Applying {}% discount to order ID: {}. Original total: {}, Discount amount: {}, New total: {}",
+                    discountPercentage, orderId, originalTotal, discountAmount, newTotal);
+
+            // Update the order
+            order.setTotalAmount(newTotal);
+            order.setCouponCode(couponCode);
+            return orderRepository.save(order);
+        });
 
         logger.info("Coupon applied successfully to order ID: {}", orderId);
         return updatedOrder;
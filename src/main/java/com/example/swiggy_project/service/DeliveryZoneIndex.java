@@ -0,0 +1,286 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.model.DeliveryZone;
+import com.example.swiggy_project.repository.DeliveryZoneRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory index of delivery zone polygons for serviceability checks.
+ * <p>
+ * Each zone's vertices are kept in primitive arrays with a precomputed bounding box. Per owner
+ * (a restaurant or a city), a grid of {@code delivery.zones.cell-degrees} cells maps every cell to
+ * the owner's zones whose bounding box overlaps it. A lookup reads one cell of one owner, rejects
+ * zones by bounding box and runs the even-odd point-in-polygon test only on what is left.
+ * <p>
+ * The index is rebuilt from MongoDB after every zone write on this node, when another node
+ * publishes a change, and periodically when the collection's count or latest update time differs
+ * from what was loaded. Both are taken over every zone, active or not, since deactivating a zone
+ * is an update too.
+ */
+@Component
+public class DeliveryZoneIndex {
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryZoneIndex.class);
+
+    public static final String RELOAD_CHANNEL = "delivery-zone-reload";
+
+    @Autowired
+    private DeliveryZoneRepository deliveryZoneRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${delivery.zones.cell-degrees:0.05}")
+    private double cellDegrees;
+
+    private volatile ZoneGrid grid; // Null until the first load
+
+    // Collection state the current grid was built from, to skip periodic reloads when nothing changed
+    private volatile CollectionState loaded;
+
+    @PostConstruct
+    void registerMetrics() {
+        meterRegistry.gauge("delivery.zones.index.zones", this, index -> {
+            ZoneGrid current = index.grid;
+            return current == null ? 0 : current.size;
+        });
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAtStartup() {
+        try {
+            reload();
+        } catch (Exception e) {
+            logger.warn("Failed to load delivery zones at startup: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${delivery.zones.reload-interval-ms:300000}", initialDelayString = "${delivery.zones.reload-interval-ms:300000}")
+    public void reloadIfChanged() {
+        try {
+            if (grid == null || !collectionState().equals(loaded)) {
+                reload();
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to check delivery zones for changes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds the index from every active zone in MongoDB.
+     */
+    public synchronized void reload() {
+        long start = System.nanoTime();
+        // Read before the zones, so a write in between triggers another reload rather than being missed
+        CollectionState state = collectionState();
+        List<DeliveryZone> zones = deliveryZoneRepository.findByActiveTrue();
+        load(zones);
+        loaded = state;
+        meterRegistry.timer("delivery.zones.index.reload").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        logger.info("Loaded {} delivery zones in {} ms", zones.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Handles reloads published by any node, including this one.
+     */
+    public void onReloadMessage() {
+        try {
+            reload();
+        } catch (Exception e) {
+            logger.warn("Failed to reload delivery zones: {}", e.getMessage());
+        }
+    }
+
+    private CollectionState collectionState() {
+        long count = mongoTemplate.count(new Query(), DeliveryZone.class);
+        Query latestQuery = new Query().with(Sort.by(Sort.Direction.DESC, "updatedAt")).limit(1);
+        latestQuery.fields().include("updatedAt");
+        DeliveryZone latest = mongoTemplate.findOne(latestQuery, DeliveryZone.class);
+        return new CollectionState(count, latest == null ? null : latest.getUpdatedAt());
+    }
+
+    // Replaces the index with one built from the given zones
+    void load(List<DeliveryZone> zones) {
+        grid = ZoneGrid.build(zones, cellDegrees);
+    }
+
+    public static String restaurantOwner(String restaurantId) {
+        return "restaurant:" + restaurantId;
+    }
+
+    public static String cityOwner(String normalizedCity) {
+        return "city:" + normalizedCity;
+    }
+
+    /**
+     * @return true if the owner, a restaurant or a city key, has at least one active zone
+     */
+    public boolean hasZones(String owner) {
+        return currentGrid().cellsByOwner.containsKey(owner);
+    }
+
+    /**
+     * @return true if any city has an active zone
+     */
+    public boolean hasCityZones() {
+        return currentGrid().hasCityZones;
+    }
+
+    /**
+     * Checks whether a point lies in any of an owner's zones.
+     *
+     * @param owner     the owner key, see {@link #restaurantOwner} and {@link #cityOwner}
+     * @param latitude  latitude of the point
+     * @param longitude longitude of the point
+     * @return true if a zone of the owner contains the point
+     */
+    public boolean contains(String owner, double latitude, double longitude) {
+        ZoneGrid current = currentGrid();
+        Map<Long, int[]> cells = current.cellsByOwner.get(owner);
+        int[] candidates = cells == null ? null : cells.get(ZoneGrid.cellKey(current.cell(latitude), current.cell(longitude)));
+        if (candidates == null) {
+            return false;
+        }
+        for (int zone : candidates) {
+            if (longitude < current.minX[zone] || longitude > current.maxX[zone]
+                    || latitude < current.minY[zone] || latitude > current.maxY[zone]) {
+                continue;
+            }
+            if (ZoneGrid.insidePolygon(current.xs[zone], current.ys[zone], longitude, latitude)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Loads synchronously when a check arrives before the startup load finished
+    private ZoneGrid currentGrid() {
+        ZoneGrid current = grid;
+        if (current == null) {
+            synchronized (this) {
+                if (grid == null) {
+                    reload();
+                }
+                current = grid;
+            }
+        }
+        return current;
+    }
+
+    private record CollectionState(long count, Instant latestUpdatedAt) {}
+
+    private static final class ZoneGrid {
+        final double cellDegrees;
+        final Map<String, Map<Long, int[]>> cellsByOwner; // Owner, then cell key, to the owner's zones whose bounding box overlaps the cell
+        final int size;
+        final double[][] xs; // Longitudes of each zone's vertices
+        final double[][] ys; // Latitudes of each zone's vertices
+        final double[] minX;
+        final double[] minY;
+        final double[] maxX;
+        final double[] maxY;
+        boolean hasCityZones; // Only written while building, before the grid is published
+
+        private ZoneGrid(double cellDegrees, int size) {
+            this.cellDegrees = cellDegrees;
+            this.cellsByOwner = new HashMap<>();
+            this.size = size;
+            this.xs = new double[size][];
+            this.ys = new double[size][];
+            this.minX = new double[size];
+            this.minY = new double[size];
+            this.maxX = new double[size];
+            this.maxY = new double[size];
+        }
+
+        static ZoneGrid build(List<DeliveryZone> source, double cellDegrees) {
+            List<DeliveryZone> zones = new ArrayList<>();
+            for (DeliveryZone zone : source) {
+                if (zone.getPolygon() != null && zone.getPolygon().size() >= 3 && (zone.getRestaurantId() != null || zone.getCity() != null)) {
+                    zones.add(zone);
+                }
+            }
+            ZoneGrid grid = new ZoneGrid(cellDegrees, zones.size());
+            Map<String, Map<Long, List<Integer>>> cellZones = new HashMap<>();
+            for (int zone = 0; zone < zones.size(); zone++) {
+                DeliveryZone deliveryZone = zones.get(zone);
+                String owner = deliveryZone.getRestaurantId() != null
+                        ? restaurantOwner(deliveryZone.getRestaurantId())
+                        : cityOwner(deliveryZone.getCity());
+                grid.hasCityZones |= deliveryZone.getRestaurantId() == null;
+                Map<Long, List<Integer>> ownerCells = cellZones.computeIfAbsent(owner, key -> new HashMap<>());
+
+                List<double[]> polygon = deliveryZone.getPolygon();
+                int vertices = polygon.size();
+                grid.xs[zone] = new double[vertices];
+                grid.ys[zone] = new double[vertices];
+                grid.minX[zone] = grid.minY[zone] = Double.POSITIVE_INFINITY;
+                grid.maxX[zone] = grid.maxY[zone] = Double.NEGATIVE_INFINITY;
+                for (int v = 0; v < vertices; v++) {
+                    double x = polygon.get(v)[0];
+                    double y = polygon.get(v)[1];
+                    grid.xs[zone][v] = x;
+                    grid.ys[zone][v] = y;
+                    grid.minX[zone] = Math.min(grid.minX[zone], x);
+                    grid.minY[zone] = Math.min(grid.minY[zone], y);
+                    grid.maxX[zone] = Math.max(grid.maxX[zone], x);
+                    grid.maxY[zone] = Math.max(grid.maxY[zone], y);
+                }
+                for (int latCell = grid.cell(grid.minY[zone]); latCell <= grid.cell(grid.maxY[zone]); latCell++) {
+                    for (int lonCell = grid.cell(grid.minX[zone]); lonCell <= grid.cell(grid.maxX[zone]); lonCell++) {
+                        ownerCells.computeIfAbsent(cellKey(latCell, lonCell), key -> new ArrayList<>()).add(zone);
+                    }
+                }
+            }
+            cellZones.forEach((owner, ownerCells) -> {
+                Map<Long, int[]> cells = new HashMap<>(ownerCells.size() * 2);
+                ownerCells.forEach((key, members) -> cells.put(key, members.stream().mapToInt(Integer::intValue).toArray()));
+                grid.cellsByOwner.put(owner, cells);
+            });
+            return grid;
+        }
+
+        int cell(double coordinate) {
+            return (int) Math.floor(coordinate / cellDegrees);
+        }
+
+        static long cellKey(int latitudeCell, int longitudeCell) {
+            return ((long) latitudeCell << 32) | (longitudeCell & 0xffffffffL);
+        }
+
+        // Even-odd ray casting; a repeated closing vertex adds a zero-length edge and does not change the result
+        static boolean insidePolygon(double[] xs, double[] ys, double x, double y) {
+            boolean inside = false;
+            for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+                if ((ys[i] > y) != (ys[j] > y)
+                        && x < (xs[j] - xs[i]) * (y - ys[i]) / (ys[j] - ys[i]) + xs[i]) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+    }
+}
\ No newline at end of file
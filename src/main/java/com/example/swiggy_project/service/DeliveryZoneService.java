@@ -0,0 +1,159 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.exception.ResourceNotFoundException;
+import com.example.swiggy_project.model.DeliveryZone;
+import com.example.swiggy_project.model.Restaurant;
+import com.example.swiggy_project.repository.DeliveryZoneRepository;
+import com.example.swiggy_project.repository.RestaurantRepository;
+import com.example.swiggy_project.util.SearchText;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import jakarta.validation.Valid;
+import java.util.List;
+
+/**
+ * Manages delivery zones and answers whether a restaurant delivers to a location.
+ */
+@Service
+public class DeliveryZoneService {
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryZoneService.class);
+
+    @Autowired
+    private DeliveryZoneRepository deliveryZoneRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private DeliveryZoneIndex deliveryZoneIndex;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    public DeliveryZone addZone(@Valid DeliveryZone zone) {
+        logger.info("Adding delivery zone for restaurant ID: {} city: {}", zone.getRestaurantId(), zone.getCity());
+        zone.setId(null);
+        validate(zone);
+        DeliveryZone saved = deliveryZoneRepository.save(zone);
+        zonesChanged();
+        logger.info("Delivery zone added successfully with ID: {}", saved.getId());
+        return saved;
+    }
+
+    public DeliveryZone updateZone(String id, @Valid DeliveryZone zone) {
+        logger.info("Updating delivery zone with ID: {}", id);
+        if (!deliveryZoneRepository.existsById(id)) {
+            logger.warn("Delivery zone not found with ID: {}", id);
+            throw new ResourceNotFoundException("Delivery zone not found with ID: " + id);
+        }
+        zone.setId(id);
+        validate(zone);
+        DeliveryZone saved = deliveryZoneRepository.save(zone);
+        zonesChanged();
+        logger.info("Delivery zone updated successfully with ID: {}", id);
+        return saved;
+    }
+
+    public void deleteZone(String id) {
+        logger.info("Deleting delivery zone with ID: {}", id);
+        if (!deliveryZoneRepository.existsById(id)) {
+            logger.warn("Delivery zone not found with ID: {}", id);
+            throw new ResourceNotFoundException("Delivery zone not found with ID: " + id);
+        }
+        deliveryZoneRepository.deleteById(id);
+        zonesChanged();
+        logger.info("Delivery zone deleted successfully with ID: {}", id);
+    }
+
+    public List<DeliveryZone> getZones(String restaurantId, String city) {
+        logger.info("Retrieving delivery zones for restaurant ID: {} city: {}", restaurantId, city);
+        if (StringUtils.hasText(restaurantId)) {
+            return deliveryZoneRepository.findByRestaurantId(restaurantId);
+        }
+        if (StringUtils.hasText(city)) {
+            return deliveryZoneRepository.findByCity(SearchText.normalize(city));
+        }
+        return deliveryZoneRepository.findAll();
+    }
+
+    /**
+     * Checks whether a restaurant delivers to a location. The restaurant's own zones apply when
+     * it has any, otherwise its city's zones; a restaurant with neither delivers everywhere.
+     *
+     * @param restaurantId the ID of the restaurant
+     * @param location     the delivery location as [longitude, latitude], or null if unknown
+     * @return true if the location is served; false if zones apply and the location is outside
+     *         them or unknown
+     */
+    public boolean isServiceable(String restaurantId, double[] location) {
+        String owner = DeliveryZoneIndex.restaurantOwner(restaurantId);
+        if (!deliveryZoneIndex.hasZones(owner)) {
+            if (!deliveryZoneIndex.hasCityZones()) {
+                return true;
+            }
+            Query query = new Query(Criteria.where("_id").is(restaurantId));
+            query.fields().include("normalizedCity");
+            Restaurant restaurant = mongoTemplate.findOne(query, Restaurant.class);
+            if (restaurant == null || restaurant.getNormalizedCity() == null
+                    || !deliveryZoneIndex.hasZones(DeliveryZoneIndex.cityOwner(restaurant.getNormalizedCity()))) {
+                return true;
+            }
+            owner = DeliveryZoneIndex.cityOwner(restaurant.getNormalizedCity());
+        }
+        if (location == null || location.length != 2) {
+            logger.debug("No delivery location to check against zones of {}", owner);
+            return false;
+        }
+        return deliveryZoneIndex.contains(owner, location[1], location[0]);
+    }
+
+    private void validate(DeliveryZone zone) {
+        boolean forRestaurant = StringUtils.hasText(zone.getRestaurantId());
+        boolean forCity = StringUtils.hasText(zone.getCity());
+        if (forRestaurant == forCity) {
+            throw new IllegalArgumentException("A delivery zone must belong to either a restaurant or a city");
+        }
+        if (forRestaurant && !restaurantRepository.existsById(zone.getRestaurantId())) {
+            logger.warn("Restaurant not found with ID: {}", zone.getRestaurantId());
+            throw new ResourceNotFoundException("Restaurant not found with ID: " + zone.getRestaurantId());
+        }
+        if (forCity) {
+            String normalizedCity = SearchText.normalize(zone.getCity());
+            if (normalizedCity.isEmpty()) {
+                throw new IllegalArgumentException("City must contain letters or digits");
+            }
+            zone.setCity(normalizedCity);
+        } else {
+            zone.setCity(null);
+        }
+        if (zone.getPolygon() == null || zone.getPolygon().size() < 3) {
+            throw new IllegalArgumentException("Polygon must have at least 3 points");
+        }
+        for (double[] point : zone.getPolygon()) {
+            if (point == null || point.length != 2 || Math.abs(point[0]) > 180 || Math.abs(point[1]) > 90) {
+                throw new IllegalArgumentException("Polygon points must be [longitude, latitude] pairs");
+            }
+        }
+    }
+
+    // Rebuilds the local index now and tells the other nodes to rebuild theirs
+    private void zonesChanged() {
+        deliveryZoneIndex.reload();
+        try {
+            stringRedisTemplate.convertAndSend(DeliveryZoneIndex.RELOAD_CHANNEL, "reload");
+        } catch (Exception e) {
+            logger.warn("Failed to publish delivery zone reload: {}", e.getMessage());
+        }
+    }
+}
\ No newline at end of file
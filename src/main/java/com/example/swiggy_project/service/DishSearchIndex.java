@@ -0,0 +1,432 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.model.DishSuggestion;
+import com.example.swiggy_project.model.MenuItem;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory dish search over menu item names, cuisine types and meal types. Terms are kept in
+ * an inverted index (term to menu item IDs) and a prefix trie over the same terms, so
+ * autocomplete is a trie walk plus a few posting-set lookups with no database access.
+ * <p>
+ * The index is built in the background once the application is ready, updated directly by
+ * menu writes on this node, refreshed per restaurant when another node publishes a menu
+ * invalidation, and fully rebuilt every {@code dish.search.rebuild-interval-ms} as a safety net.
+ */
+@Component
+public class DishSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(DishSearchIndex.class);
+
+    private static final int MAX_EDITS = 1;
+    private static final int MIN_FUZZY_LENGTH = 3; // Shorter tokens match too many terms with a typo
+    private static final int MAX_EXPANDED_TERMS = 256;
+
+    // Match quality of an indexed term against a query token
+    private static final int EXACT = 3;
+    private static final int PREFIX = 2;
+    private static final int FUZZY = 1;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private IndexData data = new IndexData();
+
+    // Changes made while a full rebuild is loading, replayed onto the rebuilt index before it is swapped in
+    private List<Consumer<IndexData>> changesDuringRebuild;
+
+    @PostConstruct
+    void registerMetrics() {
+        meterRegistry.gauge("dish.search.index.dishes", this, index -> index.readLocked(d -> d.dishes.size()));
+        meterRegistry.gauge("dish.search.index.terms", this, index -> index.readLocked(d -> d.postings.size()));
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildAtStartup() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${dish.search.rebuild-interval-ms:3600000}", initialDelayString = "${dish.search.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the whole index from MongoDB and swaps it in atomically. Searches keep being
+     * served from the previous index while the new one loads. Failures are logged and leave
+     * the previous index in place.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                logger.info("Dish search index rebuild already in progress");
+                return;
+            }
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        IndexData rebuilt = new IndexData();
+        try (Stream<MenuItem> items = mongoTemplate.stream(projection(new Query()), MenuItem.class)) {
+            items.forEach(item -> rebuilt.put(Dish.of(item)));
+        } catch (Exception e) {
+            logger.warn("Failed to rebuild dish search index: {}", e.getMessage());
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+            changesDuringRebuild = null;
+            data = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long elapsed = System.nanoTime() - start;
+        meterRegistry.timer("dish.search.index.rebuild").record(elapsed, TimeUnit.NANOSECONDS);
+        logger.info("Rebuilt dish search index with {} dishes and {} terms in {} ms",
+                rebuilt.dishes.size(), rebuilt.postings.size(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    /**
+     * Adds a menu item to the index, replacing any previous entry for the same ID.
+     */
+    public void index(MenuItem menuItem) {
+        if (menuItem == null || menuItem.getId() == null) {
+            return;
+        }
+        Dish dish = Dish.of(menuItem);
+        applyChange(index -> index.put(dish));
+    }
+
+    /**
+     * Replaces every indexed dish of a restaurant with its current menu items from MongoDB.
+     * Used after bulk writes and for menu changes made on other nodes.
+     */
+    public void reindexRestaurant(String restaurantId) {
+        try {
+            List<Dish> dishes = mongoTemplate.find(projection(new Query(Criteria.where("restaurantId").is(restaurantId))), MenuItem.class)
+                    .stream()
+                    .map(Dish::of)
+                    .collect(Collectors.toList());
+            applyChange(index -> index.replaceRestaurant(restaurantId, dishes));
+            logger.debug("Reindexed {} dishes for restaurant ID: {}", dishes.size(), restaurantId);
+        } catch (Exception e) {
+            logger.warn("Failed to reindex dishes for restaurant ID: {}: {}", restaurantId, e.getMessage());
+        }
+    }
+
+    /**
+     * Refreshes a restaurant's dishes when a menu invalidation is published by any node.
+     *
+     * @param body the invalidation message, {@code restaurantId:version}
+     */
+    public void onMenuInvalidation(String body) {
+        int separator = body.lastIndexOf(':');
+        if (separator > 0) {
+            reindexRestaurant(body.substring(0, separator));
+        }
+    }
+
+    /**
+     * Suggests dishes for a partially typed query. Every query token must match a term of the
+     * dish's name, cuisine type or meal type, either as a prefix or, for tokens of at least
+     * three characters, with one typo. Results are ranked by match quality, then popularity.
+     *
+     * @param query        the text typed so far
+     * @param restaurantId restricts suggestions to one restaurant, or null for all
+     * @param limit        the maximum number of suggestions
+     * @return the best suggestions, best first
+     */
+    public List<DishSuggestion> autocomplete(String query, String restaurantId, int limit) {
+        long start = System.nanoTime();
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> scores = null;
+            for (String token : tokens) {
+                Map<String, Integer> tokenScores = new HashMap<>();
+                data.root.match(token).forEach((term, quality) -> {
+                    for (String id : data.postings.getOrDefault(term, Set.of())) {
+                        Dish dish = data.dishes.get(id);
+                        if (restaurantId != null && !restaurantId.equals(dish.restaurantId)) {
+                            continue;
+                        }
+                        // Name matches count double over cuisine and meal type matches
+                        int score = dish.nameTerms.contains(term) ? quality * 2 : quality;
+                        tokenScores.merge(id, score, Math::max);
+                    }
+                });
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+
+            Comparator<DishSuggestion> ranking = Comparator.comparingInt(DishSuggestion::getScore)
+                    .thenComparingInt(suggestion -> data.dishes.get(suggestion.getMenuItemId()).popularity)
+                    .thenComparing(DishSuggestion::getName, Comparator.nullsFirst(Comparator.reverseOrder()));
+            PriorityQueue<DishSuggestion> best = new PriorityQueue<>(ranking);
+            scores.forEach((id, score) -> {
+                Dish dish = data.dishes.get(id);
+                best.add(new DishSuggestion(id, dish.name, dish.restaurantId, dish.cuisineType, dish.mealType, score));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            });
+            List<DishSuggestion> suggestions = new ArrayList<>(best);
+            suggestions.sort(ranking.reversed());
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+            meterRegistry.timer("dish.search.autocomplete").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void applyChange(Consumer<IndexData> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(data);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int readLocked(ToIntFunction<IndexData> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.applyAsInt(data);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Query projection(Query query) {
+        query.fields().include("name", "restaurantId", "cuisineType", "mealType", "numberOfTimesOrdered");
+        return query;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    // The searchable view of one menu item
+    private static final class Dish {
+        final String id;
+        final String name;
+        final String restaurantId;
+        final String cuisineType;
+        final String mealType;
+        final int popularity;
+        final Set<String> nameTerms;
+        final Set<String> terms;
+
+        private Dish(MenuItem item) {
+            this.id = item.getId();
+            this.name = item.getName();
+            this.restaurantId = item.getRestaurantId();
+            this.cuisineType = item.getCuisineType();
+            this.mealType = item.getMealType();
+            this.popularity = item.getNumberOfTimesOrdered();
+            this.nameTerms = new HashSet<>(tokenize(name));
+            this.terms = new HashSet<>(nameTerms);
+            terms.addAll(tokenize(cuisineType));
+            terms.addAll(tokenize(mealType));
+        }
+
+        static Dish of(MenuItem item) {
+            return new Dish(item);
+        }
+    }
+
+    // One generation of the index; only mutated under the write lock
+    private static final class IndexData {
+        final Map<String, Dish> dishes = new HashMap<>();
+        final Map<String, Set<String>> postings = new HashMap<>();
+        final Map<String, Set<String>> dishesByRestaurant = new HashMap<>();
+        final TrieNode root = new TrieNode();
+
+        void put(Dish dish) {
+            remove(dish.id);
+            dishes.put(dish.id, dish);
+            dishesByRestaurant.computeIfAbsent(dish.restaurantId, id -> new HashSet<>()).add(dish.id);
+            for (String term : dish.terms) {
+                postings.computeIfAbsent(term, t -> {
+                    root.insert(t);
+                    return new HashSet<>();
+                }).add(dish.id);
+            }
+        }
+
+        void remove(String id) {
+            Dish dish = dishes.remove(id);
+            if (dish == null) {
+                return;
+            }
+            Set<String> restaurantDishes = dishesByRestaurant.get(dish.restaurantId);
+            if (restaurantDishes != null) {
+                restaurantDishes.remove(id);
+            }
+            for (String term : dish.terms) {
+                Set<String> ids = postings.get(term);
+                if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                    postings.remove(term);
+                    root.delete(term);
+                }
+            }
+        }
+
+        void replaceRestaurant(String restaurantId, List<Dish> current) {
+            for (String id : new ArrayList<>(dishesByRestaurant.getOrDefault(restaurantId, Set.of()))) {
+                remove(id);
+            }
+            current.forEach(this::put);
+        }
+    }
+
+    private static final class TrieNode {
+        final Map<Character, TrieNode> children = new HashMap<>(4);
+        String term; // Set when an indexed term ends at this node
+
+        void insert(String word) {
+            TrieNode node = this;
+            for (int i = 0; i < word.length(); i++) {
+                node = node.children.computeIfAbsent(word.charAt(i), c -> new TrieNode());
+            }
+            node.term = word;
+        }
+
+        // Unmarks the term; empty branches are left for the next full rebuild to drop
+        void delete(String word) {
+            TrieNode node = find(word);
+            if (node != null) {
+                node.term = null;
+            }
+        }
+
+        TrieNode find(String prefix) {
+            TrieNode node = this;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            return node;
+        }
+
+        /**
+         * Returns the indexed terms matching a token, with their match quality: exact, prefix,
+         * or within one edit of being a prefix.
+         */
+        Map<String, Integer> match(String token) {
+            Map<String, Integer> matches = new HashMap<>();
+            TrieNode prefixNode = find(token);
+            if (prefixNode != null) {
+                prefixNode.collect(matches, token, PREFIX);
+            }
+            if (token.length() >= MIN_FUZZY_LENGTH && matches.size() < MAX_EXPANDED_TERMS) {
+                int[] row = new int[token.length() + 1];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = i;
+                }
+                for (Map.Entry<Character, TrieNode> child : children.entrySet()) {
+                    child.getValue().matchFuzzy(child.getKey(), token, row, matches);
+                }
+            }
+            return matches;
+        }
+
+        // One step of a Levenshtein DP over the trie; once the whole token is within MAX_EDITS, the subtree matches
+        private void matchFuzzy(char c, String token, int[] previousRow, Map<String, Integer> matches) {
+            int[] row = new int[previousRow.length];
+            row[0] = previousRow[0] + 1;
+            int min = row[0];
+            for (int i = 1; i < row.length; i++) {
+                int substitution = previousRow[i - 1] + (token.charAt(i - 1) == c ? 0 : 1);
+                row[i] = Math.min(Math.min(row[i - 1] + 1, previousRow[i] + 1), substitution);
+                min = Math.min(min, row[i]);
+            }
+            if (row[row.length - 1] <= MAX_EDITS) {
+                collect(matches, null, FUZZY);
+            } else if (min <= MAX_EDITS) {
+                for (Map.Entry<Character, TrieNode> child : children.entrySet()) {
+                    if (matches.size() >= MAX_EXPANDED_TERMS) {
+                        return;
+                    }
+                    child.getValue().matchFuzzy(child.getKey(), token, row, matches);
+                }
+            }
+        }
+
+        // Breadth-first, so the shortest completions are kept when the expansion cap is hit
+        private void collect(Map<String, Integer> matches, String exactTerm, int quality) {
+            ArrayDeque<TrieNode> queue = new ArrayDeque<>();
+            queue.add(this);
+            while (!queue.isEmpty() && matches.size() < MAX_EXPANDED_TERMS) {
+                TrieNode node = queue.poll();
+                if (node.term != null) {
+                    matches.putIfAbsent(node.term, node.term.equals(exactTerm) ? EXACT : quality);
+                }
+                queue.addAll(node.children.values());
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.exception.ResourceNotFoundException;
+import com.example.swiggy_project.model.FoodMenu;
+import com.example.swiggy_project.repository.FoodMenuRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process cache of FoodMenu documents by ID. There is one menu per restaurant and menus
+ * are practically never rewritten, so this replaces the full FoodMenu copy that used to be
+ * embedded in every MenuItem.
+ * <p>
+ * A restaurant's menu is evicted on every node whenever {@link MenuCache} invalidates it, and
+ * entries expire after {@code menu.food-menu-cache.max-age-ms} as a safety net for missed
+ * messages. At most {@code menu.food-menu-cache.max-entries} menus are held; beyond that,
+ * menus are served straight from MongoDB until expired entries are swept.
+ */
+@Component
+public class FoodMenuCache {
+    private static final Logger logger = LoggerFactory.getLogger(FoodMenuCache.class);
+
+    @Autowired
+    private FoodMenuRepository foodMenuRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${menu.food-menu-cache.max-age-ms:300000}")
+    private long maxAgeMillis;
+
+    @Value("${menu.food-menu-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<String, Entry> menusById = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void registerMetrics() {
+        meterRegistry.gauge("menu.food_menu_cache.entries", menusById, Map::size);
+    }
+
+    /**
+     * Returns the menu with the given ID, loading it on first use or once expired.
+     *
+     * @param menuId the ID of the menu
+     * @return the FoodMenu object
+     * @throws ResourceNotFoundException if the menu does not exist
+     */
+    public FoodMenu get(String menuId) {
+        Entry cached = menusById.get(menuId);
+        if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+            return cached.foodMenu;
+        }
+        FoodMenu loaded = foodMenuRepository.findById(menuId)
+                .orElseThrow(() -> {
+                    logger.warn("Menu not found with id: {}", menuId);
+                    return new ResourceNotFoundException("Menu not found with id: " + menuId);
+                });
+        put(loaded);
+        return loaded;
+    }
+
+    public void put(FoodMenu foodMenu) {
+        if (menusById.size() < maxEntries || menusById.containsKey(foodMenu.getId())) {
+            menusById.put(foodMenu.getId(), new Entry(foodMenu, System.currentTimeMillis() + maxAgeMillis));
+        }
+    }
+
+    public void evict(String menuId) {
+        menusById.remove(menuId);
+    }
+
+    /**
+     * Evicts the menu of a restaurant. Called by {@link MenuCache} for local and published
+     * invalidations alike; a scan, as menus are few and invalidations rare next to reads.
+     *
+     * @param restaurantId the ID of the restaurant whose menu changed
+     */
+    public void evictRestaurant(String restaurantId) {
+        menusById.values().removeIf(entry -> restaurantId.equals(entry.foodMenu.getRestaurantId()));
+    }
+
+    @Scheduled(fixedDelayString = "${menu.food-menu-cache.max-age-ms:300000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        menusById.values().removeIf(entry -> entry.expiresAt <= now);
+    }
+
+    private record Entry(FoodMenu foodMenu, long expiresAt) {}
+}
\ No newline at end of file
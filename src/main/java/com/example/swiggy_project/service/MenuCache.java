@@ -0,0 +1,244 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.exception.ResourceNotFoundException;
+import com.example.swiggy_project.model.FoodMenu;
+import com.example.swiggy_project.model.MenuItem;
+import com.example.swiggy_project.repository.FoodMenuRepository;
+import com.example.swiggy_project.repository.MenuItemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process cache of restaurant menus. Each entry is an immutable snapshot of a restaurant's
+ * menu items tagged with the menu's content version ({@link FoodMenu#getMenuVersion()}).
+ * <p>
+ * Writes go through {@link #invalidate(String)}, which bumps the version in MongoDB, drops the
+ * local snapshot and publishes the new version on a Redis channel so every other node drops
+ * its copy too. Snapshots also expire after {@code menu.cache.max-age-ms} as a safety net for
+ * missed messages.
+ */
+@Component
+public class MenuCache implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(MenuCache.class);
+
+    public static final String INVALIDATION_CHANNEL = "menu-cache-invalidation";
+
+    @Autowired
+    private FoodMenuRepository foodMenuRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private FoodMenuCache foodMenuCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${menu.cache.max-age-ms:300000}")
+    private long maxAgeMillis;
+
+    private final Map<String, MenuSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    // Highest version seen per restaurant, so a slow load cannot re-insert an outdated snapshot
+    private final Map<String, Long> latestVersions = new ConcurrentHashMap<>();
+
+    // A restaurant's menu ID never changes once created, so it is remembered indefinitely
+    private final Map<String, String> foodMenuIds = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the menu snapshot for a restaurant, loading it from MongoDB on a miss.
+     *
+     * @param restaurantId the ID of the restaurant
+     * @return the current snapshot
+     * @throws ResourceNotFoundException if the restaurant has no menu
+     */
+    public MenuSnapshot get(String restaurantId) {
+        MenuSnapshot snapshot = snapshots.get(restaurantId);
+        if (snapshot != null && !snapshot.isOlderThan(maxAgeMillis)) {
+            meterRegistry.counter("menu.cache.requests", "result", "hit").increment();
+            return snapshot;
+        }
+        meterRegistry.counter("menu.cache.requests", "result", "miss").increment();
+        return load(restaurantId);
+    }
+
+    /**
+     * Returns the content version of a restaurant's menu without loading its items: from the
+     * local snapshot when it is fresh, otherwise from a projection of the menu's version field.
+     *
+     * @param restaurantId the ID of the restaurant
+     * @return the menu's content version
+     * @throws ResourceNotFoundException if the restaurant has no menu
+     */
+    public long currentVersion(String restaurantId) {
+        MenuSnapshot snapshot = snapshots.get(restaurantId);
+        if (snapshot != null && !snapshot.isOlderThan(maxAgeMillis)) {
+            return snapshot.getVersion();
+        }
+        Query query = new Query(Criteria.where("restaurantId").is(restaurantId));
+        query.fields().include("menuVersion");
+        FoodMenu foodMenu = mongoTemplate.findOne(query, FoodMenu.class);
+        if (foodMenu == null) {
+            logger.warn("Menu not found for restaurant ID: {}", restaurantId);
+            throw new ResourceNotFoundException("Menu not found for restaurant ID: " + restaurantId);
+        }
+        return foodMenu.getMenuVersion();
+    }
+
+    /**
+     * Resolves the ID of a restaurant's menu without loading the menu or its items.
+     *
+     * @param restaurantId the ID of the restaurant
+     * @return the menu's ID
+     * @throws ResourceNotFoundException if the restaurant has no menu
+     */
+    public String foodMenuId(String restaurantId) {
+        String cached = foodMenuIds.get(restaurantId);
+        if (cached != null) {
+            return cached;
+        }
+        Query query = new Query(Criteria.where("restaurantId").is(restaurantId));
+        query.fields().include("_id");
+        FoodMenu foodMenu = mongoTemplate.findOne(query, FoodMenu.class);
+        if (foodMenu == null) {
+            logger.warn("Menu not found for restaurant ID: {}", restaurantId);
+            throw new ResourceNotFoundException("Menu not found for restaurant ID: " + restaurantId);
+        }
+        foodMenuIds.put(restaurantId, foodMenu.getId());
+        return foodMenu.getId();
+    }
+
+    /**
+     * Records a change to a restaurant's menu: bumps its content version, evicts the local
+     * snapshot and tells the other nodes to do the same.
+     *
+     * @param restaurantId the ID of the restaurant whose menu changed
+     */
+    public void invalidate(String restaurantId) {
+        if (restaurantId == null) {
+            return;
+        }
+        FoodMenu bumped = mongoTemplate.findAndModify(
+                new Query(Criteria.where("restaurantId").is(restaurantId)),
+                new Update().inc("menuVersion", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                FoodMenu.class);
+        long version = bumped != null ? bumped.getMenuVersion() : 0;
+        evict(restaurantId, version);
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, restaurantId + ":" + version);
+        } catch (Exception e) {
+            logger.warn("Failed to publish menu invalidation for restaurant ID: {}: {}", restaurantId, e.getMessage());
+        }
+        logger.info("Invalidated menu cache for restaurant ID: {} at version {}", restaurantId, version);
+    }
+
+    /**
+     * Handles invalidations published by any node, including this one.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf(':');
+        if (separator < 0) {
+            logger.warn("Ignoring malformed menu invalidation message: {}", body);
+            return;
+        }
+        try {
+            evict(body.substring(0, separator), Long.parseLong(body.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring malformed menu invalidation message: {}", body);
+        }
+    }
+
+    private void evict(String restaurantId, long version) {
+        latestVersions.merge(restaurantId, version, Math::max);
+        snapshots.computeIfPresent(restaurantId, (id, snapshot) -> snapshot.getVersion() < version ? null : snapshot);
+        // The cached FoodMenu carries the old version
+        foodMenuCache.evictRestaurant(restaurantId);
+    }
+
+    private MenuSnapshot load(String restaurantId) {
+        FoodMenu foodMenu = foodMenuRepository.findByRestaurantId(restaurantId);
+        if (foodMenu == null) {
+            logger.warn("Menu not found for restaurant ID: {}", restaurantId);
+            throw new ResourceNotFoundException("Menu not found for restaurant ID: " + restaurantId);
+        }
+        foodMenuIds.put(restaurantId, foodMenu.getId());
+        List<MenuItem> items = menuItemRepository.findByFoodMenuId(foodMenu.getId());
+        MenuSnapshot snapshot = new MenuSnapshot(restaurantId, foodMenu.getId(), foodMenu.getMenuVersion(), items);
+        // Check and insert under the entry's lock, so an invalidation cannot slip in between them.
+        // evict() raises latestVersions before it takes the same lock.
+        snapshots.compute(restaurantId, (id, current) -> {
+            if (snapshot.getVersion() < latestVersions.getOrDefault(id, Long.MIN_VALUE)) {
+                return current;
+            }
+            return current != null && current.getVersion() > snapshot.getVersion() ? current : snapshot;
+        });
+        logger.debug("Loaded menu snapshot for restaurant ID: {} at version {} with {} items",
+                restaurantId, snapshot.getVersion(), items.size());
+        return snapshot;
+    }
+
+    /**
+     * An immutable view of one restaurant's menu at a given content version.
+     */
+    public static final class MenuSnapshot {
+        private final String restaurantId;
+        private final String foodMenuId;
+        private final long version;
+        private final List<MenuItem> items;
+        private final long loadedAt = System.currentTimeMillis();
+
+        MenuSnapshot(String restaurantId, String foodMenuId, long version, List<MenuItem> items) {
+            this.restaurantId = restaurantId;
+            this.foodMenuId = foodMenuId;
+            this.version = version;
+            this.items = List.copyOf(items);
+        }
+
+        public String getRestaurantId() {
+            return restaurantId;
+        }
+
+        public String getFoodMenuId() {
+            return foodMenuId;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public List<MenuItem> getItems() {
+            return items;
+        }
+
+        boolean isOlderThan(long maxAgeMillis) {
+            return System.currentTimeMillis() - loadedAt > maxAgeMillis;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.exception.ResourceNotFoundException;
+import com.example.swiggy_project.model.MenuItem;
+import com.example.swiggy_project.repository.MenuItemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalesces menu item lookups by ID. A lookup arriving while no batch query is running is sent
+ * at once. Lookups arriving while one is running are gathered and sent together when it
+ * returns, or after {@code menu-items.batch-loader.window-ms} at the latest, as one {@code $in}
+ * query; a batch is sent early once it reaches {@code menu-items.batch-loader.max-batch-size}
+ * IDs. Duplicate IDs in a batch share one query result, and every caller gets its own copy of
+ * the menu item. Callers wait at most {@code menu-items.batch-loader.timeout-ms}.
+ */
+@Component
+public class MenuItemBatchLoader {
+    private static final Logger logger = LoggerFactory.getLogger(MenuItemBatchLoader.class);
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${menu-items.batch-loader.window-ms:2}")
+    private long windowMillis;
+
+    @Value("${menu-items.batch-loader.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${menu-items.batch-loader.timeout-ms:2000}")
+    private long timeoutMillis;
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4, new DaemonThreadFactory());
+
+    private final Object lock = new Object();
+    private Map<String, CompletableFuture<MenuItem>> pending = new HashMap<>();
+    private int inFlight; // Batch queries running; guarded by lock
+
+    /**
+     * Loads one menu item, sharing the query with concurrent lookups.
+     *
+     * @param id the ID of the menu item
+     * @return the MenuItem object
+     * @throws ResourceNotFoundException if the menu item is not found
+     * @throws QueryTimeoutException     if the lookup takes longer than the timeout
+     */
+    public MenuItem load(String id) {
+        CompletableFuture<MenuItem> future = enqueue(List.of(id)).get(id);
+        return await(id, future, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+    }
+
+    /**
+     * Loads several menu items in one query, shared with any concurrent lookups.
+     *
+     * @param ids the menu item IDs; duplicates are ignored
+     * @return the found menu items keyed by ID in request order; missing IDs are absent
+     * @throws QueryTimeoutException if the lookups take longer than the timeout
+     */
+    public Map<String, MenuItem> loadAll(Collection<String> ids) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        Map<String, CompletableFuture<MenuItem>> futures = enqueue(new LinkedHashSet<>(ids));
+        Map<String, MenuItem> found = new LinkedHashMap<>();
+        futures.forEach((id, future) -> {
+            try {
+                found.put(id, await(id, future, deadline));
+            } catch (ResourceNotFoundException e) {
+                // Missing IDs are simply absent
+            }
+        });
+        return found;
+    }
+
+    // Waits for a shared lookup until the deadline and returns a copy the caller may modify
+    private MenuItem await(String id, CompletableFuture<MenuItem> future, long deadline) {
+        try {
+            return copy(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            meterRegistry.counter("menu_items.batch_loader.timeouts").increment();
+            throw new QueryTimeoutException("Menu item lookup timed out for id: " + id);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("Interrupted while loading menu item with id: " + id, e);
+        }
+    }
+
+    private Map<String, CompletableFuture<MenuItem>> enqueue(Collection<String> ids) {
+        Map<String, CompletableFuture<MenuItem>> futures = new LinkedHashMap<>();
+        List<Map<String, CompletableFuture<MenuItem>>> batches = new ArrayList<>();
+        synchronized (lock) {
+            boolean waiting = !pending.isEmpty();
+            for (String id : ids) {
+                futures.put(id, pending.computeIfAbsent(id, key -> new CompletableFuture<>()));
+                if (pending.size() >= maxBatchSize) {
+                    batches.add(takePending());
+                }
+            }
+            if (!pending.isEmpty()) {
+                if (inFlight == 0) {
+                    batches.add(takePending()); // Nothing to wait for
+                } else if (!waiting) {
+                    scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+        // Queries run on the loader's threads, so the timeout bounds every caller's wait
+        batches.forEach(batch -> scheduler.execute(() -> dispatch(batch)));
+        return futures;
+    }
+
+    // Sends the gathered lookups, when the window ends or the running query returns
+    private void flush() {
+        Map<String, CompletableFuture<MenuItem>> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return; // Already sent
+            }
+            batch = takePending();
+        }
+        dispatch(batch);
+    }
+
+    // Must hold lock
+    private Map<String, CompletableFuture<MenuItem>> takePending() {
+        Map<String, CompletableFuture<MenuItem>> batch = pending;
+        pending = new HashMap<>();
+        inFlight++;
+        return batch;
+    }
+
+    private void dispatch(Map<String, CompletableFuture<MenuItem>> batch) {
+        try {
+            Map<String, MenuItem> found = new HashMap<>();
+            menuItemRepository.findAllById(batch.keySet()).forEach(item -> found.put(item.getId(), item));
+            batch.forEach((id, future) -> {
+                MenuItem item = found.get(id);
+                if (item != null) {
+                    future.complete(item);
+                } else {
+                    logger.warn("Menu item not found with id: {}", id);
+                    future.completeExceptionally(new ResourceNotFoundException("Menu item not found with id: " + id));
+                }
+            });
+            meterRegistry.summary("menu_items.batch_loader.batch_size").record(batch.size());
+            logger.debug("Loaded {} of {} menu items in one batch", found.size(), batch.size());
+        } catch (Exception e) {
+            logger.warn("Batched menu item lookup of {} IDs failed: {}", batch.size(), e.getMessage());
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        } finally {
+            boolean gathered;
+            synchronized (lock) {
+                inFlight--;
+                gathered = !pending.isEmpty();
+            }
+            if (gathered) {
+                scheduler.execute(this::flush);
+            }
+        }
+    }
+
+    // Copies every stored field; foodMenu is left for the caller to hydrate
+    private static MenuItem copy(MenuItem source) {
+        MenuItem copy = new MenuItem();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setPrice(source.getPrice());
+        copy.setFoodMenuId(source.getFoodMenuId());
+        copy.setRestaurantId(source.getRestaurantId());
+        copy.setCuisineType(source.getCuisineType());
+        copy.setMealType(source.getMealType());
+        copy.setVegOrNonVeg(source.getVegOrNonVeg());
+        copy.setNumberOfTimesOrdered(source.getNumberOfTimesOrdered());
+        copy.setRating(source.getRating());
+        copy.setRatingCount(source.getRatingCount());
+        copy.setRatingSum(source.getRatingSum());
+        return copy;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdown();
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "menu-item-batch-loader-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
\ No newline at end of file
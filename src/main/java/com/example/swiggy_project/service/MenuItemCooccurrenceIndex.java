@@ -0,0 +1,533 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.model.Order;
+import com.example.swiggy_project.util.LongIntHashMap;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * "People who ordered this also ordered": for every menu item, the items most often ordered
+ * together with it.
+ * <p>
+ * A batch job streams the orders of the last {@code recommendations.cooccurrence.window-days}
+ * days, counts how often each pair of items shares an order in a sparse map keyed by the packed
+ * pair, and keeps the top {@code recommendations.cooccurrence.neighbours} neighbours per item.
+ * Orders are counted in parallel partitions on a fork/join pool. The result is a compact
+ * snapshot of primitive arrays, served from memory and saved to GridFS, so other nodes and
+ * restarts load it instead of recomputing. A node only recomputes when the saved snapshot is
+ * older than half the rebuild interval.
+ */
+@Component
+public class MenuItemCooccurrenceIndex {
+    private static final Logger logger = LoggerFactory.getLogger(MenuItemCooccurrenceIndex.class);
+
+    static final String SNAPSHOT_FILENAME = "menu-item-cooccurrence";
+    private static final int SNAPSHOT_MAGIC = 0x434f4f43; // "COOC"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private GridFsTemplate gridFsTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${recommendations.cooccurrence.neighbours:20}")
+    private int neighbours;
+
+    @Value("${recommendations.cooccurrence.min-support:2}")
+    private int minSupport;
+
+    @Value("${recommendations.cooccurrence.window-days:180}")
+    private long windowDays;
+
+    @Value("${recommendations.cooccurrence.max-items-per-order:50}")
+    private int maxItemsPerOrder;
+
+    @Value("${recommendations.cooccurrence.partition-size:20000}")
+    private int partitionSize;
+
+    @Value("${recommendations.cooccurrence.rebuild-interval-ms:21600000}")
+    private long rebuildIntervalMillis;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    @PostConstruct
+    void registerMetrics() {
+        meterRegistry.gauge("recommendations.cooccurrence.items", this, index -> index.snapshot.size());
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAtStartup() {
+        try {
+            GridFSFile saved = latestSnapshotFile();
+            if (saved != null) {
+                load(saved);
+                return;
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to load saved co-occurrence snapshot: {}", e.getMessage());
+        }
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${recommendations.cooccurrence.rebuild-interval-ms:21600000}",
+            initialDelayString = "${recommendations.cooccurrence.rebuild-interval-ms:21600000}")
+    public void scheduledRebuild() {
+        try {
+            GridFSFile saved = latestSnapshotFile();
+            if (saved != null && saved.getUploadDate().toInstant().isAfter(Instant.now().minusMillis(rebuildIntervalMillis / 2))) {
+                // Another node rebuilt recently; take its result
+                if (saved.getUploadDate().toInstant().isAfter(snapshot.builtAt)) {
+                    load(saved);
+                }
+                return;
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to check saved co-occurrence snapshot: {}", e.getMessage());
+        }
+        rebuild();
+    }
+
+    /**
+     * Recomputes the co-occurrences from the orders, swaps them in and saves the snapshot.
+     * Failures are logged and leave the current snapshot in place.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        try {
+            Baskets baskets = loadBaskets();
+            ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+            Snapshot computed;
+            try {
+                computed = compute(baskets, neighbours, minSupport, partitionSize, pool, Instant.now());
+            } finally {
+                pool.shutdown();
+            }
+            snapshot = computed;
+            save(computed);
+            long elapsed = System.nanoTime() - start;
+            meterRegistry.timer("recommendations.cooccurrence.rebuild").record(elapsed, TimeUnit.NANOSECONDS);
+            logger.info("Rebuilt co-occurrences of {} menu items from {} orders in {} ms",
+                    computed.size(), baskets.size(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        } catch (Exception e) {
+            logger.warn("Failed to rebuild menu item co-occurrences: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the items most often ordered together with one menu item.
+     *
+     * @param menuItemId the ID of the menu item
+     * @param limit      the maximum number of IDs
+     * @return menu item IDs, most frequent first; empty if the item has no co-occurrences
+     */
+    public List<String> alsoOrdered(String menuItemId, int limit) {
+        return alsoOrdered(List.of(menuItemId), limit);
+    }
+
+    /**
+     * Returns the items most often ordered together with any of the given items, scored by the
+     * sum of their co-occurrence counts. The given items themselves are never returned.
+     *
+     * @param menuItemIds the IDs of the seed menu items
+     * @param limit       the maximum number of IDs
+     * @return menu item IDs, best first
+     */
+    public List<String> alsoOrdered(Collection<String> menuItemIds, int limit) {
+        return snapshot.alsoOrdered(menuItemIds, limit);
+    }
+
+    private Baskets loadBaskets() {
+        Criteria criteria = Criteria.where("status").ne("CANCELLED");
+        if (windowDays > 0) {
+            // Order IDs start with their creation time, so the window is a range scan on _id
+            criteria = criteria.and("_id").gte(ObjectId.getSmallestWithDate(Date.from(Instant.now().minus(Duration.ofDays(windowDays)))));
+        }
+        Query query = new Query(criteria);
+        query.fields().include("items.menuItemId");
+        Baskets baskets = new Baskets();
+        try (Stream<Document> orders = mongoTemplate.stream(query, Document.class, mongoTemplate.getCollectionName(Order.class))) {
+            orders.forEach(order -> {
+                List<?> items = order.get("items", List.class);
+                if (items == null || items.size() < 2 || items.size() > maxItemsPerOrder) {
+                    return; // Nothing to pair, or a bulk order that would pair everything with everything
+                }
+                List<String> ids = new ArrayList<>(items.size());
+                for (Object item : items) {
+                    if (item instanceof Document line && line.getString("menuItemId") != null) {
+                        ids.add(line.getString("menuItemId"));
+                    }
+                }
+                baskets.add(ids);
+            });
+        }
+        return baskets;
+    }
+
+    static Snapshot compute(Baskets baskets, int neighbours, int minSupport, int partitionSize, ForkJoinPool pool, Instant builtAt) {
+        LongIntHashMap pairs = pool.invoke(new PairCountTask(baskets, 0, baskets.size(), partitionSize));
+
+        // Keep each item's best neighbours: most co-occurrences first, then lowest item index
+        int itemCount = baskets.itemIds.size();
+        int[][] topItems = new int[itemCount][];
+        int[][] topCounts = new int[itemCount][];
+        int[] filled = new int[itemCount];
+        pairs.forEach((pair, count) -> {
+            if (count >= minSupport) {
+                int first = (int) (pair >>> 32);
+                int second = (int) pair;
+                offer(topItems, topCounts, filled, neighbours, first, second, count);
+                offer(topItems, topCounts, filled, neighbours, second, first, count);
+            }
+        });
+
+        // Compact to the items that have neighbours; every neighbour is such an item too
+        int[] positions = new int[itemCount];
+        List<String> ids = new ArrayList<>();
+        for (int item = 0; item < itemCount; item++) {
+            positions[item] = topItems[item] != null ? ids.size() : -1;
+            if (topItems[item] != null) {
+                ids.add(baskets.itemIds.get(item));
+            }
+        }
+        int[] offsets = new int[ids.size() + 1];
+        int total = 0;
+        for (int item = 0; item < itemCount; item++) {
+            if (topItems[item] != null) {
+                total += filled[item];
+                offsets[positions[item] + 1] = total;
+            }
+        }
+        int[] neighbourPositions = new int[total];
+        int[] counts = new int[total];
+        for (int item = 0; item < itemCount; item++) {
+            if (topItems[item] != null) {
+                int offset = offsets[positions[item]];
+                for (int i = 0; i < filled[item]; i++) {
+                    neighbourPositions[offset + i] = positions[topItems[item][i]];
+                    counts[offset + i] = topCounts[item][i];
+                }
+            }
+        }
+        return new Snapshot(ids.toArray(new String[0]), offsets, neighbourPositions, counts, builtAt);
+    }
+
+    private static void offer(int[][] topItems, int[][] topCounts, int[] filled, int limit, int item, int neighbour, int count) {
+        if (topItems[item] == null) {
+            topItems[item] = new int[limit];
+            topCounts[item] = new int[limit];
+        }
+        int[] items = topItems[item];
+        int[] counts = topCounts[item];
+        int size = filled[item];
+        if (size == limit && !ranksBefore(neighbour, count, items[limit - 1], counts[limit - 1])) {
+            return;
+        }
+        int position = size == limit ? limit - 1 : size;
+        if (size < limit) {
+            filled[item]++;
+        }
+        while (position > 0 && ranksBefore(neighbour, count, items[position - 1], counts[position - 1])) {
+            items[position] = items[position - 1];
+            counts[position] = counts[position - 1];
+            position--;
+        }
+        items[position] = neighbour;
+        counts[position] = count;
+    }
+
+    private static boolean ranksBefore(int item, int count, int otherItem, int otherCount) {
+        return count > otherCount || (count == otherCount && item < otherItem);
+    }
+
+    private GridFSFile latestSnapshotFile() {
+        Query query = new Query(Criteria.where("filename").is(SNAPSHOT_FILENAME)).with(Sort.by(Sort.Direction.DESC, "uploadDate"));
+        return gridFsTemplate.findOne(query.limit(1));
+    }
+
+    private void load(GridFSFile file) throws IOException {
+        try (InputStream in = gridFsTemplate.getResource(file).getInputStream()) {
+            snapshot = Snapshot.read(in);
+        }
+        logger.info("Loaded co-occurrences of {} menu items built at {}", snapshot.size(), snapshot.builtAt);
+    }
+
+    private void save(Snapshot computed) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        computed.write(bytes);
+        ObjectId stored = gridFsTemplate.store(new ByteArrayInputStream(bytes.toByteArray()), SNAPSHOT_FILENAME, "application/octet-stream");
+        // Keep only the snapshot just written
+        gridFsTemplate.delete(new Query(Criteria.where("filename").is(SNAPSHOT_FILENAME).and("_id").ne(stored)));
+        logger.info("Saved co-occurrence snapshot of {} bytes", bytes.size());
+    }
+
+    /**
+     * The orders to count, as menu item indices packed into one array; each order's items are
+     * distinct and ascending.
+     */
+    static final class Baskets {
+        final List<String> itemIds = new ArrayList<>();
+        private final Map<String, Integer> itemIndices = new HashMap<>();
+        private int[] items = new int[1024];
+        private int[] ends = new int[256];
+        private int itemsSize;
+        private int size;
+
+        void add(List<String> menuItemIds) {
+            int[] basket = new int[menuItemIds.size()];
+            for (int i = 0; i < basket.length; i++) {
+                basket[i] = itemIndices.computeIfAbsent(menuItemIds.get(i), id -> {
+                    itemIds.add(id);
+                    return itemIds.size() - 1;
+                });
+            }
+            Arrays.sort(basket);
+            int distinct = 0;
+            for (int i = 0; i < basket.length; i++) {
+                if (i == 0 || basket[i] != basket[i - 1]) {
+                    basket[distinct++] = basket[i];
+                }
+            }
+            if (distinct < 2) {
+                return;
+            }
+            if (itemsSize + distinct > items.length) {
+                items = Arrays.copyOf(items, Math.max(items.length * 2, itemsSize + distinct));
+            }
+            System.arraycopy(basket, 0, items, itemsSize, distinct);
+            itemsSize += distinct;
+            if (size == ends.length) {
+                ends = Arrays.copyOf(ends, ends.length * 2);
+            }
+            ends[size++] = itemsSize;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int start(int basket) {
+            return basket == 0 ? 0 : ends[basket - 1];
+        }
+
+        int end(int basket) {
+            return ends[basket];
+        }
+
+        int item(int position) {
+            return items[position];
+        }
+    }
+
+    // Counts the item pairs of a range of orders, splitting it in halves down to partitionSize orders
+    @SuppressWarnings("serial") // Never serialized; the baskets are not Serializable
+    private static final class PairCountTask extends RecursiveTask<LongIntHashMap> {
+        private final Baskets baskets;
+        private final int from;
+        private final int to;
+        private final int partitionSize;
+
+        PairCountTask(Baskets baskets, int from, int to, int partitionSize) {
+            this.baskets = baskets;
+            this.from = from;
+            this.to = to;
+            this.partitionSize = partitionSize;
+        }
+
+        @Override
+        protected LongIntHashMap compute() {
+            if (to - from <= partitionSize) {
+                LongIntHashMap counts = new LongIntHashMap(to - from);
+                for (int basket = from; basket < to; basket++) {
+                    int start = baskets.start(basket);
+                    int end = baskets.end(basket);
+                    for (int i = start; i < end; i++) {
+                        long first = (long) baskets.item(i) << 32;
+                        for (int j = i + 1; j < end; j++) {
+                            counts.addTo(first | baskets.item(j), 1); // Items are ascending, so first < second
+                        }
+                    }
+                }
+                return counts;
+            }
+            int middle = (from + to) >>> 1;
+            PairCountTask left = new PairCountTask(baskets, from, middle, partitionSize);
+            left.fork();
+            LongIntHashMap right = new PairCountTask(baskets, middle, to, partitionSize).compute();
+            LongIntHashMap joined = left.join();
+            // Merge the smaller map into the larger one
+            if (joined.size() < right.size()) {
+                right.addAll(joined);
+                return right;
+            }
+            joined.addAll(right);
+            return joined;
+        }
+    }
+
+    /**
+     * Immutable co-occurrence lists in compressed sparse row form: the neighbours of item
+     * {@code i} are {@code neighbours[offsets[i]]} to {@code neighbours[offsets[i + 1] - 1]},
+     * best first, with their counts at the same positions of {@code counts}.
+     */
+    static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new String[0], new int[1], new int[0], new int[0], Instant.EPOCH);
+
+        final String[] ids;
+        final int[] offsets;
+        final int[] neighbours;
+        final int[] counts;
+        final Instant builtAt;
+        private final Map<String, Integer> positions;
+
+        Snapshot(String[] ids, int[] offsets, int[] neighbours, int[] counts, Instant builtAt) {
+            this.ids = ids;
+            this.offsets = offsets;
+            this.neighbours = neighbours;
+            this.counts = counts;
+            this.builtAt = builtAt;
+            this.positions = new HashMap<>(ids.length * 2);
+            for (int i = 0; i < ids.length; i++) {
+                positions.put(ids[i], i);
+            }
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        List<String> alsoOrdered(Collection<String> menuItemIds, int limit) {
+            if (menuItemIds == null || menuItemIds.isEmpty() || limit <= 0) {
+                return List.of();
+            }
+            Set<Integer> seeds = new HashSet<>();
+            for (String id : menuItemIds) {
+                Integer position = positions.get(id);
+                if (position != null) {
+                    seeds.add(position);
+                }
+            }
+            if (seeds.size() == 1) {
+                // Already ranked; no scoring needed
+                int seed = seeds.iterator().next();
+                int end = Math.min(offsets[seed + 1], offsets[seed] + limit);
+                List<String> result = new ArrayList<>(end - offsets[seed]);
+                for (int i = offsets[seed]; i < end; i++) {
+                    result.add(ids[neighbours[i]]);
+                }
+                return result;
+            }
+            LongIntHashMap scores = new LongIntHashMap(seeds.size() * (neighbours.length / Math.max(1, ids.length) + 1));
+            for (int seed : seeds) {
+                for (int i = offsets[seed]; i < offsets[seed + 1]; i++) {
+                    if (!seeds.contains(neighbours[i])) {
+                        scores.addTo(neighbours[i], counts[i]);
+                    }
+                }
+            }
+            // Highest score first, then lowest position: sort score and inverted position packed in one long
+            long[] ranked = new long[scores.size()];
+            int[] size = {0};
+            scores.forEach((position, score) -> ranked[size[0]++] = ((long) score << 32) | (Integer.MAX_VALUE - position));
+            Arrays.sort(ranked);
+            List<String> result = new ArrayList<>(Math.min(limit, ranked.length));
+            for (int i = ranked.length - 1; i >= 0 && result.size() < limit; i--) {
+                result.add(ids[Integer.MAX_VALUE - (int) ranked[i]]);
+            }
+            return result;
+        }
+
+        void write(OutputStream out) throws IOException {
+            GZIPOutputStream gzip = new GZIPOutputStream(out, 1 << 16);
+            DataOutputStream data = new DataOutputStream(gzip);
+            data.writeInt(SNAPSHOT_MAGIC);
+            data.writeInt(SNAPSHOT_VERSION);
+            data.writeLong(builtAt.toEpochMilli());
+            data.writeInt(ids.length);
+            data.writeInt(neighbours.length);
+            for (String id : ids) {
+                data.writeUTF(id);
+            }
+            for (int offset : offsets) {
+                data.writeInt(offset);
+            }
+            for (int i = 0; i < neighbours.length; i++) {
+                data.writeInt(neighbours[i]);
+                data.writeInt(counts[i]);
+            }
+            data.flush();
+            gzip.finish();
+        }
+
+        static Snapshot read(InputStream in) throws IOException {
+            DataInputStream data = new DataInputStream(new BufferedInputStream(new GZIPInputStream(in, 1 << 16)));
+            if (data.readInt() != SNAPSHOT_MAGIC || data.readInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Not a co-occurrence snapshot of version " + SNAPSHOT_VERSION);
+            }
+            Instant builtAt = Instant.ofEpochMilli(data.readLong());
+            String[] ids = new String[data.readInt()];
+            int total = data.readInt();
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = data.readUTF();
+            }
+            int[] offsets = new int[ids.length + 1];
+            for (int i = 0; i < offsets.length; i++) {
+                offsets[i] = data.readInt();
+            }
+            int[] neighbours = new int[total];
+            int[] counts = new int[total];
+            for (int i = 0; i < total; i++) {
+                neighbours[i] = data.readInt();
+                counts[i] = data.readInt();
+            }
+            return new Snapshot(ids, offsets, neighbours, counts, builtAt);
+        }
+    }
+}
\ No newline at end of file
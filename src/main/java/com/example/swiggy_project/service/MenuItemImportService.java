@@ -0,0 +1,318 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.exception.ResourceNotFoundException;
+import com.example.swiggy_project.model.MenuImportReport;
+import com.example.swiggy_project.model.MenuItem;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports menu items in bulk from a streamed JSON array or CSV upload. Rows are parsed one at
+ * a time, validated, and inserted in fixed-size unordered bulk writes, so memory stays
+ * constant regardless of the upload size. Invalid rows are skipped and reported by row number.
+ */
+@Service
+public class MenuItemImportService {
+    private static final Logger logger = LoggerFactory.getLogger(MenuItemImportService.class);
+
+    public enum Format {
+        JSON,
+        CSV
+    }
+
+    private static final List<String> CSV_COLUMNS = List.of("name", "price", "cuisinetype", "mealtype", "vegornonveg");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MenuCache menuCache;
+
+    @Autowired
+    private DishSearchIndex dishSearchIndex;
+
+    @Autowired
+    private PopularMenuItemIndex popularMenuItemIndex;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${menu-items.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${menu-items.import.max-errors:1000}")
+    private int maxErrors;
+
+    /**
+     * Imports all rows of an upload into a restaurant's menu.
+     *
+     * @param restaurantId the ID of the restaurant
+     * @param input        the raw upload; read exactly once
+     * @param format       whether the upload is a JSON array or a CSV file with a header line
+     * @return the per-row import report
+     * @throws ResourceNotFoundException if the restaurant has no menu
+     * @throws IllegalArgumentException  if the upload does not start like the declared format
+     */
+    public MenuImportReport importMenuItems(String restaurantId, InputStream input, Format format) {
+        logger.info("Importing {} menu items for restaurant ID: {}", format, restaurantId);
+        long start = System.currentTimeMillis();
+        ImportRun run = new ImportRun(restaurantId, menuCache.foodMenuId(restaurantId));
+        try {
+            if (format == Format.CSV) {
+                readCsv(input, run);
+            } else {
+                readJson(input, run);
+            }
+        } catch (IOException e) {
+            // Rows already read are kept; everything after the malformed point is lost
+            logger.warn("Menu import for restaurant ID: {} aborted after row {}: {}", restaurantId, run.report.getRowsRead(), e.getMessage());
+            run.report.setAborted(true);
+            run.addError(run.report.getRowsRead() + 1, "Malformed upload: " + e.getMessage());
+        } finally {
+            run.flush();
+            if (run.report.getImported() > 0) {
+                menuCache.invalidate(restaurantId);
+                dishSearchIndex.reindexRestaurant(restaurantId);
+                popularMenuItemIndex.reload(run.cuisineTypes);
+            }
+        }
+        run.report.setDurationMillis(System.currentTimeMillis() - start);
+        logger.info("Imported {} of {} menu items for restaurant ID: {} in {} ms",
+                run.report.getImported(), run.report.getRowsRead(), restaurantId, run.report.getDurationMillis());
+        return run.report;
+    }
+
+    private void readJson(InputStream input, ImportRun run) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("JSON upload must be an array of menu items");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new IOException("Unexpected end of JSON array");
+                }
+                long row = run.nextRow();
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    run.reject(row, "Expected a JSON object");
+                    continue;
+                }
+                // Only the current row is held as a tree, so a bad field fails the row and not the parser
+                JsonNode node = parser.readValueAsTree();
+                try {
+                    run.accept(row, objectMapper.treeToValue(node, MenuItem.class));
+                } catch (JsonProcessingException e) {
+                    run.reject(row, "Invalid menu item: " + e.getOriginalMessage());
+                }
+            }
+        }
+    }
+
+    private void readCsv(InputStream input, ImportRun run) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<String> header = readCsvRecord(reader);
+        if (header == null) {
+            throw new IllegalArgumentException("CSV upload is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = CSV_COLUMNS.stream().filter(column -> !columns.containsKey(column)).collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV header is missing columns: " + missing);
+        }
+
+        List<String> record;
+        while ((record = readCsvRecord(reader)) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue; // Blank line
+            }
+            long row = run.nextRow();
+            MenuItem menuItem = new MenuItem();
+            menuItem.setName(csvField(record, columns.get("name")));
+            menuItem.setCuisineType(csvField(record, columns.get("cuisinetype")));
+            menuItem.setMealType(csvField(record, columns.get("mealtype")));
+            menuItem.setVegOrNonVeg(csvField(record, columns.get("vegornonveg")));
+            String price = csvField(record, columns.get("price"));
+            if (price == null) {
+                run.reject(row, "price: Price is mandatory");
+                continue;
+            }
+            try {
+                menuItem.setPrice(Double.parseDouble(price));
+            } catch (NumberFormatException e) {
+                run.reject(row, "Invalid price: " + price);
+                continue;
+            }
+            run.accept(row, menuItem);
+        }
+    }
+
+    private String csvField(List<String> record, int index) {
+        if (index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Reads one RFC 4180 record: comma-separated, fields optionally double-quoted, quotes
+     * escaped by doubling, and line breaks allowed inside quoted fields.
+     *
+     * @return the fields of the record, or null at end of input
+     */
+    private List<String> readCsvRecord(BufferedReader reader) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean readAny = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            readAny = true;
+            if (quoted) {
+                if (c != '"') {
+                    field.append((char) c);
+                    continue;
+                }
+                reader.mark(1);
+                int next = reader.read();
+                if (next == '"') {
+                    field.append('"');
+                } else {
+                    quoted = false;
+                    if (next != -1) {
+                        reader.reset();
+                    }
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (quoted) {
+            throw new IOException("Unterminated quoted CSV field");
+        }
+        if (!readAny) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // Accumulates one import: the pending bulk batch and the report
+    private class ImportRun {
+        private final String restaurantId;
+        private final String foodMenuId;
+        private final MenuImportReport report = new MenuImportReport();
+        private final List<MenuItem> pending = new ArrayList<>(batchSize);
+        private final List<Long> pendingRows = new ArrayList<>(batchSize);
+        // Cuisines of the accepted rows, so only those popularity lists are reloaded
+        private final Set<String> cuisineTypes = new HashSet<>();
+
+        ImportRun(String restaurantId, String foodMenuId) {
+            this.restaurantId = restaurantId;
+            this.foodMenuId = foodMenuId;
+            report.setRestaurantId(restaurantId);
+        }
+
+        long nextRow() {
+            report.setRowsRead(report.getRowsRead() + 1);
+            return report.getRowsRead();
+        }
+
+        void accept(long row, MenuItem menuItem) {
+            Set<ConstraintViolation<MenuItem>> violations = validator.validate(menuItem);
+            if (!violations.isEmpty()) {
+                reject(row, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            // Imported rows always create new items on this restaurant's menu
+            menuItem.setId(null);
+            menuItem.setFoodMenu(null);
+            menuItem.setFoodMenuId(foodMenuId);
+            menuItem.setRestaurantId(restaurantId);
+            pending.add(menuItem);
+            pendingRows.add(row);
+            cuisineTypes.add(menuItem.getCuisineType());
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long row, String message) {
+            report.setFailed(report.getFailed() + 1);
+            addError(row, message);
+        }
+
+        void addError(long row, String message) {
+            if (report.getErrors().size() < maxErrors) {
+                report.getErrors().add(new MenuImportReport.RowError(row, message));
+            } else {
+                report.setErrorsTruncated(true);
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MenuItem.class);
+            bulk.insert(pending);
+            try {
+                report.setImported(report.getImported() + bulk.execute().getInsertedCount());
+            } catch (BulkOperationException e) {
+                report.setImported(report.getImported() + e.getResult().getInsertedCount());
+                for (BulkWriteError error : e.getErrors()) {
+                    reject(pendingRows.get(error.getIndex()), "Insert failed: " + error.getMessage());
+                }
+            }
+            logger.debug("Flushed {} imported menu items for restaurant ID: {}", pending.size(), restaurantId);
+            pending.clear();
+            pendingRows.clear();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.model.MenuItem;
+import com.example.swiggy_project.model.Review;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Moves reviews embedded in menu items (the old {@code reviews} string list) into the reviews
+ * collection and removes the list from the item.
+ * <p>
+ * Old reviews are plain text with no author or rating, so they are copied with a null rating
+ * and do not affect any average. Each one is upserted by a {@code menuItemId:index} key, so a
+ * batch interrupted between copying and unsetting is simply repeated without duplicates.
+ */
+@Service
+public class MenuItemReviewMigration {
+    private static final Logger logger = LoggerFactory.getLogger(MenuItemReviewMigration.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${menu-items.migration.batch-size:500}")
+    private int batchSize;
+
+    @Value("${menu-items.migration.max-batches:50}")
+    private int maxBatches;
+
+    private volatile boolean completed = false;
+
+    @Scheduled(fixedDelayString = "${menu-items.migration.interval-ms:60000}", initialDelayString = "${menu-items.migration.initial-delay-ms:60000}")
+    public void scheduledRun() {
+        if (completed) {
+            return;
+        }
+        try {
+            migrate();
+        } catch (Exception e) {
+            logger.warn("Menu item review migration run failed, will resume on the next run: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Migrates the embedded reviews of up to {@code menu-items.migration.max-batches} batches of
+     * menu items.
+     *
+     * @return the number of reviews moved by this run
+     */
+    public long migrate() {
+        String collection = mongoTemplate.getCollectionName(MenuItem.class);
+        long moved = 0;
+        Object lastId = null;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Criteria criteria = Criteria.where("reviews").exists(true);
+            if (lastId != null) {
+                criteria = criteria.and("_id").gt(lastId);
+            }
+            Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "_id")).limit(batchSize);
+            query.fields().include("_id").include("restaurantId").include("reviews");
+            List<Document> documents = mongoTemplate.find(query, Document.class, collection);
+            if (documents.isEmpty()) {
+                completed = true;
+                logger.info("Menu item review migration complete");
+                break;
+            }
+
+            BulkOperations reviews = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Review.class);
+            int pendingReviews = 0;
+            for (Document document : documents) {
+                String menuItemId = document.get("_id").toString();
+                List<?> embedded = document.get("reviews", List.class);
+                for (int i = 0; embedded != null && i < embedded.size(); i++) {
+                    Object text = embedded.get(i);
+                    if (text == null) {
+                        continue;
+                    }
+                    String legacyKey = menuItemId + ":" + i;
+                    reviews.upsert(new Query(Criteria.where("legacyKey").is(legacyKey)), new Update()
+                            .setOnInsert("menuItemId", menuItemId)
+                            .setOnInsert("restaurantId", document.getString("restaurantId"))
+                            .setOnInsert("comment", text.toString()));
+                    pendingReviews++;
+                }
+            }
+            if (pendingReviews > 0) {
+                reviews.execute();
+                moved += pendingReviews;
+            }
+
+            // Only unset once every review of the batch is safely in the reviews collection
+            BulkOperations items = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+            for (Document document : documents) {
+                items.updateOne(new Query(Criteria.where("_id").is(document.get("_id"))), new Update().unset("reviews"));
+            }
+            items.execute();
+            lastId = documents.get(documents.size() - 1).get("_id");
+        }
+        if (moved > 0) {
+            meterRegistry.counter("menu_items.migration.reviews_moved").increment(moved);
+            logger.info("Menu item review migration moved {} reviews in this run", moved);
+        }
+        return moved;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+}
\ No newline at end of file
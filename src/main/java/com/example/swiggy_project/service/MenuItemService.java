@@ -2,17 +2,32 @@ package com.example.swiggy_project.service;
 
 import com.example.swiggy_project.exception.ResourceNotFoundException;
 import com.example.swiggy_project.model.FoodMenu;
+import com.example.swiggy_project.model.MenuBrowseResult;
 import com.example.swiggy_project.model.MenuItem;
 import com.example.swiggy_project.repository.FoodMenuRepository;
 import com.example.swiggy_project.repository.MenuItemRepository;
+import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import jakarta.validation.Valid;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class MenuItemService {
@@ -24,16 +39,34 @@ public class MenuItemService {
     @Autowired
     private FoodMenuRepository foodMenuRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private FoodMenuCache foodMenuCache;
+
+    @Autowired
+    private MenuCache menuCache;
+
+    @Autowired
+    private DishSearchIndex dishSearchIndex;
+
+    @Autowired
+    private MenuItemBatchLoader menuItemBatchLoader;
+
+    @Autowired
+    private PopularMenuItemIndex popularMenuItemIndex;
+
     public MenuItem addMenuItem(String menuId, @Valid MenuItem menuItem) {
         logger.info("Adding menu item to menu ID: {}", menuId);
-        FoodMenu foodMenu = foodMenuRepository.findById(menuId)
-                .orElseThrow(() -> {
-                    logger.warn("Menu not found with id: {}", menuId);
-                    return new ResourceNotFoundException("Menu not found with id: " + menuId);
-                });
-        menuItem.setFoodMenu(foodMenu);
+        FoodMenu foodMenu = foodMenuCache.get(menuId);
+        menuItem.setFoodMenu(foodMenu); // Returned to the caller but not stored
         menuItem.setFoodMenuId(menuId);
+        menuItem.setRestaurantId(foodMenu.getRestaurantId());
         MenuItem saved = menuItemRepository.save(menuItem);
+        menuCache.invalidate(saved.getRestaurantId());
+        dishSearchIndex.index(saved);
+        popularMenuItemIndex.update(saved);
         logger.info("Menu item added successfully with ID: {}", saved.getId());
         return saved;
     }
@@ -45,49 +78,183 @@ public class MenuItemService {
             logger.warn("No menu found for restaurant with id: {}", restaurantId);
             throw new ResourceNotFoundException("No menu found for restaurant with id: " + restaurantId);
         }
-        menuItem.setFoodMenu(foodMenu);
+        menuItem.setFoodMenu(foodMenu); // Returned to the caller but not stored
         menuItem.setFoodMenuId(foodMenu.getId());
+        menuItem.setRestaurantId(restaurantId);
         MenuItem saved = menuItemRepository.save(menuItem);
+        menuCache.invalidate(saved.getRestaurantId());
+        dishSearchIndex.index(saved);
+        popularMenuItemIndex.update(saved);
         logger.info("Menu item added successfully with ID: {}", saved.getId());
         return saved;
     }
 
+    /**
+     * Retrieves a menu item by ID. Concurrent lookups are coalesced into one query by
+     * {@link MenuItemBatchLoader}.
+     *
+     * @param id the ID of the menu item
+     * @return the MenuItem object
+     * @throws ResourceNotFoundException if the menu item is not found
+     */
     public MenuItem getMenuItemById(String id) {
         logger.info("Retrieving menu item with ID: {}", id);
-        return menuItemRepository.findById(id)
-                .orElseThrow(() -> {
-                    logger.warn("Menu item not found with id: {}", id);
-                    return new ResourceNotFoundException("Menu item not found with id: " + id);
-                });
+        return menuItemBatchLoader.load(id);
     }
 
-    public List<MenuItem> getMenuItemsByCuisine(String restaurantId, String cuisineType) {
-        logger.info("Retrieving menu items for restaurant ID: {} with cuisine: {}", restaurantId, cuisineType);
-        FoodMenu foodMenu = foodMenuRepository.findByRestaurantId(restaurantId);
-        if (foodMenu == null) {
-            logger.warn("No menu found for restaurant with id: {}", restaurantId);
-            throw new ResourceNotFoundException("No menu found for restaurant with id: " + restaurantId);
+    /**
+     * Retrieves a menu item with its FoodMenu attached. Items are stored without the menu,
+     * which is resolved from {@link FoodMenuCache} only for callers that need it.
+     *
+     * @param id the ID of the menu item
+     * @return the MenuItem object with {@code foodMenu} populated
+     * @throws ResourceNotFoundException if the menu item is not found
+     */
+    public MenuItem getHydratedMenuItem(String id) {
+        MenuItem menuItem = getMenuItemById(id);
+        if (menuItem.getFoodMenuId() != null) {
+            menuItem.setFoodMenu(foodMenuCache.get(menuItem.getFoodMenuId()));
+        }
+        return menuItem;
+    }
+
+    /**
+     * Fetches several menu items with a single {@code $in} query, shared with any concurrent
+     * lookups through {@link MenuItemBatchLoader}.
+     *
+     * @param ids the menu item IDs to fetch; duplicates are ignored
+     * @return the found menu items keyed by ID in request order; missing IDs are simply absent
+     */
+    public Map<String, MenuItem> getMenuItemsByIds(Collection<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Map.of();
+        }
+        List<String> distinctIds = List.copyOf(new LinkedHashSet<>(ids));
+        logger.info("Retrieving {} menu items in one batch", distinctIds.size());
+        Map<String, MenuItem> items = menuItemBatchLoader.loadAll(distinctIds);
+        if (items.size() < distinctIds.size()) {
+            logger.warn("Found only {} of {} requested menu items", items.size(), distinctIds.size());
         }
-        List<MenuItem> items = menuItemRepository.findByFoodMenuIdAndCuisineType(foodMenu.getId(), cuisineType);
-        logger.info("Found {} menu items for restaurant ID: {} with cuisine: {}", items.size(), restaurantId, cuisineType);
         return items;
     }
 
-    public List<MenuItem> getMenuItemsByMealType(String restaurantId, String mealType) {
-        logger.info("Retrieving menu items for restaurant ID: {} with meal type: {}", restaurantId, mealType);
-        FoodMenu foodMenu = foodMenuRepository.findByRestaurantId(restaurantId);
-        if (foodMenu == null) {
-            logger.warn("No menu found for restaurant with id: {}", restaurantId);
-            throw new ResourceNotFoundException("No menu found for restaurant with id: " + restaurantId);
+    /**
+     * Atomically adds to the order counters of several menu items in one unordered bulk write.
+     * Counters are not a menu change, so cached menus are not invalidated and may show
+     * slightly older counts until their snapshot expires.
+     *
+     * @param quantities the quantity ordered, keyed by menu item ID
+     */
+    public void incrementTimesOrdered(Map<String, Integer> quantities) {
+        if (quantities == null || quantities.isEmpty()) {
+            return;
         }
-        List<MenuItem> items = menuItemRepository.findByFoodMenuIdAndMealType(foodMenu.getId(), mealType);
-        logger.info("Found {} menu items for restaurant ID: {} with meal type: {}", items.size(), restaurantId, mealType);
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MenuItem.class);
+        quantities.forEach((id, quantity) -> bulk.updateOne(
+                new Query(Criteria.where("_id").is(id)),
+                new Update().inc("numberOfTimesOrdered", quantity)));
+        bulk.execute();
+        logger.info("Incremented order counters for {} menu items", quantities.size());
+    }
+
+    public List<MenuItem> getMenuItemsByCuisine(MenuCache.MenuSnapshot menu, String cuisineType) {
+        logger.info("Retrieving menu items for restaurant ID: {} with cuisine: {}", menu.getRestaurantId(), cuisineType);
+        List<MenuItem> items = menu.getItems().stream()
+                .filter(item -> cuisineType.equals(item.getCuisineType()))
+                .collect(Collectors.toList());
+        logger.info("Found {} menu items for restaurant ID: {} with cuisine: {}", items.size(), menu.getRestaurantId(), cuisineType);
         return items;
     }
 
+    public List<MenuItem> getMenuItemsByMealType(MenuCache.MenuSnapshot menu, String mealType) {
+        logger.info("Retrieving menu items for restaurant ID: {} with meal type: {}", menu.getRestaurantId(), mealType);
+        List<MenuItem> items = menu.getItems().stream()
+                .filter(item -> mealType.equals(item.getMealType()))
+                .collect(Collectors.toList());
+        logger.info("Found {} menu items for restaurant ID: {} with meal type: {}", items.size(), menu.getRestaurantId(), mealType);
+        return items;
+    }
+
+    /**
+     * Browses a restaurant's menu with any combination of cuisine, meal type and veg filters.
+     * The matching items and the count for every facet value come back from a single
+     * {@code $facet} aggregation whose leading match on {@code foodMenuId} uses the compound
+     * browse index. Each facet is counted with the other filters applied but not its own.
+     *
+     * @param restaurantId the ID of the restaurant
+     * @param cuisineType  the cuisine to filter on, or null for any
+     * @param mealType     the meal type to filter on, or null for any
+     * @param vegOrNonVeg  "VEG" or "NON_VEG", or null for any
+     * @return the matching items and facet counts
+     * @throws ResourceNotFoundException if the restaurant has no menu
+     */
+    public MenuBrowseResult browseMenuItems(String restaurantId, String cuisineType, String mealType, String vegOrNonVeg) {
+        logger.info("Browsing menu items for restaurant ID: {} with cuisine: {}, meal type: {}, veg: {}",
+                restaurantId, cuisineType, mealType, vegOrNonVeg);
+        String foodMenuId = menuCache.foodMenuId(restaurantId);
+        Map<String, String> filters = new LinkedHashMap<>();
+        if (StringUtils.hasText(cuisineType)) {
+            filters.put("cuisineType", cuisineType);
+        }
+        if (StringUtils.hasText(mealType)) {
+            filters.put("mealType", mealType);
+        }
+        if (StringUtils.hasText(vegOrNonVeg)) {
+            filters.put("vegOrNonVeg", vegOrNonVeg);
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("foodMenuId").is(foodMenuId)),
+                Aggregation.facet(Aggregation.match(browseCriteria(filters, null)), Aggregation.sort(Sort.by("name"))).as("items")
+                        .and(Aggregation.match(browseCriteria(filters, "cuisineType")), Aggregation.group("cuisineType").count().as("count")).as("cuisineType")
+                        .and(Aggregation.match(browseCriteria(filters, "mealType")), Aggregation.group("mealType").count().as("count")).as("mealType")
+                        .and(Aggregation.match(browseCriteria(filters, "vegOrNonVeg")), Aggregation.group("vegOrNonVeg").count().as("count")).as("vegOrNonVeg"));
+        Document facets = mongoTemplate.aggregate(aggregation, MenuItem.class, Document.class).getUniqueMappedResult();
+
+        MenuBrowseResult result = new MenuBrowseResult();
+        result.setRestaurantId(restaurantId);
+        if (facets != null) {
+            result.setItems(facets.getList("items", Document.class).stream()
+                    .map(document -> mongoTemplate.getConverter().read(MenuItem.class, document))
+                    .collect(Collectors.toList()));
+            result.setCuisineTypeCounts(facetCounts(facets, "cuisineType"));
+            result.setMealTypeCounts(facetCounts(facets, "mealType"));
+            result.setVegOrNonVegCounts(facetCounts(facets, "vegOrNonVeg"));
+        }
+        logger.info("Found {} menu items while browsing restaurant ID: {}", result.getItems().size(), restaurantId);
+        return result;
+    }
+
+    // All active filters except the one on the facet being counted
+    private Criteria browseCriteria(Map<String, String> filters, String excludedField) {
+        Criteria criteria = new Criteria();
+        filters.forEach((field, value) -> {
+            if (!field.equals(excludedField)) {
+                criteria.and(field).is(value);
+            }
+        });
+        return criteria;
+    }
+
+    // Facet values ordered by descending count; items missing the field are not counted
+    private Map<String, Long> facetCounts(Document facets, String facet) {
+        return facets.getList(facet, Document.class).stream()
+                .filter(bucket -> bucket.get("_id") != null)
+                .sorted((a, b) -> Long.compare(((Number) b.get("count")).longValue(), ((Number) a.get("count")).longValue()))
+                .collect(Collectors.toMap(bucket -> bucket.get("_id").toString(),
+                        bucket -> ((Number) bucket.get("count")).longValue(),
+                        (a, b) -> a, LinkedHashMap::new));
+    }
+
     public MenuItem updateMenuItem(MenuItem menuItem) {
         logger.info("Updating menu item with ID: {}", menuItem.getId());
+        if (menuItem.getRestaurantId() == null && menuItem.getFoodMenuId() != null) {
+            menuItem.setRestaurantId(foodMenuCache.get(menuItem.getFoodMenuId()).getRestaurantId());
+        }
         MenuItem updated = menuItemRepository.save(menuItem);
+        menuCache.invalidate(updated.getRestaurantId());
+        dishSearchIndex.index(updated);
+        popularMenuItemIndex.update(updated);
         logger.info("Menu item updated successfully with ID: {}", updated.getId());
         return updated;
     }
@@ -0,0 +1,126 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.model.MenuItem;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Rewrites menu items stored in the old format, which embedded a full FoodMenu (and through
+ * it a full Restaurant), into the slim format that keeps only {@code foodMenuId} and the
+ * denormalized {@code restaurantId}.
+ * <p>
+ * The job is resumable by construction: it only ever selects documents that still carry the
+ * embedded {@code foodMenu}, so a restart simply continues with whatever is left. Each run
+ * rewrites a bounded number of batches with unordered bulk updates.
+ */
+@Service
+public class MenuItemStorageMigration {
+    private static final Logger logger = LoggerFactory.getLogger(MenuItemStorageMigration.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private FoodMenuCache foodMenuCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${menu-items.migration.batch-size:500}")
+    private int batchSize;
+
+    @Value("${menu-items.migration.max-batches:50}")
+    private int maxBatches;
+
+    private volatile boolean completed = false;
+
+    @Scheduled(fixedDelayString = "${menu-items.migration.interval-ms:60000}", initialDelayString = "${menu-items.migration.initial-delay-ms:60000}")
+    public void scheduledRun() {
+        if (completed) {
+            return;
+        }
+        try {
+            migrate();
+        } catch (Exception e) {
+            logger.warn("Menu item storage migration run failed, will resume on the next run: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Migrates up to {@code menu-items.migration.max-batches} batches.
+     *
+     * @return the number of menu items rewritten by this run
+     */
+    public long migrate() {
+        String collection = mongoTemplate.getCollectionName(MenuItem.class);
+        long migrated = 0;
+        Object lastId = null;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Criteria criteria = Criteria.where("foodMenu").exists(true);
+            if (lastId != null) {
+                // Keyset over _id so documents that could not be migrated are not re-read within a run
+                criteria = criteria.and("_id").gt(lastId);
+            }
+            Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "_id")).limit(batchSize);
+            query.fields().include("_id").include("foodMenuId").include("foodMenu.restaurantId");
+            List<Document> documents = mongoTemplate.find(query, Document.class, collection);
+            if (documents.isEmpty()) {
+                completed = true;
+                logger.info("Menu item storage migration complete");
+                break;
+            }
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+            for (Document document : documents) {
+                Update update = new Update().unset("foodMenu");
+                String restaurantId = resolveRestaurantId(document);
+                if (restaurantId != null) {
+                    update.set("restaurantId", restaurantId);
+                }
+                bulk.updateOne(new Query(Criteria.where("_id").is(document.get("_id"))), update);
+            }
+            migrated += bulk.execute().getModifiedCount();
+            lastId = documents.get(documents.size() - 1).get("_id");
+        }
+        if (migrated > 0) {
+            meterRegistry.counter("menu_items.migration.migrated").increment(migrated);
+            logger.info("Menu item storage migration rewrote {} documents in this run", migrated);
+        }
+        return migrated;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    private String resolveRestaurantId(Document document) {
+        Object embedded = document.get("foodMenu");
+        if (embedded instanceof Document foodMenu && foodMenu.getString("restaurantId") != null) {
+            return foodMenu.getString("restaurantId");
+        }
+        String foodMenuId = document.getString("foodMenuId");
+        if (foodMenuId == null) {
+            return null;
+        }
+        try {
+            return foodMenuCache.get(foodMenuId).getRestaurantId();
+        } catch (Exception e) {
+            logger.warn("Could not resolve restaurant for menu item {}: {}", document.get("_id"), e.getMessage());
+            return null;
+        }
+    }
+}
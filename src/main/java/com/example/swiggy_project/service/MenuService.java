@@ -5,7 +5,6 @@ import com.example.swiggy_project.model.FoodMenu;
 import com.example.swiggy_project.model.MenuItem;
 import com.example.swiggy_project.model.Restaurant;
 import com.example.swiggy_project.repository.FoodMenuRepository;
-import com.example.swiggy_project.repository.MenuItemRepository;
 import com.example.swiggy_project.repository.RestaurantRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,7 +30,10 @@ public class MenuService {
     private RestaurantRepository restaurantRepository;
 
     @Autowired
-    private MenuItemRepository menuItemRepository; // Add this dependency
+    private FoodMenuCache foodMenuCache;
+
+    @Autowired
+    private MenuCache menuCache;
 
     /**
      * Adds a new menu for a specific restaurant.
@@ -56,6 +58,7 @@ public class MenuService {
         foodMenu.setRestaurant(restaurant);
         foodMenu.setRestaurantId(restaurantId);
         FoodMenu saved = foodMenuRepository.save(foodMenu);
+        foodMenuCache.put(saved);
         logger.info("Menu added successfully with ID: {}", saved.getId());
         return saved;
     }
@@ -74,11 +77,7 @@ public class MenuService {
             throw new IllegalArgumentException("Menu ID cannot be null or empty");
         }
         logger.info("Retrieving menu with ID: {}", id);
-        return foodMenuRepository.findById(id)
-                .orElseThrow(() -> {
-                    logger.warn("Menu not found with id: {}", id);
-                    return new ResourceNotFoundException("Menu not found with id: " + id);
-                });
+        return foodMenuCache.get(id);
     }
 
     /**
@@ -95,14 +94,42 @@ public class MenuService {
             throw new IllegalArgumentException("Restaurant ID cannot be null or empty");
         }
         logger.info("Retrieving menu items for restaurant ID: {}", restaurantId);
-        FoodMenu foodMenu = foodMenuRepository.findByRestaurantId(restaurantId);
-        if (foodMenu == null) {
-            logger.warn("Menu not found for restaurant ID: {}", restaurantId);
-            throw new ResourceNotFoundException("Menu not found for restaurant ID: " + restaurantId);
-        }
-        // Fetch menu items directly from the menu_items collection
-        List<MenuItem> menuItems = menuItemRepository.findByFoodMenuId(foodMenu.getId());
+        // Served from the in-process menu cache; the snapshot is reloaded only after a menu write
+        List<MenuItem> menuItems = menuCache.get(restaurantId).getItems();
         logger.info("Found {} menu items for restaurant ID: {}", menuItems.size(), restaurantId);
         return menuItems;
     }
+
+    /**
+     * Returns a restaurant's cached menu snapshot. Responses built from its items should take
+     * their ETag from its version, so the tag always describes the body it is sent with.
+     *
+     * @param restaurantId the ID of the restaurant
+     * @return the menu snapshot
+     * @throws ResourceNotFoundException if the menu is not found
+     * @throws IllegalArgumentException  if the restaurantId is null or empty
+     */
+    public MenuCache.MenuSnapshot getMenuSnapshot(String restaurantId) {
+        if (!StringUtils.hasText(restaurantId)) {
+            logger.error("Restaurant ID is null or empty");
+            throw new IllegalArgumentException("Restaurant ID cannot be null or empty");
+        }
+        return menuCache.get(restaurantId);
+    }
+
+    /**
+     * Returns the content version of a restaurant's menu, used as its ETag.
+     *
+     * @param restaurantId the ID of the restaurant
+     * @return the menu's content version
+     * @throws ResourceNotFoundException if the menu is not found
+     * @throws IllegalArgumentException  if the restaurantId is null or empty
+     */
+    public long getMenuVersion(String restaurantId) {
+        if (!StringUtils.hasText(restaurantId)) {
+            logger.error("Restaurant ID is null or empty");
+            throw new IllegalArgumentException("Restaurant ID cannot be null or empty");
+        }
+        return menuCache.currentVersion(restaurantId);
+    }
 }
\ No newline at end of file
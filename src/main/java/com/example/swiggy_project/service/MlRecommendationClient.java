@@ -0,0 +1,124 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.util.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client of the ML recommendation service. Calls go through a dedicated HTTP client with its own
+ * keep-alive connection pool and tight connect and read timeouts, behind a circuit breaker that
+ * stops calling the service for {@code ml.circuit-breaker.open-ms} after
+ * {@code ml.circuit-breaker.failure-threshold} consecutive failures.
+ */
+@Component
+public class MlRecommendationClient {
+    private static final Logger logger = LoggerFactory.getLogger(MlRecommendationClient.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ml.service.url:http://mock-ml-service/recommend}")
+    private String serviceUrl;
+
+    @Value("${ml.service.connect-timeout-ms:200}")
+    private long connectTimeoutMillis;
+
+    @Value("${ml.service.read-timeout-ms:300}")
+    private long readTimeoutMillis;
+
+    @Value("${ml.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${ml.circuit-breaker.open-ms:30000}")
+    private long openMillis;
+
+    private RestTemplate restTemplate;
+    private CircuitBreaker circuitBreaker;
+
+    @PostConstruct
+    void init() {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMillis));
+        restTemplate = new RestTemplate(requestFactory);
+        circuitBreaker = new CircuitBreaker("ml-recommendations", failureThreshold, Duration.ofMillis(openMillis));
+    }
+
+    /**
+     * Asks the ML service for recommended menu item IDs.
+     *
+     * @param favoriteCuisines the user's favorite cuisines
+     * @param orderHistory     the user's order IDs
+     * @return the recommended menu item IDs; empty if the service failed, timed out or the
+     *         circuit breaker is open
+     */
+    public List<String> recommend(List<String> favoriteCuisines, List<String> orderHistory) {
+        if (!circuitBreaker.tryAcquire()) {
+            meterRegistry.counter("ml.recommendations.calls", "result", "rejected").increment();
+            logger.debug("ML service circuit breaker is open; skipping call");
+            return Collections.emptyList();
+        }
+        long start = System.nanoTime();
+        try {
+            String[] response = restTemplate.postForObject(serviceUrl, new RecommendationRequest(favoriteCuisines, orderHistory), String[].class);
+            circuitBreaker.recordSuccess();
+            meterRegistry.counter("ml.recommendations.calls", "result", "success").increment();
+            return response != null ? Arrays.asList(response) : Collections.emptyList();
+        } catch (RuntimeException e) {
+            circuitBreaker.recordFailure();
+            meterRegistry.counter("ml.recommendations.calls", "result", "failure").increment();
+            logger.warn("ML service call failed: {}", e.getMessage());
+            return Collections.emptyList();
+        } finally {
+            meterRegistry.timer("ml.recommendations.latency").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    // DTO for ML service request
+    private static class RecommendationRequest {
+        private List<String> favoriteCuisines;
+        private List<String> orderHistory;
+
+        public RecommendationRequest(List<String> favoriteCuisines, List<String> orderHistory) {
+            this.favoriteCuisines = favoriteCuisines != null ? favoriteCuisines : Collections.emptyList();
+            this.orderHistory = orderHistory != null ? orderHistory : Collections.emptyList();
+        }
+
+        public List<String> getFavoriteCuisines() {
+            return favoriteCuisines;
+        }
+
+        public void setFavoriteCuisines(List<String> favoriteCuisines) {
+            this.favoriteCuisines = favoriteCuisines;
+        }
+
+        public List<String> getOrderHistory() {
+            return orderHistory;
+        }
+
+        public void setOrderHistory(List<String> orderHistory) {
+            this.orderHistory = orderHistory;
+        }
+    }
+}
\ No newline at end of file
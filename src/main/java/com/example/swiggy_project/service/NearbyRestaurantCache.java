@@ -0,0 +1,223 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.model.Restaurant;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived cache of nearby restaurant candidates shared by users in the same neighbourhood.
+ * <p>
+ * Searches are keyed by a quantized location cell, a rating bucket rounded down and a distance
+ * bucket rounded up, and each entry holds every restaurant that could match any search mapped
+ * to that key: the radius is widened by the cell's half-diagonal around the cell center. A hit
+ * is filtered and re-sorted by exact distance from the user. Entries expire after
+ * {@code restaurants.nearby-cache.ttl-ms} and are dropped as soon as a restaurant they cover,
+ * or used to cover, changes on this node.
+ */
+@Component
+public class NearbyRestaurantCache {
+    private static final Logger logger = LoggerFactory.getLogger(NearbyRestaurantCache.class);
+
+    // Distance buckets in kilometers; searches beyond the last one are not cached
+    private static final double[] DISTANCE_BUCKETS_KM = {1, 2, 3, 5, 10, 15, 20, 30, 50};
+    private static final double RATING_BUCKET = 0.5;
+    private static final double KM_PER_DEGREE_LATITUDE = 111.32;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${restaurants.nearby-cache.cell-degrees:0.01}")
+    private double cellDegrees;
+
+    @Value("${restaurants.nearby-cache.ttl-ms:60000}")
+    private long ttlMillis;
+
+    @Value("${restaurants.nearby-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${restaurants.nearby-cache.max-candidates:5000}")
+    private int maxCandidates;
+
+    private final Map<CellKey, CandidateSet> entries = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation so a load that raced with a restaurant write is not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Loads every restaurant within a radius with at least a minimum rating, nearest first.
+     */
+    @FunctionalInterface
+    public interface CandidateLoader {
+        List<Restaurant> load(double latitude, double longitude, double radiusKm, double minRating, int limit);
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        meterRegistry.gauge("restaurants.nearby.cache.entries", entries, Map::size);
+    }
+
+    /**
+     * Returns the nearest restaurants within a radius with at least a minimum rating, from the
+     * cached candidates of the search's cell when present, otherwise through the loader.
+     *
+     * @param latitude      latitude of the user
+     * @param longitude     longitude of the user
+     * @param maxDistanceKm the search radius in kilometers
+     * @param minRating     the minimum rating, inclusive
+     * @param limit         the maximum number of restaurants to return
+     * @param loader        loads candidates on a miss
+     * @return the matching restaurants, nearest first
+     */
+    public List<Restaurant> find(double latitude, double longitude, double maxDistanceKm, double minRating, int limit,
+                                 CandidateLoader loader) {
+        double distanceBucket = distanceBucket(maxDistanceKm);
+        if (distanceBucket < 0) {
+            meterRegistry.counter("restaurants.nearby.cache.requests", "result", "bypass").increment();
+            return loader.load(latitude, longitude, maxDistanceKm, minRating, limit);
+        }
+        CellKey key = new CellKey((int) Math.floor((latitude + 90) / cellDegrees), (int) Math.floor((longitude + 180) / cellDegrees),
+                Math.floor(minRating / RATING_BUCKET) * RATING_BUCKET, distanceBucket);
+        CandidateSet candidates = entries.get(key);
+        if (candidates != null && !candidates.isExpired(ttlMillis)) {
+            meterRegistry.counter("restaurants.nearby.cache.requests", "result", "hit").increment();
+            return candidates.select(latitude, longitude, maxDistanceKm, minRating, limit);
+        }
+        meterRegistry.counter("restaurants.nearby.cache.requests", "result", "miss").increment();
+
+        long generation = invalidations.get();
+        double centerLatitude = (key.latitudeCell + 0.5) * cellDegrees - 90;
+        double centerLongitude = (key.longitudeCell + 0.5) * cellDegrees - 180;
+        double radiusKm = key.distanceBucket + halfDiagonalKm(centerLatitude);
+        // One extra so a truncated candidate set can be recognized and left uncached
+        List<Restaurant> loaded = loader.load(centerLatitude, centerLongitude, radiusKm, key.ratingBucket, maxCandidates + 1);
+        if (loaded.size() > maxCandidates) {
+            logger.debug("Not caching nearby search for cell {}: more than {} candidates", key, maxCandidates);
+            return loader.load(latitude, longitude, maxDistanceKm, minRating, limit);
+        }
+        candidates = new CandidateSet(centerLatitude, centerLongitude, radiusKm, loaded);
+        if (invalidations.get() == generation && (entries.size() < maxEntries || entries.containsKey(key))) {
+            entries.put(key, candidates);
+        }
+        return candidates.select(latitude, longitude, maxDistanceKm, minRating, limit);
+    }
+
+    /**
+     * Drops every entry that holds the restaurant or whose search area contains its location.
+     *
+     * @param restaurantId the ID of the restaurant that changed
+     * @param location     its current location as [longitude, latitude], or null if unknown
+     */
+    public void invalidate(String restaurantId, double[] location) {
+        invalidations.incrementAndGet();
+        boolean located = location != null && location.length == 2;
+        entries.values().removeIf(candidates -> candidates.contains(restaurantId)
+                || !located || candidates.covers(location[1], location[0]));
+    }
+
+    @Scheduled(fixedDelayString = "${restaurants.nearby-cache.ttl-ms:60000}")
+    public void evictExpired() {
+        entries.values().removeIf(candidates -> candidates.isExpired(ttlMillis));
+    }
+
+    // Smallest bucket at least as large as the distance, or -1 when the distance is beyond the largest
+    private static double distanceBucket(double maxDistanceKm) {
+        for (double bucket : DISTANCE_BUCKETS_KM) {
+            if (maxDistanceKm <= bucket) {
+                return bucket;
+            }
+        }
+        return -1;
+    }
+
+    private double halfDiagonalKm(double latitude) {
+        double heightKm = cellDegrees * KM_PER_DEGREE_LATITUDE;
+        // Widest at the edge of the cell nearer the equator
+        double widthKm = heightKm * Math.cos(Math.toRadians(Math.max(Math.abs(latitude) - cellDegrees / 2, 0)));
+        return Math.sqrt(heightKm * heightKm + widthKm * widthKm) / 2;
+    }
+
+    private record CellKey(int latitudeCell, int longitudeCell, double ratingBucket, double distanceBucket) {}
+
+    private static final class CandidateSet {
+        final long createdAt = System.currentTimeMillis();
+        final double centerLatitude;
+        final double centerLongitude;
+        final double radiusKm;
+        final Restaurant[] restaurants;
+        final double[] latitudes;
+        final double[] longitudes;
+
+        CandidateSet(double centerLatitude, double centerLongitude, double radiusKm, List<Restaurant> candidates) {
+            this.centerLatitude = centerLatitude;
+            this.centerLongitude = centerLongitude;
+            this.radiusKm = radiusKm;
+            List<Restaurant> located = candidates.stream()
+                    .filter(restaurant -> restaurant.getLocation() != null && restaurant.getLocation().length == 2)
+                    .toList();
+            this.restaurants = located.toArray(new Restaurant[0]);
+            this.latitudes = new double[restaurants.length];
+            this.longitudes = new double[restaurants.length];
+            for (int i = 0; i < restaurants.length; i++) {
+                latitudes[i] = restaurants[i].getLocation()[1];
+                longitudes[i] = restaurants[i].getLocation()[0];
+            }
+        }
+
+        boolean isExpired(long ttlMillis) {
+            return System.currentTimeMillis() - createdAt > ttlMillis;
+        }
+
+        boolean contains(String restaurantId) {
+            for (Restaurant restaurant : restaurants) {
+                if (Objects.equals(restaurant.getId(), restaurantId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean covers(double latitude, double longitude) {
+            return RestaurantGeoIndex.distanceKm(centerLatitude, centerLongitude, latitude, longitude) <= radiusKm;
+        }
+
+        List<Restaurant> select(double latitude, double longitude, double maxDistanceKm, double minRating, int limit) {
+            List<Restaurant> matches = new ArrayList<>();
+            List<Double> distances = new ArrayList<>();
+            for (int i = 0; i < restaurants.length; i++) {
+                if (restaurants[i].getRating() < minRating) {
+                    continue;
+                }
+                double distanceKm = RestaurantGeoIndex.distanceKm(latitude, longitude, latitudes[i], longitudes[i]);
+                if (distanceKm <= maxDistanceKm) {
+                    matches.add(restaurants[i]);
+                    distances.add(distanceKm);
+                }
+            }
+            Integer[] order = new Integer[matches.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingDouble(distances::get));
+            List<Restaurant> nearest = new ArrayList<>(Math.min(limit, order.length));
+            for (int i = 0; i < order.length && i < limit; i++) {
+                nearest.add(matches.get(order[i]));
+            }
+            return nearest;
+        }
+    }
+}
\ No newline at end of file
@@ -4,14 +4,24 @@ import com.example.swiggy_project.exception.ResourceNotFoundException;
 import com.example.swiggy_project.model.*;
 import com.example.swiggy_project.repository.OrderRepository;
 import com.example.swiggy_project.repository.UserRepository;
+import com.example.swiggy_project.util.OptimisticRetryTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import jakarta.validation.Valid;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 @Service
@@ -36,8 +46,23 @@ public class OrderService {
     @Autowired
     private OrderTrackingService orderTrackingService;
 
+    @Autowired
+    private OptimisticRetryTemplate optimisticRetryTemplate;
+
+    @Autowired
+    private RestaurantRankingEngine restaurantRankingEngine;
+
+    @Autowired
+    private PopularMenuItemIndex popularMenuItemIndex;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     private static final List<String> ASSIGNABLE_STATUSES = Arrays.asList("PLACED", "PREPARING");
 
+    // Statuses in which the kitchen is done with an order
+    private static final List<String> PREPARED_STATUSES = Arrays.asList("PACKED", "DISPATCHED", "DELIVERED");
+
     private static final List<String> VALID_STATUSES = Arrays.asList(
             "PLACED", "PREPARING", "COOKING", "PACKED", "DISPATCHED", "DELIVERED", "CANCELLED"
     );
@@ -62,6 +87,19 @@ public class OrderService {
             throw new IllegalStateException("Cart is empty for user ID: " + userId);
         }
 
+        // Revalidate every line with one query before anything is written
+        Map<String, MenuItem> menuItems = menuItemService.getMenuItemsByIds(
+                cart.getItems().stream().map(Cart.CartItem::getMenuItemId).collect(Collectors.toList()));
+        CheckoutValidation validation = cartService.checkCart(cart, restaurantId, menuItems, user.getLocation());
+        if (!validation.isServiceable()) {
+            logger.warn("Restaurant ID: {} does not deliver to the location of user ID: {}", restaurantId, userId);
+            throw new IllegalStateException("Restaurant " + restaurantId + " does not deliver to the user's location");
+        }
+        if (!validation.isOrderable()) {
+            logger.warn("Cart for user ID: {} has items that cannot be ordered from restaurant ID: {}", userId, restaurantId);
+            throw new IllegalStateException("Cart has items that are unavailable or not from restaurant " + restaurantId);
+        }
+
         // Create a new order
         Order order = new Order();
         order.setUserId(userId);
@@ -69,13 +107,14 @@ public class OrderService {
         order.setDeliveryAddress(deliveryAddress);
         order.setStatus("PLACED");
 
-        // Populate order items from cart
+        // Populate order items from cart at current prices
+        Map<String, Integer> quantities = new HashMap<>();
+        Map<String, Long> dietaryQuantities = new HashMap<>();
         List<Order.OrderItem> orderItems = cart.getItems().stream().map(cartItem -> {
-            MenuItem menuItem = menuItemService.getMenuItemById(cartItem.getMenuItemId());
-            // Increment the number of times ordered
-            menuItem.setNumberOfTimesOrdered(menuItem.getNumberOfTimesOrdered() + cartItem.getQuantity());
-            menuItemService.updateMenuItem(menuItem);
-            return new Order.OrderItem(menuItem.getName(), menuItem.getPrice(), cartItem.getQuantity());
+            MenuItem menuItem = menuItems.get(cartItem.getMenuItemId());
+            quantities.merge(menuItem.getId(), cartItem.getQuantity(), Integer::sum);
+            dietaryQuantities.merge(String.valueOf(menuItem.getVegOrNonVeg()), (long) cartItem.getQuantity(), Long::sum);
+            return new Order.OrderItem(menuItem.getId(), menuItem.getName(), menuItem.getPrice(), cartItem.getQuantity());
         }).collect(Collectors.toList());
         order.setItems(orderItems);
 
@@ -88,14 +127,19 @@ public class OrderService {
         // Save the order
         Order savedOrder = orderRepository.save(order);
 
-        // Add order to user's order history
-        List<String> orderHistory = user.getOrderHistory();
-        orderHistory.add(savedOrder.getId());
-        user.setOrderHistory(orderHistory);
-        userRepository.save(user);
+        // Increment the number of times ordered in one bulk write
+        menuItemService.incrementTimesOrdered(quantities);
+        popularMenuItemIndex.recordOrders(menuItems, quantities);
+        restaurantRankingEngine.orderPlaced(restaurantId);
+
+        // Add order to user's order history and update the dietary profile in one atomic write
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(userId)), new Update()
+                .push("orderHistory", savedOrder.getId())
+                .inc("vegItemsOrdered", dietaryQuantities.getOrDefault("VEG", 0L))
+                .inc("nonVegItemsOrdered", dietaryQuantities.getOrDefault("NON_VEG", 0L)), User.class);
 
-        // Clear the cart after placing the order
-        cartService.clearCart(userId);
+        // Clear the ordered items against the cart version read above, so items added meanwhile survive
+        cartService.clearOrderedItems(cart);
 
         logger.info("Order placed successfully with ID: {}", savedOrder.getId());
         return savedOrder;
@@ -106,10 +150,15 @@ public class OrderService {
             logger.warn("Invalid status: {}. Valid statuses are: {}", status, VALID_STATUSES);
             throw new IllegalArgumentException("Invalid status: " + status + ". Valid statuses are: " + VALID_STATUSES);
         }
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderId));
-        order.setStatus(status);
-        Order savedOrder = orderRepository.save(order);
+        AtomicReference<String> previousStatus = new AtomicReference<>();
+        Order savedOrder = optimisticRetryTemplate.execute("order", () -> {
+            Order order = loadOrderForUpdate(orderId);
+            previousStatus.set(order.getStatus());
+            order.setStatus(status);
+            markPrepared(order);
+            return orderRepository.save(order);
+        });
+        recordKitchenTransition(savedOrder, previousStatus.get());
         // Send WebSocket update
         orderTrackingService.sendOrderStatusUpdate(orderId, status);
         logger.info("Order status updated to {} for order ID: {}", status, orderId);
@@ -148,17 +197,23 @@ public class OrderService {
             throw new IllegalArgumentException("User with id " + deliveryBoyId + " is not a delivery boy");
         }
 
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderId));
-
-        if (!ASSIGNABLE_STATUSES.contains(order.getStatus())) {
-            logger.warn("Order with ID: {} is not in an assignable state. Current status: {}", orderId, order.getStatus());
-            throw new IllegalStateException("Order with id " + orderId + " is not in an assignable state. Current status: " + order.getStatus());
-        }
-
-        order.setDeliveryBoyId(deliveryBoyId);
-        order.setStatus("DISPATCHED");
-        Order savedOrder = orderRepository.save(order);
+        // The status check is repeated on every attempt so a conflicting update cannot slip past it
+        AtomicReference<String> previousStatus = new AtomicReference<>();
+        Order savedOrder = optimisticRetryTemplate.execute("order", () -> {
+            Order order = loadOrderForUpdate(orderId);
+
+            if (!ASSIGNABLE_STATUSES.contains(order.getStatus())) {
+                logger.warn("Order with ID: {} is not in an assignable state. Current status: {}", orderId, order.getStatus());
+                throw new IllegalStateException("Order with id " + orderId + " is not in an assignable state. Current status: " + order.getStatus());
+            }
+
+            previousStatus.set(order.getStatus());
+            order.setDeliveryBoyId(deliveryBoyId);
+            order.setStatus("DISPATCHED");
+            markPrepared(order);
+            return orderRepository.save(order);
+        });
+        recordKitchenTransition(savedOrder, previousStatus.get());
         logger.info("Delivery assigned successfully for order ID: {}", orderId);
         return savedOrder;
     }
@@ -237,4 +292,33 @@ public class OrderService {
         logger.info("Found {} deliveries for delivery boy ID: {}", deliveries.size(), deliveryBoyId);
         return deliveries;
     }
+
+    // Stamps the first time an order leaves the kitchen ready to go
+    private static void markPrepared(Order order) {
+        if (order.getPreparedAt() == null && PREPARED_STATUSES.contains(order.getStatus())) {
+            order.setPreparedAt(Instant.now());
+        }
+    }
+
+    private void recordKitchenTransition(Order order, String previousStatus) {
+        restaurantRankingEngine.orderStatusChanged(order.getRestaurantId(), previousStatus, order.getStatus());
+        if (!PREPARED_STATUSES.contains(previousStatus) && PREPARED_STATUSES.contains(order.getStatus())
+                && order.getPlacedAt() != null && order.getPreparedAt() != null) {
+            restaurantRankingEngine.orderPrepared(order.getRestaurantId(), Duration.between(order.getPlacedAt(), order.getPreparedAt()));
+        }
+    }
+
+    /**
+     * Loads an order that is about to be modified, stamping orders written before
+     * versioning was introduced so that they are saved as updates rather than re-inserted.
+     */
+    private Order loadOrderForUpdate(String orderId) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderId));
+        if (order.getVersion() == null) {
+            optimisticRetryTemplate.adoptUnversioned(Order.class, orderId);
+            order.setVersion(0L);
+        }
+        return order;
+    }
 }
\ No newline at end of file
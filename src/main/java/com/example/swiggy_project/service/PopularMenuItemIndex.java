@@ -0,0 +1,317 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.model.MenuItem;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The most popular menu items of every cuisine, ranked by order count, then rating.
+ * <p>
+ * Each cuisine keeps a small sorted list of {@code menu.popularity.top-k} items plus as many
+ * again as slack, so items dropping out of the top K can be replaced without a query. Order
+ * placements, reviews and menu item writes on this node update the lists directly, and every
+ * list is reloaded from MongoDB every {@code menu.popularity.rebuild-interval-ms} to pick up
+ * writes from other nodes and items that climbed from outside the slack. Only cuisines that
+ * exist on some menu item are tracked; lookups of any other cuisine never reach MongoDB.
+ */
+@Component
+public class PopularMenuItemIndex {
+    private static final Logger logger = LoggerFactory.getLogger(PopularMenuItemIndex.class);
+
+    // Most orders first, then best rated, then by ID so the order is total
+    private static final Comparator<Entry> RANKING = Comparator.comparingLong(Entry::orders).reversed()
+            .thenComparing(Comparator.comparingDouble(Entry::rating).reversed())
+            .thenComparing(Entry::menuItemId);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${menu.popularity.top-k:50}")
+    private int topK;
+
+    private final Map<String, TopItems> cuisines = new ConcurrentHashMap<>();
+
+    // The cuisine list each tracked menu item currently sits in, so a cuisine change can move it
+    private final Map<String, String> cuisineOfItem = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void registerMetrics() {
+        meterRegistry.gauge("menu.popularity.cuisines", cuisines, Map::size);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildAtStartup() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${menu.popularity.rebuild-interval-ms:600000}", initialDelayString = "${menu.popularity.rebuild-interval-ms:600000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Reloads the top items of every cuisine, one indexed query per cuisine. Failures are logged
+     * and leave the current lists in place.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        try {
+            List<String> cuisineTypes = mongoTemplate.findDistinct(new Query(), "cuisineType", MenuItem.class, String.class);
+            for (String cuisineType : cuisineTypes) {
+                if (cuisineType != null) {
+                    reload(cuisineType);
+                }
+            }
+            // Cuisines no menu item uses any more
+            cuisines.keySet().retainAll(new HashSet<>(cuisineTypes));
+            long elapsed = System.nanoTime() - start;
+            meterRegistry.timer("menu.popularity.rebuild").record(elapsed, TimeUnit.NANOSECONDS);
+            logger.info("Rebuilt popular menu items of {} cuisines in {} ms", cuisineTypes.size(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        } catch (Exception e) {
+            logger.warn("Failed to rebuild popular menu items: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Records newly placed order lines. Counts are taken from the menu items as read before
+     * the order, plus the ordered quantity.
+     *
+     * @param menuItems  the ordered menu items keyed by ID
+     * @param quantities the quantity ordered, keyed by menu item ID
+     */
+    public void recordOrders(Map<String, MenuItem> menuItems, Map<String, Integer> quantities) {
+        quantities.forEach((id, quantity) -> {
+            MenuItem menuItem = menuItems.get(id);
+            if (menuItem != null) {
+                update(menuItem, (long) menuItem.getNumberOfTimesOrdered() + quantity);
+            }
+        });
+    }
+
+    /**
+     * Reloads the given cuisines from MongoDB, for writes that bypass {@link #update(MenuItem)}
+     * such as bulk imports. Failures are logged and leave the current lists in place.
+     *
+     * @param cuisineTypes the cuisines whose menu items were written
+     */
+    public void reload(Collection<String> cuisineTypes) {
+        for (String cuisineType : new HashSet<>(cuisineTypes)) {
+            if (cuisineType == null) {
+                continue;
+            }
+            try {
+                reload(cuisineType);
+            } catch (Exception e) {
+                logger.warn("Failed to reload popular menu items for cuisine: {}: {}", cuisineType, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Records the current state of a menu item after it was created, edited or reviewed.
+     */
+    public void update(MenuItem menuItem) {
+        if (menuItem != null) {
+            update(menuItem, menuItem.getNumberOfTimesOrdered());
+        }
+    }
+
+    /**
+     * Returns the most popular menu items across the given cuisines.
+     *
+     * @param cuisineTypes the cuisines to draw from
+     * @param limit        the maximum number of IDs, capped at {@code menu.popularity.top-k}
+     * @return menu item IDs, most popular first
+     */
+    public List<String> topItemIds(Collection<String> cuisineTypes, int limit) {
+        int size = Math.min(limit, topK);
+        if (size <= 0 || cuisineTypes == null || cuisineTypes.isEmpty()) {
+            return List.of();
+        }
+        // K-way merge of the per-cuisine lists, which are already sorted
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Comparator.comparing(Cursor::head, RANKING));
+        for (String cuisineType : new LinkedHashSet<>(cuisineTypes)) {
+            if (cuisineType == null) {
+                continue;
+            }
+            TopItems items = cuisines.get(cuisineType);
+            if (items == null) {
+                continue; // No menu item of this cuisine, or not loaded yet
+            }
+            Entry[] entries = items.snapshot;
+            if (entries.length > 0) {
+                heads.add(new Cursor(entries));
+            }
+        }
+        // A set, as an item whose cuisine changed on another node sits in two lists until the next rebuild
+        LinkedHashSet<String> ids = new LinkedHashSet<>();
+        while (ids.size() < size && !heads.isEmpty()) {
+            Cursor cursor = heads.poll();
+            ids.add(cursor.head().menuItemId());
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return List.copyOf(ids);
+    }
+
+    private void update(MenuItem menuItem, long orders) {
+        String id = menuItem.getId();
+        String cuisineType = menuItem.getCuisineType();
+        if (id == null || cuisineType == null) {
+            return;
+        }
+        String previousCuisine = cuisineOfItem.get(id);
+        if (previousCuisine != null && !previousCuisine.equals(cuisineType)) {
+            TopItems previous = cuisines.get(previousCuisine);
+            if (previous != null) {
+                previous.remove(id);
+            }
+        }
+        // A cuisine first seen here starts with this item; the next rebuild fills in the rest
+        cuisines.computeIfAbsent(cuisineType, TopItems::new).offer(new Entry(id, orders, menuItem.getRating()));
+    }
+
+    private void reload(String cuisineType) {
+        Query query = new Query(Criteria.where("cuisineType").is(cuisineType))
+                .with(Sort.by(Sort.Order.desc("numberOfTimesOrdered"), Sort.Order.desc("rating"), Sort.Order.asc("_id")))
+                .limit(capacity());
+        query.fields().include("cuisineType", "numberOfTimesOrdered", "rating");
+        List<Entry> loaded = mongoTemplate.find(query, MenuItem.class).stream()
+                .map(item -> new Entry(item.getId(), item.getNumberOfTimesOrdered(), item.getRating()))
+                .toList();
+        if (loaded.isEmpty()) {
+            cuisines.remove(cuisineType);
+            return;
+        }
+        cuisines.computeIfAbsent(cuisineType, TopItems::new).replace(loaded);
+    }
+
+    private int capacity() {
+        return topK * 2;
+    }
+
+    private record Entry(String menuItemId, long orders, double rating) {}
+
+    private static final class Cursor {
+        private final Entry[] entries;
+        private int position;
+
+        Cursor(Entry[] entries) {
+            this.entries = entries;
+        }
+
+        Entry head() {
+            return entries[position];
+        }
+
+        boolean advance() {
+            return ++position < entries.length;
+        }
+    }
+
+    // The ranked items of one cuisine; written under its monitor, read lock-free through the snapshot
+    private final class TopItems {
+        private final String cuisineType;
+        private final List<Entry> entries = new ArrayList<>();
+        private volatile Entry[] snapshot = new Entry[0];
+
+        TopItems(String cuisineType) {
+            this.cuisineType = cuisineType;
+        }
+
+        synchronized void offer(Entry entry) {
+            int existing = indexOf(entry.menuItemId());
+            if (existing >= 0) {
+                // Concurrent orders may report the same count twice; never move a count backwards
+                Entry current = entries.remove(existing);
+                entry = new Entry(entry.menuItemId(), Math.max(current.orders(), entry.orders()), entry.rating());
+            } else if (entries.size() >= capacity() && RANKING.compare(entry, entries.get(entries.size() - 1)) >= 0) {
+                return; // Not popular enough to track
+            }
+            insert(entry);
+            while (entries.size() > capacity()) {
+                evicted(entries.remove(entries.size() - 1));
+            }
+            publish();
+        }
+
+        synchronized void remove(String menuItemId) {
+            int existing = indexOf(menuItemId);
+            if (existing >= 0) {
+                evicted(entries.remove(existing));
+                publish();
+            }
+        }
+
+        // Takes the freshly loaded list, keeping any higher order count recorded while it loaded
+        synchronized void replace(List<Entry> loaded) {
+            Map<String, Entry> current = new HashMap<>();
+            entries.forEach(entry -> current.put(entry.menuItemId(), entry));
+            entries.clear();
+            for (Entry entry : loaded) {
+                Entry recorded = current.remove(entry.menuItemId());
+                insert(recorded != null && recorded.orders() > entry.orders()
+                        ? new Entry(entry.menuItemId(), recorded.orders(), entry.rating())
+                        : entry);
+            }
+            current.values().forEach(this::evicted);
+            publish();
+        }
+
+        private int indexOf(String menuItemId) {
+            for (int i = 0; i < entries.size(); i++) {
+                if (entries.get(i).menuItemId().equals(menuItemId)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void insert(Entry entry) {
+            int position = 0;
+            while (position < entries.size() && RANKING.compare(entries.get(position), entry) < 0) {
+                position++;
+            }
+            entries.add(position, entry);
+            cuisineOfItem.put(entry.menuItemId(), cuisineType);
+        }
+
+        private void evicted(Entry entry) {
+            cuisineOfItem.remove(entry.menuItemId(), cuisineType);
+        }
+
+        private void publish() {
+            snapshot = entries.subList(0, Math.min(entries.size(), topK)).toArray(new Entry[0]);
+        }
+    }
+}
\ No newline at end of file
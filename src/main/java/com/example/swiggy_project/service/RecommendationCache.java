@@ -0,0 +1,241 @@
+package com.example.swiggy_project.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier cache of recommended menu item IDs: a small in-process near-cache in front of Redis.
+ * <p>
+ * Near-cache entries live for {@code recommendations.cache.local-ttl-ms}, so repeat requests on
+ * one node skip Redis. On a miss in both tiers, concurrent requests for the same key share one
+ * computation. Entries are also refreshed early with probability rising towards their Redis
+ * expiry, scaled by how long they took to compute (XFetch), so one request recomputes a hot key
+ * in the background before it expires instead of all of them recomputing after.
+ * <p>
+ * Evictions delete the Redis entry and are published on {@link #EVICTION_CHANNEL}, so every node
+ * drops its near-cache copy. A node that misses the message serves its copy until the local TTL.
+ */
+@Component
+public class RecommendationCache {
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationCache.class);
+
+    // Fields of the Redis hash holding one entry
+    private static final String MENU_ITEM_IDS = "menuItemIds";
+    private static final String COMPUTE_MILLIS = "computeMillis";
+    private static final String EXPIRES_AT = "expiresAt";
+
+    public static final String EVICTION_CHANNEL = "recommendation-cache-eviction";
+
+    @Autowired
+    private RedisTemplate<String, List<String>> redisTemplate;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${recommendations.cache.ttl-ms:3600000}")
+    private long ttlMillis;
+
+    @Value("${recommendations.cache.local-ttl-ms:30000}")
+    private long localTtlMillis;
+
+    @Value("${recommendations.cache.local-max-entries:10000}")
+    private int localMaxEntries;
+
+    @Value("${recommendations.cache.early-refresh-beta:1.0}")
+    private double earlyRefreshBeta;
+
+    private final Map<String, Entry> localEntries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<List<String>>> inFlight = new ConcurrentHashMap<>();
+
+    // Early refreshes are optional; when the queue is full they are dropped and the entry simply expires
+    private final ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(100), runnable -> {
+                Thread thread = new Thread(runnable, "recommendation-cache-refresh");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
+    @PostConstruct
+    void registerMetrics() {
+        meterRegistry.gauge("recommendations.cache.local.entries", localEntries, Map::size);
+    }
+
+    /**
+     * Returns the cached menu item IDs for a key, computing them on a miss. Empty results are
+     * returned but not cached.
+     *
+     * @param key    the cache key
+     * @param loader computes the menu item IDs
+     * @return the menu item IDs
+     */
+    public List<String> get(String key, Supplier<List<String>> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = localEntries.get(key);
+        if (entry != null && entry.localExpiresAt > now) {
+            meterRegistry.counter("recommendations.cache.requests", "result", "local-hit").increment();
+        } else {
+            entry = readRedis(key, now);
+            if (entry == null) {
+                meterRegistry.counter("recommendations.cache.requests", "result", "miss").increment();
+                try {
+                    return load(key, loader).join();
+                } catch (CompletionException e) {
+                    throw e.getCause() instanceof RuntimeException cause ? cause : e;
+                }
+            }
+            meterRegistry.counter("recommendations.cache.requests", "result", "redis-hit").increment();
+            putLocal(key, entry);
+        }
+        if (shouldRefreshEarly(key, entry, now)) {
+            meterRegistry.counter("recommendations.cache.requests", "result", "early-refresh").increment();
+            logger.debug("Refreshing recommendations early for cache key: {}", key);
+            refreshExecutor.execute(() -> load(key, loader));
+        }
+        return entry.menuItemIds;
+    }
+
+    /**
+     * Drops a key from Redis and from the near-cache of every node.
+     */
+    public void evict(String key) {
+        localEntries.remove(key);
+        try {
+            redisTemplate.delete(key);
+            stringRedisTemplate.convertAndSend(EVICTION_CHANNEL, key);
+        } catch (DataAccessException e) {
+            logger.warn("Failed to evict cached recommendations for key: {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Handles evictions published by any node, including this one.
+     */
+    public void onEvictionMessage(String key) {
+        localEntries.remove(key);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${recommendations.cache.local-ttl-ms:30000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        localEntries.values().removeIf(entry -> entry.localExpiresAt <= now);
+    }
+
+    // Single flight: the first caller computes, later callers for the same key wait for its result
+    private CompletableFuture<List<String>> load(String key, Supplier<List<String>> loader) {
+        CompletableFuture<List<String>> flight = new CompletableFuture<>();
+        CompletableFuture<List<String>> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            meterRegistry.counter("recommendations.cache.requests", "result", "shared").increment();
+            return existing;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            List<String> menuItemIds = loader.get();
+            long computeMillis = System.currentTimeMillis() - start;
+            if (!menuItemIds.isEmpty()) {
+                store(key, new Entry(List.copyOf(menuItemIds), computeMillis, start + computeMillis + ttlMillis, 0));
+            }
+            flight.complete(menuItemIds);
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, flight);
+        }
+        return flight;
+    }
+
+    // XFetch: refresh once now - computeMillis * beta * ln(random) reaches the expiry
+    private boolean shouldRefreshEarly(String key, Entry entry, long now) {
+        double gap = -entry.computeMillis * earlyRefreshBeta * Math.log(1.0 - ThreadLocalRandom.current().nextDouble());
+        return now + gap >= entry.expiresAt && !inFlight.containsKey(key);
+    }
+
+    private Entry readRedis(String key, long now) {
+        try {
+            Map<Object, Object> fields = redisTemplate.opsForHash().entries(key);
+            if (fields.isEmpty() || !(fields.get(MENU_ITEM_IDS) instanceof List<?> ids)) {
+                return null;
+            }
+            long expiresAt = ((Number) fields.get(EXPIRES_AT)).longValue();
+            if (expiresAt <= now) {
+                return null;
+            }
+            List<String> menuItemIds = ids.stream().map(String::valueOf).toList();
+            return new Entry(menuItemIds, ((Number) fields.get(COMPUTE_MILLIS)).longValue(), expiresAt, 0);
+        } catch (DataAccessException e) {
+            logger.warn("Failed to read cached recommendations for key: {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void store(String key, Entry entry) {
+        putLocal(key, entry);
+        try {
+            redisTemplate.execute(new SessionCallback<List<Object>>() {
+                @Override
+                public <K, V> List<Object> execute(RedisOperations<K, V> operations) {
+                    // The operations are those of redisTemplate itself
+                    @SuppressWarnings("unchecked")
+                    RedisOperations<String, List<String>> typed = (RedisOperations<String, List<String>>) operations;
+                    // Fields and expiry in one transaction, so the hash can never outlive its TTL
+                    typed.multi();
+                    typed.opsForHash().putAll(key, Map.of(
+                            MENU_ITEM_IDS, new ArrayList<>(entry.menuItemIds), // Immutable lists cannot be read back by Jackson
+                            COMPUTE_MILLIS, entry.computeMillis,
+                            EXPIRES_AT, entry.expiresAt));
+                    typed.expire(key, ttlMillis, TimeUnit.MILLISECONDS);
+                    return typed.exec();
+                }
+            });
+            logger.info("Cached recommendations with cache key: {}", key);
+        } catch (DataAccessException e) {
+            logger.warn("Failed to cache recommendations for key: {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void putLocal(String key, Entry entry) {
+        Entry local = entry.withLocalExpiry(Math.min(System.currentTimeMillis() + localTtlMillis, entry.expiresAt));
+        if (localEntries.size() < localMaxEntries || localEntries.containsKey(key)) {
+            localEntries.put(key, local);
+        }
+    }
+
+    // expiresAt is the Redis expiry, localExpiresAt when this node must re-read Redis
+    private record Entry(List<String> menuItemIds, long computeMillis, long expiresAt, long localExpiresAt) {
+        Entry withLocalExpiry(long localExpiresAt) {
+            return new Entry(menuItemIds, computeMillis, expiresAt, localExpiresAt);
+        }
+    }
+}
\ No newline at end of file
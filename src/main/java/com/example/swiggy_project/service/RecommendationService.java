@@ -2,20 +2,38 @@ package com.example.swiggy_project.service;
 
 import com.example.swiggy_project.exception.ResourceNotFoundException;
 import com.example.swiggy_project.model.MenuItem;
+import com.example.swiggy_project.model.Order;
 import com.example.swiggy_project.model.User;
 import com.example.swiggy_project.repository.MenuItemRepository;
 import com.example.swiggy_project.repository.UserRepository;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.data.redis.RedisConnectionFailureException;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,13 +50,40 @@ public class RecommendationService {
     private MenuItemRepository menuItemRepository;
 
     @Autowired
-    private RedisTemplate<String, List<String>> redisTemplate;
+    private RecommendationCache recommendationCache;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private MlRecommendationClient mlRecommendationClient;
 
-    private static final String ML_SERVICE_URL = "http://mock-ml-service/recommend";
-    private static final long CACHE_EXPIRY_HOURS = 1;
+    @Autowired
+    private PopularMenuItemIndex popularMenuItemIndex;
+
+    @Autowired
+    private MenuItemCooccurrenceIndex menuItemCooccurrenceIndex;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ml.hedge-delay-ms:150}")
+    private long hedgeDelayMillis;
+
+    @Value("${ml.latency-budget-ms:400}")
+    private long latencyBudgetMillis;
+
+    // Separate bounded pools, so local recommendations never queue behind ML calls stuck until their timeout
+    private final ThreadPoolExecutor mlExecutor = boundedPool("recommendations-ml");
+    private final ThreadPoolExecutor localExecutor = boundedPool("recommendations-local");
+    private final ScheduledExecutorService hedgeTimer = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("recommendations-hedge"));
+
+    private static final int POOL_THREADS = 8;
+    private static final int POOL_QUEUE_CAPACITY = 64;
+    private static final long MIN_ITEMS_FOR_DIETARY_PREFERENCE = 5;
+    private static final int MAX_CUISINE_CANDIDATES = 50;
+    private static final int MAX_ALSO_ORDERED_CANDIDATES = 20;
+    private static final int RECENT_ORDERS_FOR_ALSO_ORDERED = 3;
 
     public List<MenuItem> getRecommendations(String userId) {
         logger.info("Generating recommendations for user ID: {}", userId);
@@ -52,57 +97,88 @@ public class RecommendationService {
 
         // Generate cache key based on user ID and preferences (to refresh cache if preferences change)
         String cacheKey = generateCacheKey(userId, user.getFavoriteCuisines());
-        List<String> cachedMenuItemIds = redisTemplate.opsForValue().get(cacheKey);
 
-        // Return cached recommendations if available
-        if (cachedMenuItemIds != null && !cachedMenuItemIds.isEmpty()) {
-            logger.info("Returning cached recommendations for user ID: {}", userId);
-            return fetchMenuItems(cachedMenuItemIds);
-        }
-
-        // Fetch recommendations
-        List<String> recommendedMenuItemIds = getRecommendedMenuItemIds(user);
-
-        // Cache the recommendations
-        if (!recommendedMenuItemIds.isEmpty()) {
-            redisTemplate.opsForValue().set(cacheKey, recommendedMenuItemIds, CACHE_EXPIRY_HOURS, TimeUnit.HOURS);
-            logger.info("Cached recommendations for user ID: {} with cache key: {}", userId, cacheKey);
-        } else {
-            logger.warn("No recommendations generated for user ID: {}", userId);
+        // Served from the near-cache or Redis; concurrent misses for the key share one computation
+        List<String> recommendedMenuItemIds = recommendationCache.get(cacheKey, () -> getRecommendedMenuItemIds(user));
+        if (recommendedMenuItemIds.isEmpty()) {
+            // Nothing within the latency budget; serve popular items without caching them
+            logger.warn("No recommendations generated for user ID: {}; falling back to popular items", userId);
+            meterRegistry.counter("recommendations.source", "source", "popular").increment();
+            recommendedMenuItemIds = popularMenuItemIndex.topItemIds(user.getFavoriteCuisines(), MAX_CUISINE_CANDIDATES);
         }
 
         return fetchMenuItems(recommendedMenuItemIds);
     }
 
+    /**
+     * Races the ML service against the local recommendation logic. The ML call starts at once;
+     * the local path starts when the ML call fails, or after {@code ml.hedge-delay-ms} if it has
+     * not answered by then. The first path to answer within {@code ml.latency-budget-ms} wins.
+     * If neither does, or both fail, the result is empty and the caller degrades.
+     */
     private List<String> getRecommendedMenuItemIds(User user) {
-        // Try ML service first
-        List<String> recommendedMenuItemIds = fetchFromMLService(user);
-        if (recommendedMenuItemIds != null && !recommendedMenuItemIds.isEmpty()) {
-            logger.info("Successfully fetched recommendations from ML service for user ID: {}", user.getId());
-            return filterByUserPreferences(user, recommendedMenuItemIds);
-        }
+        CompletableFuture<Candidates> winner = new CompletableFuture<>();
+        AtomicBoolean localStarted = new AtomicBoolean();
+        Runnable startLocal = () -> {
+            if (localStarted.compareAndSet(false, true)) {
+                try {
+                    CompletableFuture.supplyAsync(() -> generateLocalRecommendations(user), localExecutor)
+                            .whenComplete((ids, error) -> {
+                                if (error != null) {
+                                    winner.completeExceptionally(error);
+                                } else {
+                                    winner.complete(new Candidates("local", ids));
+                                }
+                            });
+                } catch (RejectedExecutionException e) {
+                    logger.warn("Local recommendation pool is saturated; skipping local path for user ID: {}", user.getId());
+                }
+            }
+        };
 
-        // Fallback to local recommendation logic
-        logger.info("Falling back to local recommendation logic for user ID: {}", user.getId());
-        return generateLocalRecommendations(user);
-    }
+        try {
+            CompletableFuture.supplyAsync(() -> mlRecommendationClient.recommend(user.getFavoriteCuisines(), user.getOrderHistory()), mlExecutor)
+                    .whenComplete((ids, error) -> {
+                        if (error != null || ids == null || ids.isEmpty()) {
+                            startLocal.run(); // No point waiting for the hedge delay
+                        } else if (!winner.isDone()) {
+                            try {
+                                winner.complete(new Candidates("ml", filterByUserPreferences(user, ids)));
+                            } catch (RuntimeException e) {
+                                logger.warn("Failed to filter ML recommendations for user ID: {}: {}", user.getId(), e.getMessage());
+                                startLocal.run();
+                            }
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            logger.warn("ML recommendation pool is saturated; using local recommendations for user ID: {}", user.getId());
+            startLocal.run();
+        }
+        ScheduledFuture<?> hedge = hedgeTimer.schedule(startLocal, hedgeDelayMillis, TimeUnit.MILLISECONDS);
 
-    private List<String> fetchFromMLService(User user) {
+        Candidates candidates;
         try {
-            String[] response = restTemplate.postForObject(
-                    ML_SERVICE_URL,
-                    new RecommendationRequest(user.getFavoriteCuisines(), user.getOrderHistory()),
-                    String[].class
-            );
-            return response != null ? Arrays.asList(response) : Collections.emptyList();
-        } catch (RestClientException e) {
-            logger.warn("ML service unavailable for user ID: {}. Error: {}", user.getId(), e.getMessage());
+            candidates = winner.get(latencyBudgetMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("No recommendations within {} ms for user ID: {}", latencyBudgetMillis, user.getId());
+            return Collections.emptyList();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating recommendations", e);
+        } catch (ExecutionException e) {
+            logger.warn("Failed to generate recommendations for user ID: {}: {}", user.getId(), e.getCause().getMessage());
             return Collections.emptyList();
+        } finally {
+            hedge.cancel(false);
         }
+        meterRegistry.counter("recommendations.source", "source", candidates.source()).increment();
+        logger.info("Using {} recommendations for user ID: {}", candidates.source(), user.getId());
+        return candidates.menuItemIds();
     }
 
     private List<String> generateLocalRecommendations(User user) {
-        List<String> recommendedMenuItemIds = new ArrayList<>();
+        // Insertion-ordered set: de-duplicates in O(1) per candidate
+        Set<String> recommendedMenuItemIds = new LinkedHashSet<>();
 
         // Step 1: Recommend based on liked items
         if (user.getLikedMenuItems() != null && !user.getLikedMenuItems().isEmpty()) {
@@ -110,31 +186,60 @@ public class RecommendationService {
             logger.debug("Added liked items to recommendations for user ID: {}", user.getId());
         }
 
-        // Step 2: Recommend based on favorite cuisines
+        // Step 2: Recommend items often ordered together with liked and recently ordered items
+        Set<String> seedIds = new LinkedHashSet<>(recommendedMenuItemIds);
+        seedIds.addAll(recentlyOrderedMenuItemIds(user));
+        if (!seedIds.isEmpty()) {
+            recommendedMenuItemIds.addAll(menuItemCooccurrenceIndex.alsoOrdered(seedIds, MAX_ALSO_ORDERED_CANDIDATES));
+            logger.debug("Added frequently co-ordered items to recommendations for user ID: {}", user.getId());
+        }
+
+        // Step 3: Recommend based on favorite cuisines
         if (user.getFavoriteCuisines() != null && !user.getFavoriteCuisines().isEmpty()) {
-            List<MenuItem> cuisineItems = menuItemRepository.findByCuisineTypeIn(user.getFavoriteCuisines());
-            recommendedMenuItemIds.addAll(
-                    cuisineItems.stream()
-                            .map(MenuItem::getId)
-                            .filter(id -> !recommendedMenuItemIds.contains(id))
-                            .collect(Collectors.toList())
-            );
+            // The most popular items of those cuisines, kept in memory, instead of every item they have
+            recommendedMenuItemIds.addAll(popularMenuItemIndex.topItemIds(user.getFavoriteCuisines(), MAX_CUISINE_CANDIDATES));
             logger.debug("Added items from favorite cuisines for user ID: {}", user.getId());
         }
 
-        // Step 3: Recommend popular items (based on numberOfTimesOrdered)
+        // Step 4: Recommend popular items (based on numberOfTimesOrdered)
         if (recommendedMenuItemIds.size() < 5) { // Ensure at least 5 recommendations
-            List<MenuItem> popularItems = menuItemRepository.findTop5ByOrderByNumberOfTimesOrderedDesc();
-            recommendedMenuItemIds.addAll(
-                    popularItems.stream()
-                            .map(MenuItem::getId)
-                            .filter(id -> !recommendedMenuItemIds.contains(id))
-                            .collect(Collectors.toList())
-            );
+            menuItemRepository.findTop5ByOrderByNumberOfTimesOrderedDesc().forEach(item -> recommendedMenuItemIds.add(item.getId()));
             logger.debug("Added popular items to recommendations for user ID: {}", user.getId());
         }
 
-        return filterByUserPreferences(user, recommendedMenuItemIds);
+        return filterByUserPreferences(user, new ArrayList<>(recommendedMenuItemIds));
+    }
+
+    // Menu items of the user's latest orders, read with one query by order ID
+    private List<String> recentlyOrderedMenuItemIds(User user) {
+        List<String> orderHistory = user.getOrderHistory();
+        if (orderHistory == null || orderHistory.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> recentOrderIds = orderHistory.subList(Math.max(0, orderHistory.size() - RECENT_ORDERS_FOR_ALSO_ORDERED), orderHistory.size());
+        Query query = new Query(Criteria.where("_id").in(recentOrderIds));
+        query.fields().include("items.menuItemId");
+        return mongoTemplate.find(query, Order.class).stream()
+                .flatMap(order -> order.getItems().stream())
+                .map(Order.OrderItem::getMenuItemId)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the menu items most often ordered together with a menu item.
+     *
+     * @param menuItemId the ID of the menu item
+     * @param limit      the maximum number of items, between 1 and 50
+     * @return the menu items, most frequently co-ordered first
+     * @throws IllegalArgumentException if the limit is out of range
+     */
+    public List<MenuItem> getAlsoOrdered(String menuItemId, int limit) {
+        if (limit < 1 || limit > 50) {
+            throw new IllegalArgumentException("Limit must be between 1 and 50");
+        }
+        logger.info("Retrieving items ordered together with menu item ID: {}", menuItemId);
+        return fetchMenuItems(menuItemCooccurrenceIndex.alsoOrdered(menuItemId, limit));
     }
 
     private List<String> filterByUserPreferences(User user, List<String> menuItemIds) {
@@ -155,37 +260,16 @@ public class RecommendationService {
                 .collect(Collectors.toList());
     }
 
+    // Reads the counters maintained by OrderService.placeOrder; no menu item lookups
     private String inferDietaryPreference(User user) {
-        if (user.getOrderHistory() == null || user.getOrderHistory().isEmpty()) {
-            logger.debug("No order history to infer dietary preference for user ID: {}", user.getId());
-            return null;
-        }
-
-        // Fetch menu items from order history
-        List<MenuItem> orderedItems = user.getOrderHistory().stream()
-                .map(orderId -> {
-                    try {
-                        return menuItemService.getMenuItemById(orderId);
-                    } catch (Exception e) {
-                        logger.warn("Failed to fetch menu item for order ID: {}", orderId);
-                        return null;
-                    }
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-
-        // Count veg vs non-veg items
-        long vegCount = orderedItems.stream()
-                .filter(item -> "VEG".equals(item.getVegOrNonVeg()))
-                .count();
-        long totalCount = orderedItems.size();
-
-        if (totalCount == 0) {
+        long totalCount = user.getVegItemsOrdered() + user.getNonVegItemsOrdered();
+        if (totalCount < MIN_ITEMS_FOR_DIETARY_PREFERENCE) {
+            logger.debug("Not enough ordered items to infer dietary preference for user ID: {}", user.getId());
             return null;
         }
 
         // If more than 70% of ordered items are veg, prefer veg recommendations
-        return (vegCount / (double) totalCount) > 0.7 ? "VEG" : "NON_VEG";
+        return (user.getVegItemsOrdered() / (double) totalCount) > 0.7 ? "VEG" : "NON_VEG";
     }
 
     private List<MenuItem> fetchMenuItems(List<String> menuItemIds) {
@@ -193,15 +277,10 @@ public class RecommendationService {
             return Collections.emptyList();
         }
 
+        // One batched lookup, returned in the order of the recommended IDs
+        Map<String, MenuItem> menuItems = menuItemService.getMenuItemsByIds(menuItemIds);
         return menuItemIds.stream()
-                .map(id -> {
-                    try {
-                        return menuItemService.getMenuItemById(id);
-                    } catch (ResourceNotFoundException e) {
-                        logger.warn("Menu item not found with ID: {}", id);
-                        return null;
-                    }
-                })
+                .map(menuItems::get)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
@@ -211,28 +290,27 @@ public class RecommendationService {
         String preferencesHash = favoriteCuisines != null
                 ? String.valueOf(favoriteCuisines.hashCode())
                 : "none";
-        return "recommendations:" + userId + ":" + preferencesHash;
+        // v2 entries are Redis hashes carrying their expiry and compute time
+        return "recommendations:v2:" + userId + ":" + preferencesHash;
     }
 
     public void updatePreferences(String userId, List<String> favoriteCuisines) {
         logger.info("Updating preferences for user ID: {}", userId);
 
-        // Validate user
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    logger.error("User not found with ID: {}", userId);
-                    return new ResourceNotFoundException("User not found: " + userId);
-                });
-
-        // Update preferences
-        user.setFavoriteCuisines(favoriteCuisines != null ? favoriteCuisines : Collections.emptyList());
-        userRepository.save(user);
+        // Update preferences; only this field is set so concurrent order counters are not overwritten
+        List<String> cuisines = favoriteCuisines != null ? favoriteCuisines : Collections.emptyList();
+        UpdateResult result = mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(userId)),
+                new Update().set("favoriteCuisines", cuisines), User.class);
+        if (result.getMatchedCount() == 0) {
+            logger.error("User not found with ID: {}", userId);
+            throw new ResourceNotFoundException("User not found: " + userId);
+        }
         logger.info("Preferences updated successfully for user ID: {}", userId);
 
         // Invalidate cache (handle Redis failure gracefully)
-        String oldCacheKey = generateCacheKey(userId, user.getFavoriteCuisines());
+        String oldCacheKey = generateCacheKey(userId, cuisines);
         try {
-            redisTemplate.delete(oldCacheKey);
+            recommendationCache.evict(oldCacheKey);
             logger.debug("Invalidated cache for user ID: {} with key: {}", userId, oldCacheKey);
         } catch (RedisConnectionFailureException e) {
             logger.warn("Failed to invalidate cache due to Redis connection issue: {}", e.getMessage());
@@ -243,30 +321,34 @@ public class RecommendationService {
         }
     }
 
-    // DTO for ML service request
-    private static class RecommendationRequest {
-        private List<String> favoriteCuisines;
-        private List<String> orderHistory;
+    @PreDestroy
+    void shutdown() {
+        mlExecutor.shutdown();
+        localExecutor.shutdown();
+        hedgeTimer.shutdown();
+    }
 
-        public RecommendationRequest(List<String> favoriteCuisines, List<String> orderHistory) {
-            this.favoriteCuisines = favoriteCuisines != null ? favoriteCuisines : Collections.emptyList();
-            this.orderHistory = orderHistory != null ? orderHistory : Collections.emptyList();
-        }
+    // Fails fast once full; callers treat a rejection like a failed path
+    private static ThreadPoolExecutor boundedPool(String name) {
+        return new ThreadPoolExecutor(POOL_THREADS, POOL_THREADS, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(POOL_QUEUE_CAPACITY), new DaemonThreadFactory(name));
+    }
 
-        public List<String> getFavoriteCuisines() {
-            return favoriteCuisines;
-        }
+    private record Candidates(String source, List<String> menuItemIds) {}
 
-        public void setFavoriteCuisines(List<String> favoriteCuisines) {
-            this.favoriteCuisines = favoriteCuisines;
-        }
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger();
 
-        public List<String> getOrderHistory() {
-            return orderHistory;
+        DaemonThreadFactory(String name) {
+            this.name = name;
         }
 
-        public void setOrderHistory(List<String> orderHistory) {
-            this.orderHistory = orderHistory;
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
         }
     }
 }
\ No newline at end of file
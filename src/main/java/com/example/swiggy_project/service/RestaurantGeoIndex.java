@@ -0,0 +1,385 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.model.Restaurant;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory spatial index over restaurant locations for radius and minimum-rating queries.
+ * <p>
+ * Restaurants are bucketed into a fixed grid of {@code restaurants.geo.cell-degrees} square
+ * cells. The base snapshot keeps coordinates and ratings in primitive arrays sorted by cell,
+ * so a query binary-searches each covered cell and scans a contiguous slice. Writes land in a
+ * small overlay that shadows the snapshot until the next compaction or full rebuild. The grid
+ * does not wrap around the antimeridian.
+ */
+@Component
+public class RestaurantGeoIndex {
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantGeoIndex.class);
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE_LATITUDE = 111.32;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${restaurants.geo.cell-degrees:0.05}")
+    private double cellDegrees;
+
+    @Value("${restaurants.geo.compact-threshold:1000}")
+    private int compactThreshold;
+
+    private volatile GeoSnapshot snapshot; // Null until the first build succeeds
+
+    // Restaurants written since their snapshot was built; shadow the snapshot entries with the same ID
+    private final Map<String, OverlayEntry> overlay = new ConcurrentHashMap<>();
+    private final AtomicLong writeSequence = new AtomicLong();
+    private final Object rebuildLock = new Object();
+
+    /**
+     * A restaurant within the searched radius and its great-circle distance from the search point.
+     */
+    public static final class GeoHit {
+        private final Restaurant restaurant;
+        private final double distanceKm;
+
+        GeoHit(Restaurant restaurant, double distanceKm) {
+            this.restaurant = restaurant;
+            this.distanceKm = distanceKm;
+        }
+
+        public Restaurant getRestaurant() {
+            return restaurant;
+        }
+
+        public double getDistanceKm() {
+            return distanceKm;
+        }
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        meterRegistry.gauge("restaurants.geo.index.size", this, index -> {
+            GeoSnapshot current = index.snapshot;
+            return current == null ? 0 : current.size() + index.overlay.size();
+        });
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildAtStartup() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${restaurants.geo.rebuild-interval-ms:300000}", initialDelayString = "${restaurants.geo.rebuild-interval-ms:300000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Reloads every restaurant location from MongoDB. Also picks up writes made on other nodes.
+     * Failures are logged and leave the previous snapshot in place.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long start = System.nanoTime();
+            long sequence = writeSequence.get();
+            List<Restaurant> restaurants = new ArrayList<>();
+            try (Stream<Restaurant> stream = mongoTemplate.stream(listProjection(new Query(Criteria.where("location").exists(true))), Restaurant.class)) {
+                stream.forEach(restaurants::add);
+            } catch (Exception e) {
+                logger.warn("Failed to rebuild restaurant geo index: {}", e.getMessage());
+                return;
+            }
+            swapIn(GeoSnapshot.build(restaurants, cellDegrees), sequence);
+            long elapsed = System.nanoTime() - start;
+            meterRegistry.timer("restaurants.geo.index.rebuild").record(elapsed, TimeUnit.NANOSECONDS);
+            logger.info("Rebuilt restaurant geo index with {} restaurants in {} ms", restaurants.size(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    /**
+     * Adds or replaces a restaurant.
+     */
+    public void upsert(Restaurant restaurant) {
+        if (restaurant == null || restaurant.getId() == null) {
+            return;
+        }
+        overlay.put(restaurant.getId(), new OverlayEntry(restaurant, writeSequence.incrementAndGet()));
+        if (overlay.size() >= compactThreshold) {
+            compact();
+        }
+    }
+
+    /**
+     * Reloads one restaurant from MongoDB after an in-place update.
+     *
+     * @param restaurantId the ID of the restaurant
+     * @return the reloaded restaurant, or null if it no longer exists or could not be loaded
+     */
+    public Restaurant refresh(String restaurantId) {
+        try {
+            Restaurant restaurant = mongoTemplate.findOne(listProjection(new Query(Criteria.where("_id").is(restaurantId))), Restaurant.class);
+            if (restaurant != null) {
+                upsert(restaurant);
+            }
+            return restaurant;
+        } catch (Exception e) {
+            logger.warn("Failed to refresh restaurant ID: {} in geo index: {}", restaurantId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Finds the restaurants within a radius with at least a minimum rating, nearest first.
+     *
+     * @param latitude    latitude of the search point
+     * @param longitude   longitude of the search point
+     * @param radiusKm    the search radius in kilometers
+     * @param minRating   the minimum rating, inclusive
+     * @param limit       the maximum number of results; the nearest ones are kept
+     * @return the matching restaurants with their distances, nearest first
+     * @throws IllegalStateException if the index has not been built yet
+     */
+    public List<GeoHit> findNearby(double latitude, double longitude, double radiusKm, double minRating, int limit) {
+        GeoSnapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("Restaurant geo index is not built yet");
+        }
+        long start = System.nanoTime();
+        // Max-heap on distance holding the best `limit` hits seen so far
+        PriorityQueue<GeoHit> nearest = new PriorityQueue<>(Comparator.comparingDouble(GeoHit::getDistanceKm).reversed());
+
+        double latitudeDelta = radiusKm / KM_PER_DEGREE_LATITUDE;
+        double longitudeDelta = radiusKm / (KM_PER_DEGREE_LATITUDE * Math.max(Math.cos(Math.toRadians(latitude)), 0.01));
+        int minLatCell = current.latitudeCell(Math.max(latitude - latitudeDelta, -90));
+        int maxLatCell = current.latitudeCell(Math.min(latitude + latitudeDelta, 90));
+        int minLonCell = current.longitudeCell(Math.max(longitude - longitudeDelta, -180));
+        int maxLonCell = current.longitudeCell(Math.min(longitude + longitudeDelta, 180));
+        long boxCells = (long) (maxLatCell - minLatCell + 1) * (maxLonCell - minLonCell + 1);
+        if (boxCells > current.cellKeys.length) {
+            // A wide radius covers more cells than are occupied; walk the occupied ones instead of probing the box
+            for (int cell = 0; cell < current.cellKeys.length; cell++) {
+                int latCell = GeoSnapshot.latitudeCellOf(current.cellKeys[cell]);
+                int lonCell = GeoSnapshot.longitudeCellOf(current.cellKeys[cell]);
+                if (latCell >= minLatCell && latCell <= maxLatCell && lonCell >= minLonCell && lonCell <= maxLonCell) {
+                    scanCell(current, cell, nearest, latitude, longitude, radiusKm, minRating, limit);
+                }
+            }
+        } else {
+            for (int latCell = minLatCell; latCell <= maxLatCell; latCell++) {
+                for (int lonCell = minLonCell; lonCell <= maxLonCell; lonCell++) {
+                    int cell = Arrays.binarySearch(current.cellKeys, GeoSnapshot.cellKey(latCell, lonCell));
+                    if (cell >= 0) {
+                        scanCell(current, cell, nearest, latitude, longitude, radiusKm, minRating, limit);
+                    }
+                }
+            }
+        }
+        for (OverlayEntry entry : overlay.values()) {
+            double[] location = entry.restaurant.getLocation();
+            if (location == null || location.length != 2 || entry.restaurant.getRating() < minRating) {
+                continue;
+            }
+            offer(nearest, limit, entry.restaurant, distanceKm(latitude, longitude, location[1], location[0]), radiusKm);
+        }
+
+        List<GeoHit> hits = new ArrayList<>(nearest);
+        hits.sort(Comparator.comparingDouble(GeoHit::getDistanceKm));
+        meterRegistry.timer("restaurants.geo.index.query").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return hits;
+    }
+
+    private void scanCell(GeoSnapshot current, int cell, PriorityQueue<GeoHit> nearest, double latitude, double longitude,
+                          double radiusKm, double minRating, int limit) {
+        for (int i = current.cellOffsets[cell]; i < current.cellOffsets[cell + 1]; i++) {
+            if (current.ratings[i] < minRating || overlay.containsKey(current.restaurants[i].getId())) {
+                continue;
+            }
+            offer(nearest, limit, current.restaurants[i], distanceKm(latitude, longitude, current.latitudes[i], current.longitudes[i]), radiusKm);
+        }
+    }
+
+    private static void offer(PriorityQueue<GeoHit> nearest, int limit, Restaurant restaurant, double distanceKm, double radiusKm) {
+        if (distanceKm > radiusKm) {
+            return;
+        }
+        if (nearest.size() < limit) {
+            nearest.add(new GeoHit(restaurant, distanceKm));
+        } else if (distanceKm < nearest.peek().getDistanceKm()) {
+            nearest.poll();
+            nearest.add(new GeoHit(restaurant, distanceKm));
+        }
+    }
+
+    /**
+     * Haversine great-circle distance in kilometers.
+     */
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLat = Math.toRadians(latitude2 - latitude1);
+        double dLon = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    // Folds the overlay into a new snapshot without going back to MongoDB
+    private void compact() {
+        synchronized (rebuildLock) {
+            GeoSnapshot current = snapshot;
+            if (current == null || overlay.size() < compactThreshold) {
+                return;
+            }
+            long sequence = writeSequence.get();
+            Map<String, Restaurant> merged = new HashMap<>(current.size() + overlay.size());
+            for (Restaurant restaurant : current.restaurants) {
+                merged.put(restaurant.getId(), restaurant);
+            }
+            overlay.values().forEach(entry -> merged.put(entry.restaurant.getId(), entry.restaurant));
+            swapIn(GeoSnapshot.build(merged.values(), cellDegrees), sequence);
+            logger.debug("Compacted restaurant geo index overlay into {} restaurants", merged.size());
+        }
+    }
+
+    // Overlay entries written before `sequence` are contained in the new snapshot; later ones keep shadowing it
+    private void swapIn(GeoSnapshot rebuilt, long sequence) {
+        snapshot = rebuilt;
+        overlay.values().removeIf(entry -> entry.sequence <= sequence);
+    }
+
+    private static Query listProjection(Query query) {
+        query.fields().exclude("nameNgrams").exclude("normalizedName").exclude("normalizedCity");
+        return query;
+    }
+
+    private static final class OverlayEntry {
+        final Restaurant restaurant;
+        final long sequence;
+
+        OverlayEntry(Restaurant restaurant, long sequence) {
+            this.restaurant = restaurant;
+            this.sequence = sequence;
+        }
+    }
+
+    // Immutable grid: entries sorted by cell key, with cellOffsets[i]..cellOffsets[i + 1] the slice of cellKeys[i]
+    private static final class GeoSnapshot {
+        final double cellDegrees;
+        final long[] cellKeys;
+        final int[] cellOffsets;
+        final double[] latitudes;
+        final double[] longitudes;
+        final double[] ratings;
+        final Restaurant[] restaurants;
+
+        private GeoSnapshot(double cellDegrees, long[] cellKeys, int[] cellOffsets, double[] latitudes,
+                            double[] longitudes, double[] ratings, Restaurant[] restaurants) {
+            this.cellDegrees = cellDegrees;
+            this.cellKeys = cellKeys;
+            this.cellOffsets = cellOffsets;
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+            this.ratings = ratings;
+            this.restaurants = restaurants;
+        }
+
+        static GeoSnapshot build(Collection<Restaurant> source, double cellDegrees) {
+            List<Restaurant> located = source.stream()
+                    .filter(restaurant -> restaurant.getLocation() != null && restaurant.getLocation().length == 2)
+                    .toList();
+            int size = located.size();
+            long[] keys = new long[size];
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                double[] location = located.get(i).getLocation();
+                keys[i] = cellKey(cell(location[1], 90, cellDegrees), cell(location[0], 180, cellDegrees));
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingLong(i -> keys[i]));
+
+            double[] latitudes = new double[size];
+            double[] longitudes = new double[size];
+            double[] ratings = new double[size];
+            Restaurant[] restaurants = new Restaurant[size];
+            long[] cellKeys = new long[size];
+            int[] cellOffsets = new int[size + 1];
+            int cells = 0;
+            for (int i = 0; i < size; i++) {
+                Restaurant restaurant = located.get(order[i]);
+                latitudes[i] = restaurant.getLocation()[1];
+                longitudes[i] = restaurant.getLocation()[0];
+                ratings[i] = restaurant.getRating();
+                restaurants[i] = restaurant;
+                long key = keys[order[i]];
+                if (cells == 0 || cellKeys[cells - 1] != key) {
+                    cellKeys[cells] = key;
+                    cellOffsets[cells] = i;
+                    cells++;
+                }
+            }
+            cellOffsets[cells] = size;
+            return new GeoSnapshot(cellDegrees, Arrays.copyOf(cellKeys, cells), Arrays.copyOf(cellOffsets, cells + 1),
+                    latitudes, longitudes, ratings, restaurants);
+        }
+
+        int size() {
+            return restaurants.length;
+        }
+
+        int latitudeCell(double latitude) {
+            return cell(latitude, 90, cellDegrees);
+        }
+
+        int longitudeCell(double longitude) {
+            return cell(longitude, 180, cellDegrees);
+        }
+
+        static int cell(double coordinate, double offset, double cellDegrees) {
+            return (int) Math.floor((coordinate + offset) / cellDegrees);
+        }
+
+        static long cellKey(int latitudeCell, int longitudeCell) {
+            return ((long) latitudeCell << 32) | (longitudeCell & 0xffffffffL);
+        }
+
+        static int latitudeCellOf(long cellKey) {
+            return (int) (cellKey >> 32);
+        }
+
+        static int longitudeCellOf(long cellKey) {
+            return (int) cellKey;
+        }
+    }
+}
\ No newline at end of file
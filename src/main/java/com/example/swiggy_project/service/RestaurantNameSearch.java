@@ -0,0 +1,90 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.model.Restaurant;
+import com.example.swiggy_project.util.SearchText;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Restaurant name search backed by the {@code nameNgrams} multikey index instead of an
+ * unanchored case-insensitive regex.
+ * <p>
+ * A query of three or more characters selects restaurants whose name contains all of the
+ * query's trigrams (an index lookup), then confirms the substring on {@code normalizedName}.
+ * Shorter queries have no trigram to look up, so they keep substring semantics with an
+ * unanchored regex on {@code normalizedName}; it is evaluated against the keys of that index
+ * without fetching non-matching documents. Results
+ * are ordered by relevance: exact name, name prefix, word prefix, any other substring, then by
+ * rating.
+ */
+@Component
+public class RestaurantNameSearch {
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantNameSearch.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Searches restaurants by name.
+     *
+     * @param text  the text to search for; case, accents and punctuation are ignored
+     * @param limit the maximum number of results
+     * @return the matching restaurants, most relevant first
+     * @throws IllegalArgumentException if the text has no letters or digits
+     */
+    public List<Restaurant> search(String text, int limit) {
+        String query = SearchText.normalize(text);
+        if (query.isEmpty()) {
+            throw new IllegalArgumentException("Search text must contain letters or digits");
+        }
+        List<Restaurant> restaurants = mongoTemplate.aggregate(pipeline(query, limit), Restaurant.class, Restaurant.class).getMappedResults();
+        logger.debug("Name search for '{}' returned {} restaurants", query, restaurants.size());
+        return restaurants;
+    }
+
+    /**
+     * Builds the search aggregation for already normalized, non-empty query text.
+     */
+    static Aggregation pipeline(String query, int limit) {
+        Criteria candidates = query.length() < SearchText.GRAM_SIZE
+                ? Criteria.where("normalizedName").regex(query) // Normalized text has no regex metacharacters
+                : Criteria.where("nameNgrams").all(SearchText.grams(query));
+
+        AggregationOperation position = context -> new Document("$addFields",
+                new Document("matchPosition", new Document("$indexOfCP", List.of("$normalizedName", query))));
+        AggregationOperation rank = context -> new Document("$addFields", new Document("matchRank", new Document("$switch", new Document()
+                .append("branches", List.of(
+                        branch(new Document("$eq", List.of("$normalizedName", query)), 0),
+                        branch(new Document("$eq", List.of("$matchPosition", 0)), 1),
+                        branch(new Document("$eq", List.of(new Document("$substrCP",
+                                List.of("$normalizedName", new Document("$subtract", List.of("$matchPosition", 1)), 1)), " ")), 2)))
+                .append("default", 3))));
+        AggregationOperation sort = context -> new Document("$sort",
+                new Document("matchRank", 1).append("rating", -1).append("normalizedName", 1));
+        AggregationOperation strip = context -> new Document("$project",
+                new Document("nameNgrams", 0).append("matchPosition", 0).append("matchRank", 0));
+
+        return Aggregation.newAggregation(
+                Aggregation.match(candidates),
+                position,
+                // Trigram containment does not imply the substring, e.g. "abcab" has the grams of "cabc"
+                context -> new Document("$match", new Document("matchPosition", new Document("$gte", 0))),
+                rank,
+                sort,
+                Aggregation.limit(limit),
+                strip);
+    }
+
+    private static Document branch(Document condition, int rank) {
+        return new Document("case", condition).append("then", rank);
+    }
+}
\ No newline at end of file
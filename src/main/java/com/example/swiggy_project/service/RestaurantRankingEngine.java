@@ -0,0 +1,222 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.model.Order;
+import com.example.swiggy_project.model.Restaurant;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ranks nearby restaurants by "fastest good food": a blend of rating and estimated delivery
+ * time, where the estimate is the restaurant's recent average prep time, plus a queueing delay
+ * per order already in its kitchen, plus travel time for the distance.
+ * <p>
+ * Kitchen load and prep times are kept in memory, updated as this node places and advances
+ * orders and resynchronized from MongoDB every {@code restaurants.ranking.resync-interval-ms} to
+ * pick up other nodes' orders. Ranking gathers the signals into primitive arrays, scores them in
+ * one pass and sorts packed (score, index) longs, so it allocates a handful of arrays per call.
+ */
+@Component
+public class RestaurantRankingEngine {
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantRankingEngine.class);
+
+    // Orders in these statuses are waiting for or being worked on by the kitchen
+    public static final Set<String> KITCHEN_STATUSES = Set.of("PLACED", "PREPARING", "COOKING");
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${restaurants.ranking.rating-weight:0.5}")
+    private double ratingWeight;
+
+    @Value("${restaurants.ranking.minutes-per-km:3.0}")
+    private double minutesPerKm;
+
+    @Value("${restaurants.ranking.queue-minutes-per-order:2.0}")
+    private double queueMinutesPerOrder;
+
+    @Value("${restaurants.ranking.default-prep-minutes:15}")
+    private double defaultPrepMinutes;
+
+    @Value("${restaurants.ranking.max-eta-minutes:60}")
+    private double maxEtaMinutes;
+
+    @Value("${restaurants.ranking.prep-ewma-alpha:0.2}")
+    private double prepAlpha;
+
+    @Value("${restaurants.ranking.prep-window-minutes:120}")
+    private long prepWindowMinutes;
+
+    private final Map<String, KitchenSignals> signals = new ConcurrentHashMap<>();
+
+    private static final class KitchenSignals {
+        final AtomicInteger openOrders = new AtomicInteger();
+        volatile double prepMinutes = Double.NaN; // Exponentially weighted average; NaN until the first prepared order
+
+        synchronized void recordPrep(double minutes, double alpha) {
+            double current = prepMinutes;
+            prepMinutes = Double.isNaN(current) ? minutes : current + alpha * (minutes - current);
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAtStartup() {
+        resync();
+    }
+
+    /**
+     * Replaces the in-memory kitchen load with the open order counts in MongoDB and the prep
+     * times with their recent averages. Failures are logged and keep the current signals.
+     */
+    @Scheduled(fixedDelayString = "${restaurants.ranking.resync-interval-ms:60000}", initialDelayString = "${restaurants.ranking.resync-interval-ms:60000}")
+    public void resync() {
+        try {
+            Map<String, Integer> openOrders = new HashMap<>();
+            mongoTemplate.aggregate(Aggregation.newAggregation(
+                            Aggregation.match(Criteria.where("status").in(KITCHEN_STATUSES)),
+                            Aggregation.group("restaurantId").count().as("count")), Order.class, Document.class)
+                    .forEach(row -> openOrders.put(row.getString("_id"), row.getInteger("count")));
+
+            Map<String, Double> prepMinutes = new HashMap<>();
+            Instant windowStart = Instant.now().minus(Duration.ofMinutes(prepWindowMinutes));
+            mongoTemplate.aggregate(Aggregation.newAggregation(
+                            Aggregation.match(Criteria.where("preparedAt").gte(windowStart).and("placedAt").exists(true)),
+                            context -> new Document("$group", new Document("_id", "$restaurantId")
+                                    .append("prepMillis", new Document("$avg", new Document("$subtract", List.of("$preparedAt", "$placedAt")))))),
+                            Order.class, Document.class)
+                    .forEach(row -> prepMinutes.put(row.getString("_id"), ((Number) row.get("prepMillis")).doubleValue() / 60_000));
+
+            Set<String> restaurantIds = new HashSet<>(signals.keySet());
+            restaurantIds.addAll(openOrders.keySet());
+            restaurantIds.addAll(prepMinutes.keySet());
+            for (String restaurantId : restaurantIds) {
+                KitchenSignals kitchen = signals(restaurantId);
+                kitchen.openOrders.set(openOrders.getOrDefault(restaurantId, 0));
+                Double minutes = prepMinutes.get(restaurantId);
+                if (minutes != null) {
+                    kitchen.prepMinutes = minutes;
+                }
+            }
+            logger.debug("Resynced ranking signals for {} restaurants", restaurantIds.size());
+        } catch (Exception e) {
+            logger.warn("Failed to resync restaurant ranking signals: {}", e.getMessage());
+        }
+    }
+
+    public void orderPlaced(String restaurantId) {
+        signals(restaurantId).openOrders.incrementAndGet();
+    }
+
+    /**
+     * Updates the kitchen load after an order moved from one status to another.
+     */
+    public void orderStatusChanged(String restaurantId, String previousStatus, String status) {
+        boolean wasOpen = KITCHEN_STATUSES.contains(previousStatus);
+        boolean isOpen = KITCHEN_STATUSES.contains(status);
+        if (wasOpen && !isOpen) {
+            signals(restaurantId).openOrders.updateAndGet(count -> Math.max(count - 1, 0));
+        } else if (!wasOpen && isOpen) {
+            signals(restaurantId).openOrders.incrementAndGet();
+        }
+    }
+
+    public void orderPrepared(String restaurantId, Duration prepTime) {
+        signals(restaurantId).recordPrep(prepTime.toMillis() / 60_000.0, prepAlpha);
+    }
+
+    /**
+     * Orders candidates by blended rating and estimated delivery time, best first.
+     *
+     * @param latitude    latitude of the user
+     * @param longitude   longitude of the user
+     * @param candidates  the restaurants to rank; ties keep their input order
+     * @param limit       the maximum number of restaurants to return
+     * @return the best-ranked restaurants
+     */
+    public List<Restaurant> rank(double latitude, double longitude, List<Restaurant> candidates, int limit) {
+        long start = System.nanoTime();
+        int size = candidates.size();
+        double[] distancesKm = new double[size];
+        double[] ratings = new double[size];
+        double[] openOrders = new double[size];
+        double[] prepMinutes = new double[size];
+
+        // Gather: one map lookup per candidate, everything else is arithmetic on the arrays below
+        double latitudeRadians = Math.toRadians(latitude);
+        double cosLatitude = Math.cos(latitudeRadians);
+        for (int i = 0; i < size; i++) {
+            Restaurant restaurant = candidates.get(i);
+            double[] location = restaurant.getLocation();
+            distancesKm[i] = location == null || location.length != 2
+                    ? Double.POSITIVE_INFINITY
+                    : distanceKm(latitudeRadians, cosLatitude, Math.toRadians(location[1]), location[0] - longitude);
+            ratings[i] = restaurant.getRating();
+            KitchenSignals kitchen = signals.get(restaurant.getId());
+            openOrders[i] = kitchen == null ? 0 : kitchen.openOrders.get();
+            double prep = kitchen == null ? Double.NaN : kitchen.prepMinutes;
+            prepMinutes[i] = Double.isNaN(prep) ? defaultPrepMinutes : prep;
+        }
+
+        // Score and pack: higher score sorts first, equal scores keep input order
+        long[] order = new long[size];
+        for (int i = 0; i < size; i++) {
+            double etaMinutes = prepMinutes[i] + queueMinutesPerOrder * openOrders[i] + minutesPerKm * distancesKm[i];
+            double speed = 1 - Math.min(etaMinutes / maxEtaMinutes, 1);
+            double score = ratingWeight * Math.min(Math.max(ratings[i] / 5, 0), 1) + (1 - ratingWeight) * speed;
+            long inverted = (long) ((1 - score) * Integer.MAX_VALUE);
+            order[i] = (inverted << 32) | i;
+        }
+        Arrays.sort(order);
+
+        int count = Math.min(limit, size);
+        List<Restaurant> ranked = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ranked.add(candidates.get((int) order[i]));
+        }
+        meterRegistry.timer("restaurants.ranking.rank").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return ranked;
+    }
+
+    // Haversine with the user's latitude terms precomputed
+    private static double distanceKm(double latitudeRadians, double cosLatitude, double otherLatitudeRadians, double longitudeDeltaDegrees) {
+        double dLat = otherLatitudeRadians - latitudeRadians;
+        double dLon = Math.toRadians(longitudeDeltaDegrees);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + cosLatitude * Math.cos(otherLatitudeRadians) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private KitchenSignals signals(String restaurantId) {
+        return signals.computeIfAbsent(restaurantId, id -> new KitchenSignals());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,140 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.model.Restaurant;
+import com.example.swiggy_project.util.AddressParser;
+import com.example.swiggy_project.util.SearchText;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Fills in the derived search fields (normalized name and its trigrams, city and normalized
+ * city) of restaurants written before those fields existed or before their derivation last
+ * changed. Resumable by construction: it only selects restaurants whose
+ * {@code searchFieldsVersion} is below {@link #SEARCH_FIELDS_VERSION}. Until a run finds
+ * nothing left, name and city lookups fall back to the old regexes so no restaurant goes
+ * missing from results.
+ */
+@Service
+public class RestaurantSearchBackfill {
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantSearchBackfill.class);
+
+    // Bump whenever deriveSearchFields changes so existing documents are recomputed
+    public static final int SEARCH_FIELDS_VERSION = 2;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${restaurants.backfill.batch-size:500}")
+    private int batchSize;
+
+    @Value("${restaurants.backfill.max-batches:50}")
+    private int maxBatches;
+
+    private volatile boolean completed = false;
+
+    @Scheduled(fixedDelayString = "${restaurants.backfill.interval-ms:60000}", initialDelayString = "${restaurants.backfill.initial-delay-ms:30000}")
+    public void scheduledRun() {
+        if (completed) {
+            return;
+        }
+        try {
+            backfill();
+        } catch (Exception e) {
+            logger.warn("Restaurant search backfill run failed, will resume on the next run: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Sets every derived search field of a restaurant from its name, address and city. A city
+     * given explicitly is kept; otherwise it is taken from the address.
+     */
+    public static void deriveSearchFields(Restaurant restaurant) {
+        restaurant.setNormalizedName(SearchText.normalize(restaurant.getName()));
+        restaurant.setNameNgrams(SearchText.grams(restaurant.getNormalizedName()));
+        if (!StringUtils.hasText(restaurant.getCity())) {
+            restaurant.setCity(AddressParser.extractCity(restaurant.getAddress()));
+        }
+        String normalizedCity = SearchText.normalize(restaurant.getCity());
+        restaurant.setNormalizedCity(normalizedCity.isEmpty() ? null : normalizedCity);
+        restaurant.setSearchFieldsVersion(SEARCH_FIELDS_VERSION);
+    }
+
+    /**
+     * Backfills up to {@code restaurants.backfill.max-batches} batches.
+     *
+     * @return the number of restaurants updated by this run
+     */
+    public long backfill() {
+        long updated = 0;
+        String lastId = null;
+        int unresolvedCities = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            // $not/$gte also matches documents with no version at all
+            Criteria criteria = Criteria.where("searchFieldsVersion").not().gte(SEARCH_FIELDS_VERSION);
+            if (lastId != null) {
+                criteria = criteria.and("_id").gt(lastId);
+            }
+            Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "_id")).limit(batchSize);
+            query.fields().include("_id").include("name").include("address").include("city");
+            List<Restaurant> restaurants = mongoTemplate.find(query, Restaurant.class);
+            if (restaurants.isEmpty()) {
+                completed = true;
+                logger.info("Restaurant search backfill complete");
+                break;
+            }
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Restaurant.class);
+            for (Restaurant restaurant : restaurants) {
+                deriveSearchFields(restaurant);
+                if (restaurant.getNormalizedCity() == null) {
+                    unresolvedCities++;
+                }
+                bulk.updateOne(new Query(Criteria.where("_id").is(restaurant.getId())), new Update()
+                        .set("normalizedName", restaurant.getNormalizedName())
+                        .set("nameNgrams", restaurant.getNameNgrams())
+                        .set("city", restaurant.getCity())
+                        .set("normalizedCity", restaurant.getNormalizedCity())
+                        .set("searchFieldsVersion", restaurant.getSearchFieldsVersion())
+                        // The city may be new, so syncing clients and ETags must pick the restaurant up again
+                        .inc("contentVersion", 1)
+                        .set("updatedAt", Instant.now()));
+            }
+            long modified = bulk.execute().getModifiedCount();
+            if (modified > 0) {
+                RestaurantService.bumpCatalogVersion(mongoTemplate);
+            }
+            updated += modified;
+            lastId = restaurants.get(restaurants.size() - 1).getId();
+        }
+        if (unresolvedCities > 0) {
+            logger.warn("Restaurant search backfill could not determine the city of {} restaurants", unresolvedCities);
+        }
+        if (updated > 0) {
+            meterRegistry.counter("restaurants.backfill.updated").increment(updated);
+            logger.info("Restaurant search backfill updated {} documents in this run", updated);
+        }
+        return updated;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+}
\ No newline at end of file
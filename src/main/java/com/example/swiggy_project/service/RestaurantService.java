@@ -1,20 +1,37 @@
 package com.example.swiggy_project.service;
 
 import com.example.swiggy_project.exception.ResourceNotFoundException;
+import com.example.swiggy_project.model.ContentVersion;
+import com.example.swiggy_project.model.NearbyRestaurant;
+import com.example.swiggy_project.model.NearbyRestaurantPage;
 import com.example.swiggy_project.model.Restaurant;
+import com.example.swiggy_project.model.RestaurantCatalogPage;
+import com.example.swiggy_project.model.RestaurantSummary;
 import com.example.swiggy_project.model.User;
 import com.example.swiggy_project.repository.RestaurantRepository;
 import com.example.swiggy_project.repository.UserRepository;
+import com.example.swiggy_project.util.SearchText;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.data.geo.Point; // Import Point
 import org.springframework.stereotype.Service;
 
 import jakarta.validation.Valid;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 @Service
@@ -30,9 +47,40 @@ public class RestaurantService {
     @Autowired
     private MongoTemplate mongoTemplate;
 
+    @Autowired
+    private RestaurantNameSearch restaurantNameSearch;
+
+    @Autowired
+    private RestaurantSearchBackfill restaurantSearchBackfill;
+
+    @Autowired
+    private RestaurantGeoIndex restaurantGeoIndex;
+
+    @Autowired
+    private NearbyRestaurantCache nearbyRestaurantCache;
+
+    @Autowired
+    private RestaurantRankingEngine restaurantRankingEngine;
+
+    @Value("${restaurants.ranking.max-candidates:1000}")
+    private int rankingCandidates;
+
+    @Value("${restaurants.nearby.max-distance-km:50}")
+    private double maxNearbyDistanceKm;
+
+    @Value("${restaurants.catalog.sync-lag-ms:5000}")
+    private long catalogSyncLagMillis;
+
+    // Key of the content version counter covering the restaurant catalog
+    private static final String CATALOG_VERSION_KEY = "restaurants";
+
     // Earth radius in kilometers
     private static final double EARTH_RADIUS_KM = 6371.0;
 
+    // The list fields of a nearby search result
+    private static final AggregationOperation NEARBY_PROJECTION = context -> new Document("$project", new Document("name", 1)
+            .append("address", 1).append("city", 1).append("rating", 1).append("location", 1).append("distanceMeters", 1));
+
     public Restaurant addRestaurant(@Valid Restaurant restaurant) {
         logger.info("Adding new restaurant: {}", restaurant.getName());
         // Validate owner exists and has ROLE_RESTAURANT
@@ -45,7 +93,14 @@ public class RestaurantService {
             logger.error("User with ID: {} does not have ROLE_RESTAURANT", restaurant.getOwnerId());
             throw new IllegalArgumentException("Owner must have ROLE_RESTAURANT");
         }
+        restaurant.setContentVersion(0);
+        restaurant.setRatingCount(0);
+        restaurant.setRatingSum(0);
+        RestaurantSearchBackfill.deriveSearchFields(restaurant);
         Restaurant saved = restaurantRepository.save(restaurant);
+        bumpCatalogVersion();
+        restaurantGeoIndex.upsert(saved);
+        nearbyRestaurantCache.invalidate(saved.getId(), saved.getLocation());
         logger.info("Restaurant added successfully with ID: {}", saved.getId());
         return saved;
     }
@@ -59,30 +114,333 @@ public class RestaurantService {
                 });
     }
 
-    public List<Restaurant> getAllRestaurants() {
-        logger.info("Retrieving all restaurants");
-        List<Restaurant> restaurants = restaurantRepository.findAll();
-        logger.info("Found {} restaurants", restaurants.size());
-        return restaurants;
+    /**
+     * Returns the content version of a restaurant without loading the rest of the document.
+     *
+     * @param id the ID of the restaurant
+     * @return the restaurant's content version
+     * @throws ResourceNotFoundException if the restaurant is not found
+     */
+    public long getRestaurantVersion(String id) {
+        Query query = new Query(Criteria.where("_id").is(id));
+        query.fields().include("contentVersion");
+        Restaurant restaurant = mongoTemplate.findOne(query, Restaurant.class);
+        if (restaurant == null) {
+            logger.warn("Restaurant not found with ID: {}", id);
+            throw new ResourceNotFoundException("Restaurant not found with ID: " + id);
+        }
+        return restaurant.getContentVersion();
     }
 
-    public List<Restaurant> getRestaurantsByName(String name) {
+    /**
+     * Returns the version of the restaurant catalog, which changes whenever any restaurant is
+     * added or modified.
+     */
+    public long getCatalogVersion() {
+        ContentVersion version = mongoTemplate.findById(CATALOG_VERSION_KEY, ContentVersion.class);
+        return version != null ? version.getVersion() : 0;
+    }
+
+    /**
+     * Records a change to a restaurant so that cached copies of it and of the catalog are
+     * revalidated. Must be called after every in-place write to a restaurant document.
+     *
+     * @param id the ID of the restaurant that changed
+     */
+    public void recordRestaurantChange(String id) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(id)),
+                new Update().inc("contentVersion", 1).set("updatedAt", Instant.now()), Restaurant.class);
+        bumpCatalogVersion();
+        Restaurant current = restaurantGeoIndex.refresh(id);
+        nearbyRestaurantCache.invalidate(id, current == null ? null : current.getLocation());
+    }
+
+    private void bumpCatalogVersion() {
+        bumpCatalogVersion(mongoTemplate);
+    }
+
+    // Shared with the search backfill, which changes restaurants outside this service
+    static void bumpCatalogVersion(MongoTemplate mongoTemplate) {
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(CATALOG_VERSION_KEY)),
+                new Update().inc("version", 1), ContentVersion.class);
+    }
+
+    /**
+     * Lists the restaurant catalog one page at a time, or only the restaurants changed after a
+     * timestamp. Full listings are ordered by ID; change listings by change time, then ID.
+     *
+     * @param since only return restaurants changed after this time, or null for all
+     * @param after the {@code nextCursor} of the previous page, or null for the first page
+     * @param limit the page size
+     * @return the page of restaurant summaries
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    public RestaurantCatalogPage getRestaurantCatalog(Instant since, String after, int limit) {
+        logger.info("Retrieving restaurant catalog since: {} after: {}", since, after);
+        // Writes stamped just before now may not be visible yet; overlap the next sync slightly instead of missing them
+        Instant syncedAt = Instant.now().minusMillis(catalogSyncLagMillis);
+        Query query = new Query();
+        if (since == null) {
+            if (after != null) {
+                if (!ObjectId.isValid(after)) {
+                    throw new IllegalArgumentException("Invalid catalog cursor: " + after);
+                }
+                query.addCriteria(Criteria.where("_id").gt(new ObjectId(after)));
+            }
+            query.with(Sort.by("_id"));
+        } else {
+            Criteria changed = Criteria.where("updatedAt").gt(since);
+            if (after != null) {
+                // Cursor is "<updatedAt epoch millis>_<restaurant ID>"
+                int separator = after.indexOf('_');
+                Instant afterUpdatedAt;
+                try {
+                    afterUpdatedAt = Instant.ofEpochMilli(Long.parseLong(after.substring(0, Math.max(separator, 0))));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid catalog cursor: " + after);
+                }
+                String afterId = after.substring(separator + 1);
+                if (!ObjectId.isValid(afterId)) {
+                    throw new IllegalArgumentException("Invalid catalog cursor: " + after);
+                }
+                changed = new Criteria().andOperator(changed, new Criteria().orOperator(
+                        Criteria.where("updatedAt").gt(afterUpdatedAt),
+                        Criteria.where("updatedAt").is(afterUpdatedAt).and("_id").gt(new ObjectId(afterId))));
+            }
+            query.addCriteria(changed);
+            query.with(Sort.by("updatedAt").and(Sort.by("_id")));
+        }
+        query.fields().include("name", "address", "city", "rating", "location", "updatedAt");
+        query.limit(limit + 1);
+
+        List<Restaurant> restaurants = mongoTemplate.find(query, Restaurant.class);
+        String nextCursor = null;
+        if (restaurants.size() > limit) {
+            restaurants = restaurants.subList(0, limit);
+            Restaurant last = restaurants.get(limit - 1);
+            nextCursor = since == null ? last.getId() : last.getUpdatedAt().toEpochMilli() + "_" + last.getId();
+        }
+        logger.info("Found {} restaurants in catalog page", restaurants.size());
+        return new RestaurantCatalogPage(restaurants.stream().map(RestaurantSummary::new).toList(), nextCursor, syncedAt);
+    }
+
+    /**
+     * Searches restaurants by name through the n-gram index, most relevant first.
+     *
+     * @param name  the text to search for
+     * @param limit the maximum number of results
+     * @return the matching restaurants
+     * @throws IllegalArgumentException if the text has no letters or digits
+     */
+    public List<Restaurant> getRestaurantsByName(String name, int limit) {
         logger.info("Searching restaurants by name: {}", name);
-        List<Restaurant> restaurants = restaurantRepository.findByNameContainingIgnoreCase(name);
+        List<Restaurant> restaurants;
+        if (restaurantSearchBackfill.isCompleted()) {
+            restaurants = restaurantNameSearch.search(name, limit);
+        } else {
+            // Some restaurants may not have search fields yet; scan with the old regex until they do
+            restaurants = restaurantRepository.findByNameContainingIgnoreCase(name).stream().limit(limit).toList();
+        }
         logger.info("Found {} restaurants with name containing: {}", restaurants.size(), name);
         return restaurants;
     }
 
-    public List<Restaurant> getRestaurantsByCity(String city) {
+    /**
+     * Lists the restaurants of a city, highest rated first, one page at a time. Uses an
+     * equality match on the indexed normalized city, so street names containing the city's
+     * name no longer match.
+     *
+     * @param city the city; case, accents and punctuation are ignored
+     * @param page the zero-based page number
+     * @param size the page size
+     * @return the page of restaurants
+     * @throws IllegalArgumentException if the city has no letters or digits
+     */
+    public List<Restaurant> getRestaurantsByCity(String city, int page, int size) {
         logger.info("Searching restaurants by city: {}", city);
-        List<Restaurant> restaurants = restaurantRepository.findByAddressContainingIgnoreCase(city);
+        String normalizedCity = SearchText.normalize(city);
+        if (normalizedCity.isEmpty()) {
+            throw new IllegalArgumentException("City must contain letters or digits");
+        }
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "rating").and(Sort.by("_id")));
+        List<Restaurant> restaurants;
+        if (restaurantSearchBackfill.isCompleted()) {
+            restaurants = restaurantRepository.findByNormalizedCity(normalizedCity, pageRequest);
+        } else {
+            // Some restaurants may not have a city yet; scan addresses with the old regex until they do
+            restaurants = restaurantRepository.findByAddressContainingIgnoreCase(city, pageRequest);
+        }
         logger.info("Found {} restaurants in city: {}", restaurants.size(), city);
         return restaurants;
     }
 
-    public List<Restaurant> findRestaurantsByRatingAndProximity(String userId, double minRating, double maxDistanceKm) {
+    /**
+     * Finds the restaurants near a user with at least a minimum rating, either nearest first or
+     * ranked by rating and estimated delivery time. Candidates are served from the in-memory geo
+     * index once it is built, otherwise from a MongoDB $nearSphere query.
+     *
+     * @param userId        the ID of the user whose location is searched around
+     * @param minRating     the minimum rating, inclusive
+     * @param maxDistanceKm the search radius in kilometers, at most {@code restaurants.nearby.max-distance-km}
+     * @param limit         the maximum number of restaurants to return
+     * @param ranked        rank the nearest candidates with {@link RestaurantRankingEngine} instead of by distance
+     * @return the matching restaurants with their distances from the user
+     * @throws ResourceNotFoundException if the user is not found
+     * @throws IllegalArgumentException  if a parameter is out of range or the user has no location
+     */
+    public List<NearbyRestaurant> findRestaurantsByRatingAndProximity(String userId, double minRating, double maxDistanceKm, int limit, boolean ranked) {
         logger.info("Finding restaurants with rating >= {} and within {} km for user ID: {}", minRating, maxDistanceKm, userId);
 
+        double[] userLocation = nearbySearchOrigin(userId, minRating, maxDistanceKm);
+        double userLongitude = userLocation[0];
+        double userLatitude = userLocation[1];
+
+        // Neighbouring users share cached candidates; misses go to the geo index or MongoDB
+        List<Restaurant> restaurants = nearbyRestaurantCache.find(userLatitude, userLongitude, maxDistanceKm, minRating,
+                ranked ? Math.max(limit, rankingCandidates) : limit, this::loadNearbyRestaurants);
+        if (ranked) {
+            restaurants = restaurantRankingEngine.rank(userLatitude, userLongitude, restaurants, limit);
+        }
+        // Cached candidates are shared with neighbouring users, so measure from this user's own location
+        List<NearbyRestaurant> nearby = restaurants.stream()
+                .map(restaurant -> toNearbyRestaurant(restaurant, RestaurantGeoIndex.distanceKm(userLatitude, userLongitude,
+                        restaurant.getLocation()[1], restaurant.getLocation()[0])))
+                .toList();
+        logger.info("Found {} restaurants with rating >= {} and within {} km for user ID: {}",
+                nearby.size(), minRating, maxDistanceKm, userId);
+        return nearby;
+    }
+
+    /**
+     * Finds the restaurants near a user with at least a minimum rating, nearest first, one page
+     * at a time. Runs a $geoNear aggregation that stops after the page, annotates each restaurant
+     * with its distance and returns only list fields, so a page costs the same in dense and
+     * sparse areas.
+     *
+     * @param userId        the ID of the user whose location is searched around
+     * @param minRating     the minimum rating, inclusive
+     * @param maxDistanceKm the search radius in kilometers, at most {@code restaurants.nearby.max-distance-km}
+     * @param limit         the page size
+     * @param after         the {@code nextCursor} of the previous page, or null for the first page
+     * @return the page of restaurants with their distances
+     * @throws ResourceNotFoundException if the user is not found
+     * @throws IllegalArgumentException  if a parameter or the cursor is invalid, or the user has no location
+     */
+    public NearbyRestaurantPage findNearbyRestaurantsPage(String userId, double minRating, double maxDistanceKm, int limit, String after) {
+        logger.info("Finding page of restaurants with rating >= {} and within {} km for user ID: {} after: {}",
+                minRating, maxDistanceKm, userId, after);
+        double[] userLocation = nearbySearchOrigin(userId, minRating, maxDistanceKm);
+
+        Document geoNear = nearbyGeoNear(userLocation, minRating, maxDistanceKm * 1000);
+        List<AggregationOperation> operations = new ArrayList<>();
+        operations.add(context -> new Document("$geoNear", geoNear));
+        double afterDistance = -1;
+        ObjectId afterId = null;
+        if (after != null) {
+            // Cursor is "<distance in meters>_<restaurant ID>"; resume at that distance, after that ID among ties
+            int separator = after.lastIndexOf('_');
+            try {
+                afterDistance = Double.parseDouble(after.substring(0, Math.max(separator, 0)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid nearby cursor: " + after);
+            }
+            String afterHex = after.substring(separator + 1);
+            if (!ObjectId.isValid(afterHex) || afterDistance < 0) {
+                throw new IllegalArgumentException("Invalid nearby cursor: " + after);
+            }
+            afterId = new ObjectId(afterHex);
+            geoNear.append("minDistance", afterDistance);
+            Document resume = new Document("$match", new Document("$or", List.of(
+                    new Document("distanceMeters", new Document("$gt", afterDistance)),
+                    new Document("_id", new Document("$gt", afterId)))));
+            operations.add(context -> resume);
+        }
+        operations.add(Aggregation.limit(limit + 1));
+        operations.add(NEARBY_PROJECTION);
+
+        List<Document> rows = new ArrayList<>(mongoTemplate.aggregate(Aggregation.newAggregation(operations), Restaurant.class, Document.class)
+                .getMappedResults());
+        // $geoNear orders by distance only; order ties by ID to match the cursor
+        rows.sort(Comparator.<Document>comparingDouble(row -> row.getDouble("distanceMeters"))
+                .thenComparing(row -> row.getObjectId("_id")));
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            // Resuming inside a tie group by ID would skip its unfetched members with lower IDs,
+            // so end the page before a group the page boundary cuts through
+            double boundary = rows.get(limit).getDouble("distanceMeters");
+            int end = limit;
+            while (end > 0 && rows.get(end - 1).getDouble("distanceMeters") == boundary) {
+                end--;
+            }
+            if (end > 0) {
+                rows = rows.subList(0, end);
+            } else {
+                // The group fills the page, so the fetched members are arbitrary; page through the group by ID instead
+                rows = tieGroupPage(userLocation, minRating, boundary, boundary == afterDistance ? afterId : null, limit);
+            }
+            Document last = rows.get(rows.size() - 1);
+            nextCursor = last.getDouble("distanceMeters") + "_" + last.getObjectId("_id").toHexString();
+        }
+        List<NearbyRestaurant> restaurants = rows.stream().map(RestaurantService::toNearbyRestaurant).toList();
+        logger.info("Found {} restaurants with rating >= {} and within {} km for user ID: {}",
+                restaurants.size(), minRating, maxDistanceKm, userId);
+        return new NearbyRestaurantPage(restaurants, nextCursor);
+    }
+
+    // The restaurants at exactly one distance, lowest IDs first, after an ID when resuming inside the group
+    private List<Document> tieGroupPage(double[] userLocation, double minRating, double distanceMeters, ObjectId afterId, int limit) {
+        Document geoNear = nearbyGeoNear(userLocation, minRating, distanceMeters).append("minDistance", distanceMeters);
+        List<AggregationOperation> operations = new ArrayList<>();
+        operations.add(context -> new Document("$geoNear", geoNear));
+        if (afterId != null) {
+            operations.add(context -> new Document("$match", new Document("_id", new Document("$gt", afterId))));
+        }
+        operations.add(Aggregation.sort(Sort.Direction.ASC, "_id"));
+        operations.add(Aggregation.limit(limit));
+        operations.add(NEARBY_PROJECTION);
+        return mongoTemplate.aggregate(Aggregation.newAggregation(operations), Restaurant.class, Document.class).getMappedResults();
+    }
+
+    private static Document nearbyGeoNear(double[] userLocation, double minRating, double maxDistanceMeters) {
+        return new Document("near", new Document("type", "Point").append("coordinates", List.of(userLocation[0], userLocation[1])))
+                .append("key", "location")
+                .append("distanceField", "distanceMeters")
+                .append("spherical", true)
+                .append("maxDistance", maxDistanceMeters)
+                .append("query", new Document("rating", new Document("$gte", minRating)));
+    }
+
+    private static NearbyRestaurant toNearbyRestaurant(Document row) {
+        NearbyRestaurant restaurant = new NearbyRestaurant();
+        restaurant.setId(row.getObjectId("_id").toHexString());
+        restaurant.setName(row.getString("name"));
+        restaurant.setAddress(row.getString("address"));
+        restaurant.setCity(row.getString("city"));
+        Object rating = row.get("rating");
+        restaurant.setRating(rating instanceof Number number ? number.doubleValue() : 0);
+        List<?> location = row.getList("location", Object.class);
+        if (location != null && location.size() == 2) {
+            restaurant.setLocation(new double[]{((Number) location.get(0)).doubleValue(), ((Number) location.get(1)).doubleValue()});
+        }
+        restaurant.setDistanceKm(row.getDouble("distanceMeters") / 1000);
+        return restaurant;
+    }
+
+    private static NearbyRestaurant toNearbyRestaurant(Restaurant source, double distanceKm) {
+        NearbyRestaurant restaurant = new NearbyRestaurant();
+        restaurant.setId(source.getId());
+        restaurant.setName(source.getName());
+        restaurant.setAddress(source.getAddress());
+        restaurant.setCity(source.getCity());
+        restaurant.setRating(source.getRating());
+        restaurant.setLocation(source.getLocation());
+        restaurant.setDistanceKm(distanceKm);
+        return restaurant;
+    }
+
+    // Validates a nearby search and returns the user's location as [longitude, latitude]
+    private double[] nearbySearchOrigin(String userId, double minRating, double maxDistanceKm) {
         // Validate rating
         if (minRating < 0 || minRating > 5) {
             logger.error("Invalid rating value: {}. Must be between 0 and 5", minRating);
@@ -90,9 +448,9 @@ public class RestaurantService {
         }
 
         // Validate distance
-        if (maxDistanceKm <= 0) {
-            logger.error("Invalid distance value: {}. Must be greater than 0", maxDistanceKm);
-            throw new IllegalArgumentException("Distance must be greater than 0");
+        if (maxDistanceKm <= 0 || maxDistanceKm > maxNearbyDistanceKm) {
+            logger.error("Invalid distance value: {}. Must be greater than 0 and at most {}", maxDistanceKm, maxNearbyDistanceKm);
+            throw new IllegalArgumentException("Distance must be greater than 0 and at most " + maxNearbyDistanceKm + " km");
         }
 
         // Fetch user to get their location
@@ -107,9 +465,14 @@ public class RestaurantService {
         }
 
         // User's location [longitude, latitude]
-        double[] userLocation = user.getLocation();
-        double userLongitude = userLocation[0];
-        double userLatitude = userLocation[1];
+        return user.getLocation();
+    }
+
+    private List<Restaurant> loadNearbyRestaurants(double latitude, double longitude, double maxDistanceKm, double minRating, int limit) {
+        if (restaurantGeoIndex.isReady()) {
+            return restaurantGeoIndex.findNearby(latitude, longitude, maxDistanceKm, minRating, limit)
+                    .stream().map(RestaurantGeoIndex.GeoHit::getRestaurant).toList();
+        }
 
         // Convert distance from kilometers to radians (MongoDB uses radians for $nearSphere)
         double maxDistanceRadians = maxDistanceKm / EARTH_RADIUS_KM;
@@ -122,14 +485,12 @@ public class RestaurantService {
 
         // Add geospatial criteria: restaurants within maxDistanceKm
         // Use Point for nearSphere
-        Point userPoint = new Point(userLongitude, userLatitude); // longitude, latitude
+        Point userPoint = new Point(longitude, latitude); // longitude, latitude
         query.addCriteria(Criteria.where("location")
                 .nearSphere(userPoint)
                 .maxDistance(maxDistanceRadians));
+        query.limit(limit);
 
-        List<Restaurant> restaurants = mongoTemplate.find(query, Restaurant.class);
-        logger.info("Found {} restaurants with rating >= {} and within {} km for user ID: {}",
-                restaurants.size(), minRating, maxDistanceKm, userId);
-        return restaurants;
+        return mongoTemplate.find(query, Restaurant.class);
     }
 }
\ No newline at end of file
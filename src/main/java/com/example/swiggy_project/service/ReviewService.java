@@ -0,0 +1,169 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.exception.ResourceNotFoundException;
+import com.example.swiggy_project.model.MenuItem;
+import com.example.swiggy_project.model.Restaurant;
+import com.example.swiggy_project.model.Review;
+import com.example.swiggy_project.model.ReviewPage;
+import com.example.swiggy_project.repository.ReviewRepository;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.validation.Valid;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service class for menu item reviews. Adding a review updates the rating of the item and of
+ * its restaurant incrementally, without reading any other review. Menus whose item ratings
+ * changed are invalidated together every {@code reviews.menu-refresh-interval-ms} rather than
+ * once per review.
+ */
+@Service
+public class ReviewService {
+    private static final Logger logger = LoggerFactory.getLogger(ReviewService.class);
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    @Autowired
+    private PopularMenuItemIndex popularMenuItemIndex;
+
+    @Autowired
+    private MenuCache menuCache;
+
+    // Restaurants with reviews whose item ratings are not yet reflected in the menu cache
+    private final Set<String> reratedRestaurants = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Adds a review and folds its rating into the running averages of the menu item and its
+     * restaurant.
+     *
+     * @param menuItemId the ID of the reviewed menu item
+     * @param userId     the ID of the reviewing user
+     * @param review     the review; only rating and comment are taken from it
+     * @return the saved Review object
+     * @throws ResourceNotFoundException if the menu item is not found
+     */
+    public Review addReview(String menuItemId, String userId, @Valid Review review) {
+        logger.info("Adding review for menu item ID: {} by user ID: {}", menuItemId, userId);
+        Query itemQuery = new Query(Criteria.where("_id").is(menuItemId));
+        itemQuery.fields().include("restaurantId");
+        MenuItem menuItem = mongoTemplate.findOne(itemQuery, MenuItem.class);
+        if (menuItem == null) {
+            logger.warn("Menu item not found with id: {}", menuItemId);
+            throw new ResourceNotFoundException("Menu item not found with id: " + menuItemId);
+        }
+
+        review.setId(null);
+        review.setMenuItemId(menuItemId);
+        review.setRestaurantId(menuItem.getRestaurantId());
+        review.setUserId(userId);
+        review.setCreatedAt(Instant.now());
+        review.setLegacyKey(null);
+        Review saved = reviewRepository.save(review);
+
+        Query ratedQuery = new Query(Criteria.where("_id").is(menuItemId));
+        ratedQuery.fields().include("cuisineType", "numberOfTimesOrdered", "rating");
+        popularMenuItemIndex.update(mongoTemplate.findAndModify(ratedQuery, ratingUpdate(saved.getRating()),
+                FindAndModifyOptions.options().returnNew(true), MenuItem.class));
+        if (menuItem.getRestaurantId() != null) {
+            // The item rating is part of the menu payload; the next refresh bumps the menu version so ETags change
+            reratedRestaurants.add(menuItem.getRestaurantId());
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(menuItem.getRestaurantId())), ratingUpdate(saved.getRating()), Restaurant.class);
+            restaurantService.recordRestaurantChange(menuItem.getRestaurantId());
+        }
+        logger.info("Review added successfully with ID: {}", saved.getId());
+        return saved;
+    }
+
+    /**
+     * Invalidates the menus of restaurants reviewed since the last run, once each, so a burst of
+     * reviews costs one menu version bump and one reindex per node instead of one per review.
+     */
+    @Scheduled(fixedDelayString = "${reviews.menu-refresh-interval-ms:30000}")
+    public void refreshReratedMenus() {
+        for (String restaurantId : List.copyOf(reratedRestaurants)) {
+            reratedRestaurants.remove(restaurantId);
+            try {
+                menuCache.invalidate(restaurantId);
+            } catch (Exception e) {
+                logger.warn("Failed to refresh menu ratings for restaurant ID: {}, will retry: {}", restaurantId, e.getMessage());
+                reratedRestaurants.add(restaurantId);
+            }
+        }
+    }
+
+    /**
+     * Retrieves a page of a menu item's reviews, newest first, using the review ID as a
+     * keyset cursor so deep pages cost the same as the first.
+     *
+     * @param menuItemId the ID of the menu item
+     * @param before     the {@code nextCursor} of the previous page, or null for the first page
+     * @param limit      the page size, between 1 and 100
+     * @return the page of reviews
+     * @throws IllegalArgumentException if the cursor or limit is invalid
+     */
+    public ReviewPage getReviews(String menuItemId, String before, int limit) {
+        logger.info("Retrieving reviews for menu item ID: {} before: {}", menuItemId, before);
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Criteria criteria = Criteria.where("menuItemId").is(menuItemId);
+        if (before != null) {
+            if (!ObjectId.isValid(before)) {
+                throw new IllegalArgumentException("Invalid review cursor: " + before);
+            }
+            criteria = criteria.and("_id").lt(new ObjectId(before));
+        }
+        // One extra row tells whether another page exists
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.DESC, "_id")).limit(limit + 1);
+        List<Review> reviews = mongoTemplate.find(query, Review.class);
+        String nextCursor = null;
+        if (reviews.size() > limit) {
+            reviews = reviews.subList(0, limit);
+            nextCursor = reviews.get(limit - 1).getId();
+        }
+        logger.info("Found {} reviews for menu item ID: {}", reviews.size(), menuItemId);
+        return new ReviewPage(reviews, nextCursor);
+    }
+
+    // Adds one rating to ratingCount/ratingSum and recomputes the average in the same atomic update.
+    // A document rated before the counters existed counts its existing rating as one sample.
+    private AggregationUpdate ratingUpdate(int rating) {
+        Document counted = new Document("$gt", List.of(new Document("$ifNull", List.of("$ratingCount", 0)), 0));
+        Document seedCount = new Document("$cond", List.of(
+                new Document("$gt", List.of(new Document("$ifNull", List.of("$rating", 0)), 0)), 1, 0));
+        Document priorCount = new Document("$cond", List.of(counted, "$ratingCount", seedCount));
+        Document priorSum = new Document("$cond", List.of(counted, new Document("$ifNull", List.of("$ratingSum", 0)),
+                new Document("$ifNull", List.of("$rating", 0))));
+        AggregationOperation accumulate = context -> new Document("$set", new Document()
+                .append("ratingCount", new Document("$add", List.of(priorCount, 1)))
+                .append("ratingSum", new Document("$add", List.of(priorSum, rating))));
+        AggregationOperation average = context -> new Document("$set",
+                new Document("rating", new Document("$round", List.of(new Document("$divide", List.of("$ratingSum", "$ratingCount")), 2))));
+        return AggregationUpdate.from(List.of(accumulate, average));
+    }
+}
\ No newline at end of file
@@ -7,6 +7,11 @@ import com.example.swiggy_project.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -15,6 +20,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -33,6 +39,9 @@ public class UserService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         logger.info("Loading user by username: {}", username);
@@ -89,28 +98,32 @@ public class UserService implements UserDetailsService {
             logger.error("Email already exists: {}", user.getEmail());
             throw new IllegalArgumentException("Email already exists: " + user.getEmail());
         }
-        existing.setUsername(user.getUsername());
-        existing.setAddress(user.getAddress());
-        existing.setPhoneNo(user.getPhoneNo());
-        existing.setEmail(user.getEmail());
+        // Set only the profile fields; saving the whole document would overwrite order history and
+        // counters written since it was read
+        Update update = new Update()
+                .set("username", user.getUsername())
+                .set("address", user.getAddress())
+                .set("phoneNo", user.getPhoneNo())
+                .set("email", user.getEmail())
+                .set("role", user.getRole())
+                .set("firstName", user.getFirstName())
+                .set("lastName", user.getLastName())
+                .set("gender", user.getGender())
+                .set("bio", user.getBio());
         // Only update password if provided
         if (user.getPassword() != null && !user.getPassword().isEmpty()) {
-            existing.setPassword(passwordEncoder.encode(user.getPassword()));
+            update.set("password", passwordEncoder.encode(user.getPassword()));
         }
-        existing.setRole(user.getRole());
-        existing.setFirstName(user.getFirstName());
-        existing.setLastName(user.getLastName());
-        existing.setGender(user.getGender());
-        existing.setBio(user.getBio());
         // Preserve the likedMenuItems and location fields
         if (user.getLikedMenuItems() != null) {
-            existing.setLikedMenuItems(user.getLikedMenuItems());
+            update.set("likedMenuItems", user.getLikedMenuItems());
         }
         if (user.getLocation() != null) {
-            existing.setLocation(user.getLocation());
+            update.set("location", user.getLocation());
         }
+        User updated = modifyUser(userId, update);
         logger.info("User updated successfully with ID: {}", userId);
-        return userRepository.save(existing);
+        return updated;
     }
 
     public void deleteUser(String userId) {
@@ -130,16 +143,21 @@ public class UserService implements UserDetailsService {
      */
     public User likeMenuItem(String userId, String menuItemId) {
         logger.info("User ID: {} liking menu item ID: {}", userId, menuItemId);
-        User user = getUser(userId);
-        MenuItem menuItem = menuItemService.getMenuItemById(menuItemId); // Validates the menu item exists
-        List<String> likedItems = user.getLikedMenuItems();
-        if (!likedItems.contains(menuItemId)) {
-            likedItems.add(menuItemId);
-            user.setLikedMenuItems(likedItems);
-            logger.info("Menu item ID: {} added to liked items for user ID: {}", menuItemId, userId);
-            return userRepository.save(user);
+        menuItemService.getMenuItemById(menuItemId); // Validates the menu item exists
+        // $addToSet is a no-op when already liked and leaves the rest of the document alone
+        User user = modifyUser(userId, new Update().addToSet("likedMenuItems", menuItemId));
+        logger.info("Menu item ID: {} is in liked items for user ID: {}", menuItemId, userId);
+        return user;
+    }
+
+    // Applies a targeted update and returns the user as written
+    private User modifyUser(String userId, Update update) {
+        User user = mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(userId)), update,
+                FindAndModifyOptions.options().returnNew(true), User.class);
+        if (user == null) {
+            logger.warn("User not found with ID: {}", userId);
+            throw new ResourceNotFoundException("User not found: " + userId);
         }
-        logger.info("Menu item ID: {} already liked by user ID: {}", menuItemId, userId);
         return user;
     }
 
@@ -154,8 +172,16 @@ public class UserService implements UserDetailsService {
         logger.info("Retrieving liked menu items for user ID: {}", userId);
         User user = getUser(userId);
         List<String> likedItemIds = user.getLikedMenuItems();
+        // One batched lookup; a liked item that no longer exists still fails the request
+        Map<String, MenuItem> menuItems = menuItemService.getMenuItemsByIds(likedItemIds);
         return likedItemIds.stream()
-                .map(menuItemService::getMenuItemById)
+                .map(id -> {
+                    MenuItem menuItem = menuItems.get(id);
+                    if (menuItem == null) {
+                        throw new ResourceNotFoundException("Menu item not found with id: " + id);
+                    }
+                    return menuItem;
+                })
                 .collect(Collectors.toList());
     }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.example.swiggy_project.util;
+
+import java.util.Set;
+
+/**
+ * Best-effort extraction of structured parts from free-text Indian addresses such as
+ * {@code "12 MG Road, Indiranagar, Bengaluru, Karnataka 560038"}.
+ */
+public final class AddressParser {
+
+    // Normalized names of states and union territories, which often follow the city
+    private static final Set<String> STATES = Set.of(
+            "andhra pradesh", "arunachal pradesh", "assam", "bihar", "chhattisgarh", "goa", "gujarat",
+            "haryana", "himachal pradesh", "jharkhand", "karnataka", "kerala", "madhya pradesh",
+            "maharashtra", "manipur", "meghalaya", "mizoram", "nagaland", "odisha", "orissa", "punjab",
+            "rajasthan", "sikkim", "tamil nadu", "telangana", "tripura", "uttar pradesh", "uttarakhand",
+            "west bengal", "andaman and nicobar islands", "chandigarh", "dadra and nagar haveli",
+            "daman and diu", "jammu and kashmir", "ladakh", "lakshadweep", "puducherry", "pondicherry",
+            "india");
+
+    private AddressParser() {}
+
+    /**
+     * Returns the city of an address: the last comma-separated part that is not a postal
+     * code, a state or the country, with any trailing postal code removed.
+     *
+     * @param address the free-text address
+     * @return the city as written in the address, or null if none can be identified
+     */
+    public static String extractCity(String address) {
+        if (address == null) {
+            return null;
+        }
+        String[] parts = address.split(",");
+        // The first part is the street line, which is never taken as the city on its own
+        for (int i = parts.length - 1; i >= 1; i--) {
+            String part = parts[i].replaceAll("[\\s-]*\\d[\\d\\s]*$", "").trim();
+            String normalized = SearchText.normalize(part);
+            if (!normalized.isEmpty() && !STATES.contains(normalized) && !normalized.chars().allMatch(Character::isDigit)) {
+                return part;
+            }
+        }
+        return null;
+    }
+}
\ No newline at end of file
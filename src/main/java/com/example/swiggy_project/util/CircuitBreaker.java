@@ -0,0 +1,91 @@
+package com.example.swiggy_project.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Consecutive-failure circuit breaker for calls to a remote dependency.
+ * <p>
+ * While closed, calls go through and {@code failureThreshold} consecutive failures open the
+ * breaker. While open, calls are rejected without touching the dependency until
+ * {@code openDuration} has passed; then a single trial call is let through (half-open), whose
+ * success closes the breaker and whose failure opens it for another period.
+ */
+public class CircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        this(name, failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int failureThreshold, Duration openDuration, LongSupplier nanoClock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Failure threshold must be at least 1");
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Asks permission for one call. Every permitted call must be followed by
+     * {@link #recordSuccess()} or {@link #recordFailure()}.
+     *
+     * @return true if the call may proceed
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (nanoClock.getAsLong() - openedAt < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                logger.info("Circuit breaker {} is half-open; letting a trial call through", name);
+                return true;
+            default:
+                return false; // A trial call is already in flight
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            logger.info("Circuit breaker {} closed", name);
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = nanoClock.getAsLong();
+            logger.warn("Circuit breaker {} opened after {} consecutive failures", name, consecutiveFailures);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
\ No newline at end of file
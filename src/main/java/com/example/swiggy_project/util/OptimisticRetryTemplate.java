@@ -0,0 +1,92 @@
+package com.example.swiggy_project.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs read-modify-write operations on {@code @Version}ed documents and retries them
+ * when a concurrent writer wins the race. Each attempt must reload the document and
+ * re-apply its change, so the retry merges the caller's intent onto the latest state
+ * instead of overwriting it.
+ */
+@Component
+public class OptimisticRetryTemplate {
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticRetryTemplate.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${optimistic-lock.max-attempts:3}")
+    private int maxAttempts;
+
+    /**
+     * Executes the action, retrying on optimistic lock conflicts up to the configured
+     * number of attempts.
+     *
+     * @param entity a short name of the document type, used for logging and metrics
+     * @param action the read-modify-write operation; must reload its document on every call
+     * @return the result of the first successful attempt
+     * @throws OptimisticLockingFailureException if every attempt conflicted
+     */
+    public <T> T execute(String entity, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = action.get();
+                counter("optimistic.lock.writes", entity).increment();
+                return result;
+            } catch (OptimisticLockingFailureException | DuplicateKeyException e) {
+                counter("optimistic.lock.conflicts", entity).increment();
+                if (attempt >= maxAttempts) {
+                    counter("optimistic.lock.exhausted", entity).increment();
+                    logger.error("Giving up on {} update after {} conflicting attempts", entity, attempt);
+                    throw e;
+                }
+                logger.warn("Concurrent update on {} (attempt {}/{}), retrying with fresh state", entity, attempt, maxAttempts);
+                backoff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Stamps a document written before versioning was introduced with version 0, so that
+     * it can be saved as an update instead of being mistaken for a new document.
+     *
+     * @param type the document class
+     * @param id   the ID of the document
+     */
+    public void adoptUnversioned(Class<?> type, String id) {
+        Query query = new Query(Criteria.where("_id").is(id).and("version").exists(false));
+        mongoTemplate.updateFirst(query, new Update().set("version", 0L), type);
+        logger.debug("Stamped legacy {} document {} with version 0", type.getSimpleName(), id);
+    }
+
+    private Counter counter(String name, String entity) {
+        return Counter.builder(name).tag("entity", entity).register(meterRegistry);
+    }
+
+    private void backoff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 5L * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying a conflicting update", e);
+        }
+    }
+}
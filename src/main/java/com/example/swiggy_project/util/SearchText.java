@@ -0,0 +1,42 @@
+package com.example.swiggy_project.util;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Text normalization shared by the stored search fields and the queries run against them, so
+ * both sides always agree on case, accents and punctuation.
+ */
+public final class SearchText {
+
+    public static final int GRAM_SIZE = 3;
+
+    private SearchText() {}
+
+    /**
+     * Lower-cases, strips accents and collapses every run of non-alphanumeric characters to a
+     * single space, e.g. {@code "Café  Coffee-Day!"} becomes {@code "cafe coffee day"}.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+        return decomposed.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    /**
+     * Returns the distinct character trigrams of already normalized text, spaces included, so
+     * a query spanning two words only matches names containing that exact phrase.
+     */
+    public static List<String> grams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM_SIZE));
+        }
+        return List.copyOf(grams);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,150 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.model.Cart;
+import com.example.swiggy_project.model.MenuItem;
+import com.example.swiggy_project.repository.CartRepository;
+import com.example.swiggy_project.util.OptimisticRetryTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cart writes racing each other, with the repository standing in for MongoDB's version check.
+ */
+class CartServiceTest {
+
+    private CartRepository cartRepository;
+    private MenuItemService menuItemService;
+    private CartService cartService;
+
+    @BeforeEach
+    void setUp() {
+        cartRepository = mock(CartRepository.class);
+        menuItemService = mock(MenuItemService.class);
+        OptimisticRetryTemplate retryTemplate = new OptimisticRetryTemplate();
+        ReflectionTestUtils.setField(retryTemplate, "mongoTemplate", mock(MongoTemplate.class));
+        ReflectionTestUtils.setField(retryTemplate, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(retryTemplate, "maxAttempts", 3);
+        cartService = new CartService();
+        ReflectionTestUtils.setField(cartService, "cartRepository", cartRepository);
+        ReflectionTestUtils.setField(cartService, "menuItemService", menuItemService);
+        ReflectionTestUtils.setField(cartService, "optimisticRetryTemplate", retryTemplate);
+    }
+
+    @Test
+    void checkoutEmptiesTheCartItRead() {
+        Cart checkedOut = cart(1L, Map.of("pizza", 2));
+        when(cartRepository.save(any(Cart.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        cartService.clearOrderedItems(checkedOut);
+
+        ArgumentCaptor<Cart> saved = ArgumentCaptor.forClass(Cart.class);
+        verify(cartRepository).save(saved.capture());
+        assertTrue(saved.getValue().getItems().isEmpty());
+        verify(cartRepository, times(0)).findByUserId(any());
+    }
+
+    @Test
+    void itemsAddedDuringCheckoutSurviveTheClear() {
+        Cart checkedOut = cart(1L, Map.of("pizza", 2));
+        // While the order was written, another request added a drink and one more pizza
+        Cart latest = cart(2L, Map.of("pizza", 3, "cola", 1));
+        when(cartRepository.save(any(Cart.class)))
+                .thenThrow(new OptimisticLockingFailureException("version 1 is stale"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(cartRepository.findByUserId("user-1")).thenReturn(Optional.of(latest));
+
+        cartService.clearOrderedItems(checkedOut);
+
+        ArgumentCaptor<Cart> saved = ArgumentCaptor.forClass(Cart.class);
+        verify(cartRepository, times(2)).save(saved.capture());
+        assertEquals(Map.of("pizza", 1, "cola", 1), quantities(saved.getAllValues().get(1)));
+    }
+
+    @Test
+    void clearRetriesWhenTheLatestCartChangesAgain() {
+        Cart checkedOut = cart(1L, Map.of("pizza", 2));
+        when(cartRepository.save(any(Cart.class)))
+                .thenThrow(new OptimisticLockingFailureException("version 1 is stale"))
+                .thenThrow(new OptimisticLockingFailureException("version 2 is stale"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(cartRepository.findByUserId("user-1"))
+                .thenReturn(Optional.of(cart(2L, Map.of("pizza", 2))))
+                .thenReturn(Optional.of(cart(3L, Map.of("pizza", 2, "cola", 2))));
+
+        cartService.clearOrderedItems(checkedOut);
+
+        ArgumentCaptor<Cart> saved = ArgumentCaptor.forClass(Cart.class);
+        verify(cartRepository, times(3)).save(saved.capture());
+        assertEquals(Map.of("cola", 2), quantities(saved.getAllValues().get(2)));
+    }
+
+    @Test
+    void concurrentAddIsReappliedOnTheFreshCart() {
+        MenuItem pizza = new MenuItem();
+        pizza.setId("pizza");
+        pizza.setPrice(250);
+        when(menuItemService.getMenuItemById("pizza")).thenReturn(pizza);
+        when(cartRepository.findByUserId("user-1"))
+                .thenReturn(Optional.of(cart(1L, Map.of())))
+                .thenReturn(Optional.of(cart(2L, Map.of("pizza", 1))));
+        when(cartRepository.save(any(Cart.class)))
+                .thenThrow(new OptimisticLockingFailureException("version 1 is stale"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        Cart result = cartService.updateCart("user-1", "pizza", 2);
+
+        assertEquals(Map.of("pizza", 3), quantities(result));
+    }
+
+    @Test
+    void givesUpAfterTheConfiguredAttempts() {
+        MenuItem pizza = new MenuItem();
+        pizza.setId("pizza");
+        when(menuItemService.getMenuItemById("pizza")).thenReturn(pizza);
+        when(cartRepository.findByUserId("user-1")).thenAnswer(invocation -> Optional.of(cart(1L, Map.of())));
+        when(cartRepository.save(any(Cart.class))).thenThrow(new OptimisticLockingFailureException("always stale"));
+
+        assertThrows(OptimisticLockingFailureException.class, () -> cartService.updateCart("user-1", "pizza", 1));
+        verify(cartRepository, times(3)).save(any(Cart.class));
+    }
+
+    private static Cart cart(Long version, Map<String, Integer> quantities) {
+        Cart cart = new Cart();
+        cart.setId("cart-1");
+        cart.setUserId("user-1");
+        cart.setVersion(version);
+        List<Cart.CartItem> items = new ArrayList<>();
+        quantities.forEach((menuItemId, quantity) -> {
+            Cart.CartItem item = new Cart.CartItem();
+            item.setMenuItemId(menuItemId);
+            item.setQuantity(quantity);
+            items.add(item);
+        });
+        cart.setItems(items);
+        return cart;
+    }
+
+    private static Map<String, Integer> quantities(Cart cart) {
+        return cart.getItems().stream().collect(Collectors.toMap(Cart.CartItem::getMenuItemId, Cart.CartItem::getQuantity));
+    }
+}
\ No newline at end of file
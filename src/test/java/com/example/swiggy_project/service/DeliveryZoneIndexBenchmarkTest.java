@@ -0,0 +1,123 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.model.DeliveryZone;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures serviceability lookup throughput of the delivery zone grid index against a naive
+ * point-in-polygon scan over every zone, and checks both agree. Runs only when asked for:
+ * <pre>
+ * mvn test -Dtest=DeliveryZoneIndexBenchmarkTest -Dbenchmark.zones=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark.zones", matches = "true")
+class DeliveryZoneIndexBenchmarkTest {
+
+    private static final int RESTAURANTS = 20_000;
+    private static final int VERTICES = 24;
+    private static final int LOOKUPS = 1_000_000;
+    private static final int NAIVE_LOOKUPS = 2_000;
+    private static final double CENTER_LATITUDE = 12.9716;
+    private static final double CENTER_LONGITUDE = 77.5946;
+    private static final double KM_PER_DEGREE = 111.32;
+
+    @Test
+    void gridIndexAgainstNaiveScan() {
+        Random random = new Random(42);
+        List<DeliveryZone> zones = new ArrayList<>();
+        double[][] centers = new double[RESTAURANTS][];
+        for (int i = 0; i < RESTAURANTS; i++) {
+            centers[i] = new double[]{CENTER_LONGITUDE + (random.nextDouble() - 0.5), CENTER_LATITUDE + (random.nextDouble() - 0.5)};
+            zones.add(zone("restaurant-" + i, centers[i], 3 + random.nextDouble() * 4, random));
+        }
+        DeliveryZoneIndex index = new DeliveryZoneIndex();
+        ReflectionTestUtils.setField(index, "cellDegrees", 0.05);
+        long buildStart = System.nanoTime();
+        index.load(zones);
+        System.out.printf("Built index of %d zones in %.1f ms%n", RESTAURANTS, (System.nanoTime() - buildStart) / 1_000_000.0);
+
+        // A user within 10 km of the restaurant they are ordering from
+        String[] owners = new String[LOOKUPS];
+        double[][] points = new double[LOOKUPS][];
+        for (int i = 0; i < LOOKUPS; i++) {
+            int restaurant = random.nextInt(RESTAURANTS);
+            owners[i] = DeliveryZoneIndex.restaurantOwner("restaurant-" + restaurant);
+            double[] center = centers[restaurant];
+            points[i] = new double[]{center[0] + (random.nextDouble() - 0.5) * 0.18, center[1] + (random.nextDouble() - 0.5) * 0.18};
+        }
+
+        for (int i = 0; i < NAIVE_LOOKUPS; i++) {
+            assertEquals(naiveContains(zones, owners[i], points[i]), index.contains(owners[i], points[i][1], points[i][0]),
+                    "Lookup " + i + " disagrees with the naive scan");
+        }
+
+        int served = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            served += index.contains(owners[i], points[i][1], points[i][0]) ? 1 : 0;
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            index.contains(owners[i], points[i][1], points[i][0]);
+        }
+        double indexedPerSecond = LOOKUPS / ((System.nanoTime() - start) / 1e9);
+
+        start = System.nanoTime();
+        for (int i = 0; i < NAIVE_LOOKUPS; i++) {
+            naiveContains(zones, owners[i], points[i]);
+        }
+        double naivePerSecond = NAIVE_LOOKUPS / ((System.nanoTime() - start) / 1e9);
+
+        System.out.printf("%-12s %16s%n", "lookup", "lookups/s");
+        System.out.printf("%-12s %16.0f%n", "grid index", indexedPerSecond);
+        System.out.printf("%-12s %16.0f%n", "naive scan", naivePerSecond);
+        System.out.printf("%d of %d lookups were serviceable%n", served, LOOKUPS);
+    }
+
+    // Regular polygon of the given radius around a [longitude, latitude] center
+    private static DeliveryZone zone(String restaurantId, double[] center, double radiusKm, Random random) {
+        DeliveryZone zone = new DeliveryZone();
+        zone.setRestaurantId(restaurantId);
+        double latitudeRadius = radiusKm / KM_PER_DEGREE;
+        double longitudeRadius = radiusKm / (KM_PER_DEGREE * Math.cos(Math.toRadians(center[1])));
+        double rotation = random.nextDouble() * Math.PI;
+        List<double[]> polygon = new ArrayList<>();
+        for (int v = 0; v < VERTICES; v++) {
+            double angle = rotation + 2 * Math.PI * v / VERTICES;
+            polygon.add(new double[]{center[0] + longitudeRadius * Math.cos(angle), center[1] + latitudeRadius * Math.sin(angle)});
+        }
+        zone.setPolygon(polygon);
+        return zone;
+    }
+
+    // Ray casting over every zone of the owner, found by scanning all zones, as a check without an index would do
+    private static boolean naiveContains(List<DeliveryZone> zones, String owner, double[] point) {
+        String restaurantId = owner.substring(owner.indexOf(':') + 1);
+        for (DeliveryZone zone : zones) {
+            if (!restaurantId.equals(zone.getRestaurantId())) {
+                continue;
+            }
+            boolean inside = false;
+            List<double[]> polygon = zone.getPolygon();
+            for (int i = 0, j = polygon.size() - 1; i < polygon.size(); j = i++) {
+                double[] a = polygon.get(i);
+                double[] b = polygon.get(j);
+                if ((a[1] > point[1]) != (b[1] > point[1])
+                        && point[0] < (b[0] - a[0]) * (point[1] - a[1]) / (b[1] - a[1]) + a[0]) {
+                    inside = !inside;
+                }
+            }
+            if (inside) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
\ No newline at end of file
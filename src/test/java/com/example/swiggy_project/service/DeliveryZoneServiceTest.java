@@ -0,0 +1,148 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.model.DeliveryZone;
+import com.example.swiggy_project.model.Restaurant;
+import com.example.swiggy_project.repository.DeliveryZoneRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Serviceability checks against the delivery zone index, with zones loaded directly into it.
+ */
+class DeliveryZoneServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private DeliveryZoneRepository deliveryZoneRepository;
+    private DeliveryZoneIndex index;
+    private DeliveryZoneService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        deliveryZoneRepository = mock(DeliveryZoneRepository.class);
+        index = new DeliveryZoneIndex();
+        ReflectionTestUtils.setField(index, "cellDegrees", 0.5);
+        ReflectionTestUtils.setField(index, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(index, "deliveryZoneRepository", deliveryZoneRepository);
+        ReflectionTestUtils.setField(index, "meterRegistry", new SimpleMeterRegistry());
+        service = new DeliveryZoneService();
+        ReflectionTestUtils.setField(service, "deliveryZoneIndex", index);
+        ReflectionTestUtils.setField(service, "mongoTemplate", mongoTemplate);
+    }
+
+    @Test
+    void concavePolygonExcludesItsNotch() {
+        // A U shape: two arms joined at the bottom, open between x = 1 and x = 2 above y = 1
+        index.load(List.of(restaurantZone("r1", new double[][]{{0, 0}, {3, 0}, {3, 3}, {2, 3}, {2, 1}, {1, 1}, {1, 3}, {0, 3}})));
+
+        assertTrue(service.isServiceable("r1", new double[]{0.5, 2.5}));
+        assertTrue(service.isServiceable("r1", new double[]{2.5, 2.5}));
+        assertTrue(service.isServiceable("r1", new double[]{1.5, 0.5}));
+        assertFalse(service.isServiceable("r1", new double[]{1.5, 2.5}));
+        assertFalse(service.isServiceable("r1", new double[]{3.5, 0.5}));
+    }
+
+    @Test
+    void pointsOnCellBoundariesAreFound() {
+        // Cells are 0.5 degrees wide; the zone spans several and its corners sit on cell lines
+        index.load(List.of(restaurantZone("r1", new double[][]{{0.5, 0.5}, {1.5, 0.5}, {1.5, 1.5}, {0.5, 1.5}})));
+
+        assertTrue(service.isServiceable("r1", new double[]{1.0, 1.0}));
+        assertTrue(service.isServiceable("r1", new double[]{1.0, 0.75}));
+        assertTrue(service.isServiceable("r1", new double[]{0.5000001, 1.4999999}));
+        assertFalse(service.isServiceable("r1", new double[]{0.4999999, 1.0}));
+        assertFalse(service.isServiceable("r1", new double[]{1.0, 1.5000001}));
+    }
+
+    @Test
+    void restaurantZonesTakePrecedenceOverCityZones() {
+        index.load(List.of(
+                restaurantZone("r1", new double[][]{{0, 0}, {1, 0}, {1, 1}, {0, 1}}),
+                cityZone("bengaluru", new double[][]{{0, 0}, {4, 0}, {4, 4}, {0, 4}})));
+        when(mongoTemplate.findOne(any(Query.class), eq(Restaurant.class))).thenReturn(restaurant("bengaluru"));
+
+        // r1 only delivers within its own zone, even inside its city's zone
+        assertTrue(service.isServiceable("r1", new double[]{0.5, 0.5}));
+        assertFalse(service.isServiceable("r1", new double[]{3, 3}));
+        // r2 has no zone of its own, so its city's zone applies
+        assertTrue(service.isServiceable("r2", new double[]{3, 3}));
+        assertFalse(service.isServiceable("r2", new double[]{5, 5}));
+        assertFalse(service.isServiceable("r2", null));
+    }
+
+    @Test
+    void restaurantOutsideAnyZonedCityDeliversEverywhere() {
+        index.load(List.of(cityZone("bengaluru", new double[][]{{0, 0}, {4, 0}, {4, 4}, {0, 4}})));
+        when(mongoTemplate.findOne(any(Query.class), eq(Restaurant.class))).thenReturn(restaurant("mysuru"));
+
+        assertTrue(service.isServiceable("r3", new double[]{10, 10}));
+    }
+
+    @Test
+    void noZonesMeansEverywhereIsServiceable() {
+        index.load(List.of());
+
+        assertTrue(service.isServiceable("r1", new double[]{10, 10}));
+        assertTrue(service.isServiceable("r1", null));
+    }
+
+    @Test
+    void inactiveNewestZoneDoesNotForceReloads() {
+        DeliveryZone active = restaurantZone("r1", new double[][]{{0, 0}, {1, 0}, {1, 1}, {0, 1}});
+        active.setUpdatedAt(Instant.parse("2024-01-01T00:00:00Z"));
+        DeliveryZone inactive = restaurantZone("r2", new double[][]{{0, 0}, {1, 0}, {1, 1}, {0, 1}});
+        inactive.setActive(false);
+        inactive.setUpdatedAt(Instant.parse("2024-02-01T00:00:00Z"));
+        when(mongoTemplate.count(any(Query.class), eq(DeliveryZone.class))).thenReturn(2L);
+        when(mongoTemplate.findOne(any(Query.class), eq(DeliveryZone.class))).thenReturn(inactive);
+        when(deliveryZoneRepository.findByActiveTrue()).thenReturn(List.of(active));
+
+        index.reload();
+        index.reloadIfChanged();
+        index.reloadIfChanged();
+
+        verify(deliveryZoneRepository, times(1)).findByActiveTrue();
+
+        when(mongoTemplate.count(any(Query.class), eq(DeliveryZone.class))).thenReturn(3L);
+        index.reloadIfChanged();
+
+        verify(deliveryZoneRepository, times(2)).findByActiveTrue();
+    }
+
+    private static DeliveryZone restaurantZone(String restaurantId, double[][] points) {
+        DeliveryZone zone = new DeliveryZone();
+        zone.setRestaurantId(restaurantId);
+        zone.setPolygon(new ArrayList<>(List.of(points)));
+        return zone;
+    }
+
+    private static DeliveryZone cityZone(String city, double[][] points) {
+        DeliveryZone zone = new DeliveryZone();
+        zone.setCity(city);
+        zone.setPolygon(new ArrayList<>(List.of(points)));
+        return zone;
+    }
+
+    private static Restaurant restaurant(String normalizedCity) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setNormalizedCity(normalizedCity);
+        return restaurant;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,163 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.exception.ResourceNotFoundException;
+import com.example.swiggy_project.model.MenuItem;
+import com.example.swiggy_project.repository.MenuItemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MenuItemBatchLoaderTest {
+
+    private MenuItemRepository menuItemRepository;
+    private MenuItemBatchLoader loader;
+    private ExecutorService callers;
+    // The IDs of every query sent, in order
+    private final List<List<String>> queries = new CopyOnWriteArrayList<>();
+    private volatile CountDownLatch release = new CountDownLatch(0);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        menuItemRepository = mock(MenuItemRepository.class);
+        when(menuItemRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<String> ids = new ArrayList<>((Collection<String>) invocation.getArgument(0));
+            queries.add(ids);
+            release.await(5, TimeUnit.SECONDS);
+            return ids.stream().filter(id -> !id.startsWith("missing")).map(MenuItemBatchLoaderTest::menuItem).toList();
+        });
+        loader = new MenuItemBatchLoader();
+        ReflectionTestUtils.setField(loader, "menuItemRepository", menuItemRepository);
+        ReflectionTestUtils.setField(loader, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(loader, "windowMillis", 1_000L);
+        ReflectionTestUtils.setField(loader, "maxBatchSize", 500);
+        ReflectionTestUtils.setField(loader, "timeoutMillis", 2_000L);
+        callers = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        loader.shutdown();
+    }
+
+    @Test
+    void lookupWhileIdleIsSentWithoutWaitingForTheWindow() {
+        long start = System.nanoTime();
+
+        assertEquals("Item item-1", loader.load("item-1").getName());
+
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500), "Lookup waited for the window");
+        assertEquals(List.of(List.of("item-1")), queries);
+    }
+
+    @Test
+    void lookupsArrivingDuringAQueryAreSentTogetherWhenItReturns() throws Exception {
+        release = new CountDownLatch(1);
+        Future<MenuItem> first = callers.submit(() -> loader.load("item-1"));
+        awaitQueries(1);
+        List<Future<MenuItem>> gathered = new ArrayList<>();
+        for (String id : List.of("item-2", "item-3", "item-2")) {
+            gathered.add(callers.submit(() -> loader.load(id)));
+        }
+        Thread.sleep(50);
+        release.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        for (Future<MenuItem> future : gathered) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(2, queries.size());
+        assertEquals(List.of("item-2", "item-3"), queries.get(1).stream().sorted().toList());
+    }
+
+    @Test
+    void everyCallerGetsItsOwnCopy() throws Exception {
+        release = new CountDownLatch(1);
+        Future<MenuItem> blocker = callers.submit(() -> loader.load("item-0"));
+        awaitQueries(1);
+        Future<MenuItem> first = callers.submit(() -> loader.load("item-1"));
+        Future<MenuItem> second = callers.submit(() -> loader.load("item-1"));
+        Thread.sleep(50);
+        release.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+
+        MenuItem a = first.get(5, TimeUnit.SECONDS);
+        MenuItem b = second.get(5, TimeUnit.SECONDS);
+        assertNotSame(a, b);
+        a.setName("changed");
+        assertEquals("Item item-1", b.getName());
+        assertNull(b.getFoodMenu());
+    }
+
+    @Test
+    void loadAllLeavesOutMissingItems() {
+        Map<String, MenuItem> found = loader.loadAll(List.of("item-1", "missing-1", "item-2", "item-1"));
+
+        assertEquals(List.of("item-1", "item-2"), List.copyOf(found.keySet()));
+        assertEquals(1, queries.size());
+        assertThrows(ResourceNotFoundException.class, () -> loader.load("missing-2"));
+    }
+
+    @Test
+    void loadAllSplitsLargeRequestsIntoBatches() {
+        ReflectionTestUtils.setField(loader, "maxBatchSize", 10);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            ids.add("item-" + i);
+        }
+
+        assertEquals(25, loader.loadAll(ids).size());
+        assertEquals(List.of(10, 10, 5), queries.stream().map(List::size).sorted((a, b) -> b - a).toList());
+    }
+
+    @Test
+    void slowQueryTimesOut() {
+        release = new CountDownLatch(1);
+        ReflectionTestUtils.setField(loader, "timeoutMillis", 100L);
+
+        assertThrows(QueryTimeoutException.class, () -> loader.load("item-1"));
+        // Gathered behind the slow query, and the window is longer than the timeout
+        assertThrows(QueryTimeoutException.class, () -> loader.load("item-2"));
+    }
+
+    private void awaitQueries(int count) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (queries.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(count, queries.size());
+    }
+
+    private static MenuItem menuItem(String id) {
+        MenuItem menuItem = new MenuItem();
+        menuItem.setId(id);
+        menuItem.setName("Item " + id);
+        menuItem.setFoodMenuId("menu-1");
+        return menuItem;
+    }
+}
\ No newline at end of file
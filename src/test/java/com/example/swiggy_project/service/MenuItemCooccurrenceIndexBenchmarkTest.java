@@ -0,0 +1,79 @@
+package com.example.swiggy_project.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Builds menu item co-occurrences from synthetic orders and measures build time, snapshot size
+ * and lookup latency. Runs only when asked for:
+ * <pre>
+ * mvn test -Dtest=MenuItemCooccurrenceIndexBenchmarkTest -Dbenchmark.cooccurrence=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark.cooccurrence", matches = "true")
+class MenuItemCooccurrenceIndexBenchmarkTest {
+
+    private static final int MENU_ITEMS = 50_000;
+    private static final int ORDERS = 1_000_000;
+    private static final int NEIGHBOURS = 20;
+    private static final int LOOKUPS = 200_000;
+    private static final int WARM_UP_RUNS = 3;
+
+    @Test
+    void buildAndLookup() throws Exception {
+        Random random = new Random(42);
+        MenuItemCooccurrenceIndex.Baskets baskets = new MenuItemCooccurrenceIndex.Baskets();
+        for (int i = 0; i < ORDERS; i++) {
+            // Skewed towards popular items, as real orders are
+            List<String> order = new ArrayList<>();
+            for (int items = 2 + random.nextInt(4); items > 0; items--) {
+                order.add("item-" + (int) (MENU_ITEMS * Math.pow(random.nextDouble(), 3)));
+            }
+            baskets.add(order);
+        }
+
+        long buildStart = System.nanoTime();
+        MenuItemCooccurrenceIndex.Snapshot snapshot = MenuItemCooccurrenceIndex.compute(
+                baskets, NEIGHBOURS, 2, 20_000, ForkJoinPool.commonPool(), Instant.now());
+        System.out.printf("Built co-occurrences of %d items from %d orders in %.1f ms%n",
+                snapshot.size(), baskets.size(), (System.nanoTime() - buildStart) / 1_000_000.0);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        snapshot.write(bytes);
+        System.out.printf("Snapshot is %d bytes%n", bytes.size());
+
+        String[] seeds = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            seeds[i] = "item-" + random.nextInt(MENU_ITEMS / 10);
+        }
+        int found = 0;
+        for (int run = 0; run < WARM_UP_RUNS; run++) {
+            for (int i = 0; i + 3 <= LOOKUPS; i += 3) {
+                found += snapshot.alsoOrdered(List.of(seeds[i]), 10).size();
+                found += snapshot.alsoOrdered(List.of(seeds[i], seeds[i + 1], seeds[i + 2]), 10).size();
+            }
+        }
+        long lookupStart = System.nanoTime();
+        for (String id : seeds) {
+            found += snapshot.alsoOrdered(List.of(id), 10).size();
+        }
+        double singleMicros = (System.nanoTime() - lookupStart) / 1_000.0 / LOOKUPS;
+        lookupStart = System.nanoTime();
+        for (int i = 0; i + 3 <= LOOKUPS; i += 3) {
+            found += snapshot.alsoOrdered(List.of(seeds[i], seeds[i + 1], seeds[i + 2]), 10).size();
+        }
+        double multiMicros = (System.nanoTime() - lookupStart) / 1_000.0 / (LOOKUPS / 3);
+        System.out.printf("Looked up one seed in %.2f us and three seeds in %.2f us on average (%d results)%n", singleMicros, multiMicros, found);
+
+        assertTrue(multiMicros < 100, "Lookup took " + multiMicros + " us");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,175 @@
+package com.example.swiggy_project.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the co-occurrence build against a naive pair count over a small set of orders.
+ */
+class MenuItemCooccurrenceIndexTest {
+
+    private static final int MENU_ITEMS = 30;
+    private static final int ORDERS = 2_000;
+    private static final int MIN_SUPPORT = 2;
+
+    private ForkJoinPool pool;
+    private MenuItemCooccurrenceIndex.Baskets baskets;
+    // Naive co-occurrence counts: item -> neighbour -> number of orders containing both
+    private Map<String, Map<String, Integer>> naive;
+
+    @BeforeEach
+    void buildOrders() {
+        pool = new ForkJoinPool(2);
+        baskets = new MenuItemCooccurrenceIndex.Baskets();
+        naive = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < ORDERS; i++) {
+            List<String> order = new ArrayList<>();
+            for (int items = 1 + random.nextInt(5); items > 0; items--) {
+                order.add("item-" + (int) (MENU_ITEMS * Math.pow(random.nextDouble(), 2)));
+            }
+            baskets.add(order);
+            // Repeated lines of one item count once per order
+            List<String> distinct = new ArrayList<>(new LinkedHashSet<>(order));
+            for (String item : distinct) {
+                for (String neighbour : distinct) {
+                    if (!item.equals(neighbour)) {
+                        naive.computeIfAbsent(item, id -> new HashMap<>()).merge(neighbour, 1, Integer::sum);
+                    }
+                }
+            }
+        }
+    }
+
+    @AfterEach
+    void stopPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    void countsMatchNaiveCount() {
+        // Small partitions so the counts are split across tasks and merged back
+        MenuItemCooccurrenceIndex.Snapshot snapshot = MenuItemCooccurrenceIndex.compute(
+                baskets, MENU_ITEMS, MIN_SUPPORT, 100, pool, Instant.now());
+
+        int itemsWithNeighbours = 0;
+        for (Map.Entry<String, Map<String, Integer>> item : naive.entrySet()) {
+            Map<String, Integer> expected = new HashMap<>(item.getValue());
+            expected.values().removeIf(count -> count < MIN_SUPPORT);
+            if (expected.isEmpty()) {
+                continue;
+            }
+            itemsWithNeighbours++;
+            assertEquals(expected, neighbours(snapshot, item.getKey()), "Neighbours of " + item.getKey());
+        }
+        assertEquals(itemsWithNeighbours, snapshot.size());
+    }
+
+    @Test
+    void keepsTheMostFrequentNeighboursBestFirst() {
+        int limit = 3;
+        MenuItemCooccurrenceIndex.Snapshot snapshot = MenuItemCooccurrenceIndex.compute(
+                baskets, limit, MIN_SUPPORT, 100, pool, Instant.now());
+
+        for (int position = 0; position < snapshot.size(); position++) {
+            String id = snapshot.ids[position];
+            List<Integer> expected = naive.get(id).values().stream()
+                    .filter(count -> count >= MIN_SUPPORT)
+                    .sorted(Comparator.reverseOrder())
+                    .limit(limit)
+                    .toList();
+            List<Integer> actual = new ArrayList<>();
+            for (int i = snapshot.offsets[position]; i < snapshot.offsets[position + 1]; i++) {
+                actual.add(snapshot.counts[i]);
+            }
+            assertEquals(expected, actual, "Neighbour counts of " + id);
+            List<String> alsoOrdered = snapshot.alsoOrdered(List.of(id), limit);
+            assertEquals(actual.size(), alsoOrdered.size());
+            for (int i = 0; i < alsoOrdered.size(); i++) {
+                assertEquals(actual.get(i), naive.get(id).get(alsoOrdered.get(i)));
+            }
+        }
+    }
+
+    @Test
+    void sumsCountsAcrossSeedsAndSkipsTheSeeds() {
+        MenuItemCooccurrenceIndex.Snapshot snapshot = MenuItemCooccurrenceIndex.compute(
+                baskets, MENU_ITEMS, MIN_SUPPORT, 100, pool, Instant.now());
+        List<String> seeds = List.of("item-0", "item-1");
+
+        List<String> result = snapshot.alsoOrdered(seeds, 5);
+
+        assertEquals(5, result.size());
+        int previous = Integer.MAX_VALUE;
+        for (String id : result) {
+            assertFalse(seeds.contains(id), id + " is a seed");
+            int score = 0;
+            for (String seed : seeds) {
+                Integer count = naive.get(seed).get(id);
+                score += count != null && count >= MIN_SUPPORT ? count : 0;
+            }
+            assertTrue(score <= previous, "Scores are not descending at " + id);
+            previous = score;
+        }
+        assertEquals(List.of(), snapshot.alsoOrdered(List.of("unknown"), 5));
+    }
+
+    @Test
+    void snapshotSurvivesWriteAndRead() throws Exception {
+        MenuItemCooccurrenceIndex.Snapshot snapshot = MenuItemCooccurrenceIndex.compute(
+                baskets, 5, MIN_SUPPORT, 100, pool, Instant.ofEpochMilli(1_700_000_000_000L));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        snapshot.write(bytes);
+        MenuItemCooccurrenceIndex.Snapshot read = MenuItemCooccurrenceIndex.Snapshot.read(new ByteArrayInputStream(bytes.toByteArray()));
+
+        assertArrayEquals(snapshot.ids, read.ids);
+        assertArrayEquals(snapshot.offsets, read.offsets);
+        assertArrayEquals(snapshot.neighbours, read.neighbours);
+        assertArrayEquals(snapshot.counts, read.counts);
+        assertEquals(snapshot.builtAt, read.builtAt);
+        assertEquals(snapshot.alsoOrdered(List.of("item-0", "item-2"), 5), read.alsoOrdered(List.of("item-0", "item-2"), 5));
+    }
+
+    @Test
+    void rejectsDataThatIsNotASnapshot() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(new byte[]{0, 0, 0, 1, 0, 0, 0, 1});
+        }
+
+        assertThrows(IOException.class,
+                () -> MenuItemCooccurrenceIndex.Snapshot.read(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    private static Map<String, Integer> neighbours(MenuItemCooccurrenceIndex.Snapshot snapshot, String id) {
+        int position = List.of(snapshot.ids).indexOf(id);
+        assertTrue(position >= 0, id + " has no neighbours");
+        Map<String, Integer> result = new HashMap<>();
+        for (int i = snapshot.offsets[position]; i < snapshot.offsets[position + 1]; i++) {
+            result.put(snapshot.ids[snapshot.neighbours[i]], snapshot.counts[i]);
+        }
+        return result;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.util.CircuitBreaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the ML recommendation client against a local stub server with injected latency.
+ */
+class MlRecommendationClientTest {
+
+    private MlServiceStub stub;
+    private MlRecommendationClient client;
+
+    @BeforeEach
+    void startStub() throws Exception {
+        stub = new MlServiceStub("[\"item-1\",\"item-2\"]");
+        client = stub.client(200, 3);
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.close();
+    }
+
+    @Test
+    void returnsRecommendationsFromFastService() {
+        assertEquals(List.of("item-1", "item-2"), client.recommend(List.of("Italian"), List.of()));
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+    }
+
+    @Test
+    void slowServiceTimesOutWithinReadTimeout() {
+        stub.setLatencyMillis(2_000);
+        long start = System.nanoTime();
+        List<String> result = client.recommend(List.of("Italian"), List.of());
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(result.isEmpty());
+        assertTrue(elapsedMillis < 1_000, "Call took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void circuitOpensAfterConsecutiveFailuresAndStopsCallingService() {
+        stub.setLatencyMillis(2_000);
+        for (int i = 0; i < 3; i++) {
+            client.recommend(List.of(), List.of());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState());
+        assertEquals(3, stub.requests());
+
+        stub.setLatencyMillis(0);
+        assertTrue(client.recommend(List.of(), List.of()).isEmpty());
+        assertEquals(3, stub.requests());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.example.swiggy_project.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the ML recommendation service with injectable latency and status.
+ */
+class MlServiceStub implements AutoCloseable {
+
+    private final HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile long latencyMillis;
+    private volatile int status = 200;
+
+    MlServiceStub(String responseBody) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/recommend", exchange -> {
+            requests.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = responseBody.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    void setStatus(int status) {
+        this.status = status;
+    }
+
+    int requests() {
+        return requests.get();
+    }
+
+    /**
+     * Creates a client pointed at this stub.
+     */
+    MlRecommendationClient client(long readTimeoutMillis, int failureThreshold) {
+        MlRecommendationClient client = new MlRecommendationClient();
+        ReflectionTestUtils.setField(client, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(client, "serviceUrl", "http://127.0.0.1:" + server.getAddress().getPort() + "/recommend");
+        ReflectionTestUtils.setField(client, "connectTimeoutMillis", 200L);
+        ReflectionTestUtils.setField(client, "readTimeoutMillis", readTimeoutMillis);
+        ReflectionTestUtils.setField(client, "failureThreshold", failureThreshold);
+        ReflectionTestUtils.setField(client, "openMillis", 60_000L);
+        client.init();
+        return client;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
\ No newline at end of file
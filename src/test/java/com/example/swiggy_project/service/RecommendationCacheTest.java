@@ -0,0 +1,174 @@
+package com.example.swiggy_project.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Exercises the near-cache, single-flight loading and early refresh against a mocked Redis.
+ */
+class RecommendationCacheTest {
+
+    private static final int CALLERS = 8;
+
+    private RedisTemplate<String, List<String>> redisTemplate;
+    private HashOperations<String, Object, Object> hashOperations;
+    private StringRedisTemplate stringRedisTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private RecommendationCache cache;
+    private ExecutorService callers;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        hashOperations = mock(HashOperations.class);
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.entries(anyString())).thenReturn(Map.of());
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new RecommendationCache();
+        ReflectionTestUtils.setField(cache, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(cache, "stringRedisTemplate", stringRedisTemplate);
+        ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(cache, "ttlMillis", 3_600_000L);
+        ReflectionTestUtils.setField(cache, "localTtlMillis", 30_000L);
+        ReflectionTestUtils.setField(cache, "localMaxEntries", 100);
+        ReflectionTestUtils.setField(cache, "earlyRefreshBeta", 1.0);
+        callers = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        cache.shutdown();
+    }
+
+    @Test
+    void concurrentMissesShareOneComputation() throws Exception {
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<List<String>>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(callers.submit(() -> cache.get("user-1", () -> {
+                computations.incrementAndGet();
+                await(release);
+                return List.of("item-1", "item-2");
+            })));
+        }
+        // Hold the first computation until every other caller has joined it
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (sharedRequests() < CALLERS - 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        for (Future<List<String>> result : results) {
+            assertEquals(List.of("item-1", "item-2"), result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, computations.get());
+        assertEquals(CALLERS - 1, sharedRequests());
+    }
+
+    @Test
+    void servesRepeatRequestsFromTheNearCache() {
+        AtomicInteger computations = new AtomicInteger();
+
+        cache.get("user-1", () -> List.of("item-" + computations.incrementAndGet()));
+        List<String> second = cache.get("user-1", () -> List.of("item-" + computations.incrementAndGet()));
+
+        assertEquals(List.of("item-1"), second);
+        assertEquals(1, computations.get());
+        assertEquals(1.0, meterRegistry.counter("recommendations.cache.requests", "result", "local-hit").count());
+    }
+
+    @Test
+    void refreshesAnEntryCloseToExpiryInTheBackground() {
+        long now = System.currentTimeMillis();
+        // Expires in a second but took a long time to compute, so the refresh is all but certain
+        when(hashOperations.entries("user-1")).thenReturn(Map.of(
+                "menuItemIds", List.of("stale"), "computeMillis", 1_000_000_000L, "expiresAt", now + 1_000));
+        CountDownLatch refreshed = new CountDownLatch(1);
+
+        List<String> result = cache.get("user-1", () -> {
+            refreshed.countDown();
+            return List.of("fresh");
+        });
+
+        assertEquals(List.of("stale"), result);
+        assertTrue(await(refreshed), "No early refresh");
+        verify(redisTemplate, timeout(5_000)).execute(any(SessionCallback.class));
+        assertEquals(1.0, meterRegistry.counter("recommendations.cache.requests", "result", "early-refresh").count());
+    }
+
+    @Test
+    void doesNotRefreshAnEntryFarFromExpiry() throws Exception {
+        long now = System.currentTimeMillis();
+        when(hashOperations.entries("user-1")).thenReturn(Map.of(
+                "menuItemIds", List.of("cached"), "computeMillis", 10L, "expiresAt", now + 3_600_000));
+        ReflectionTestUtils.setField(cache, "localTtlMillis", 0L); // Re-read Redis, and draw again, every time
+        AtomicInteger computations = new AtomicInteger();
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(List.of("cached"), cache.get("user-1", () -> {
+                computations.incrementAndGet();
+                return List.of("fresh");
+            }));
+        }
+        Thread.sleep(50);
+
+        assertEquals(0, computations.get());
+    }
+
+    @Test
+    void evictionIsPublishedToOtherNodes() {
+        AtomicInteger computations = new AtomicInteger();
+        cache.get("user-1", () -> List.of("item-" + computations.incrementAndGet()));
+
+        cache.evict("user-1");
+
+        verify(redisTemplate).delete("user-1");
+        verify(stringRedisTemplate).convertAndSend(RecommendationCache.EVICTION_CHANNEL, "user-1");
+        cache.get("user-1", () -> List.of("item-" + computations.incrementAndGet()));
+        cache.onEvictionMessage("user-1");
+        assertEquals(List.of("item-3"), cache.get("user-1", () -> List.of("item-" + computations.incrementAndGet())));
+    }
+
+    private double sharedRequests() {
+        return meterRegistry.counter("recommendations.cache.requests", "result", "shared").count();
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,138 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.model.MenuItem;
+import com.example.swiggy_project.model.User;
+import com.example.swiggy_project.repository.MenuItemRepository;
+import com.example.swiggy_project.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Races the ML service, served by a stub with injected latency, against the local
+ * recommendation path.
+ */
+class RecommendationServiceTest {
+
+    private static final long HEDGE_DELAY_MILLIS = 50;
+    private static final long LATENCY_BUDGET_MILLIS = 400;
+
+    private MlServiceStub stub;
+    private MenuItemRepository menuItemRepository;
+    private RecommendationService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        stub = new MlServiceStub("[\"ml-1\",\"ml-2\"]");
+
+        User user = new User();
+        user.setId("user-1");
+        user.setLikedMenuItems(List.of("liked-1"));
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findById("user-1")).thenReturn(Optional.of(user));
+
+        // Every requested ID exists
+        MenuItemService menuItemService = mock(MenuItemService.class);
+        when(menuItemService.getMenuItemsByIds(anyCollection())).thenAnswer(invocation -> ((Collection<String>) invocation.getArgument(0))
+                .stream().distinct().collect(Collectors.toMap(Function.identity(), RecommendationServiceTest::menuItem)));
+
+        RecommendationCache cache = mock(RecommendationCache.class);
+        when(cache.get(anyString(), any())).thenAnswer(invocation -> ((Supplier<List<String>>) invocation.getArgument(1)).get());
+
+        PopularMenuItemIndex popularMenuItemIndex = mock(PopularMenuItemIndex.class);
+        when(popularMenuItemIndex.topItemIds(any(), anyInt())).thenReturn(List.of("popular-1"));
+
+        menuItemRepository = mock(MenuItemRepository.class);
+        service = new RecommendationService();
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        ReflectionTestUtils.setField(service, "menuItemService", menuItemService);
+        ReflectionTestUtils.setField(service, "menuItemRepository", menuItemRepository);
+        ReflectionTestUtils.setField(service, "recommendationCache", cache);
+        ReflectionTestUtils.setField(service, "mlRecommendationClient", stub.client(2_000, 100));
+        ReflectionTestUtils.setField(service, "popularMenuItemIndex", popularMenuItemIndex);
+        ReflectionTestUtils.setField(service, "menuItemCooccurrenceIndex", mock(MenuItemCooccurrenceIndex.class));
+        ReflectionTestUtils.setField(service, "mongoTemplate", mock(MongoTemplate.class));
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "hedgeDelayMillis", HEDGE_DELAY_MILLIS);
+        ReflectionTestUtils.setField(service, "latencyBudgetMillis", LATENCY_BUDGET_MILLIS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        stub.close();
+    }
+
+    @Test
+    void fastMlServiceWins() {
+        assertEquals(List.of("ml-1", "ml-2"), recommend());
+    }
+
+    @Test
+    void slowMlServiceLosesToLocalPathStartedAfterHedgeDelay() {
+        stub.setLatencyMillis(1_500);
+        long start = System.nanoTime();
+        List<String> ids = recommend();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(List.of("liked-1"), ids);
+        assertTrue(elapsedMillis >= HEDGE_DELAY_MILLIS && elapsedMillis < LATENCY_BUDGET_MILLIS, "Took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void failedMlCallStartsLocalPathWithoutWaitingForHedge() {
+        ReflectionTestUtils.setField(service, "hedgeDelayMillis", 10_000L);
+        stub.setStatus(500);
+        long start = System.nanoTime();
+        List<String> ids = recommend();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(List.of("liked-1"), ids);
+        assertTrue(elapsedMillis < LATENCY_BUDGET_MILLIS, "Took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void degradesToPopularItemsWhenNeitherPathAnswersWithinBudget() {
+        stub.setLatencyMillis(1_500);
+        when(menuItemRepository.findTop5ByOrderByNumberOfTimesOrderedDesc()).thenAnswer(invocation -> {
+            Thread.sleep(1_500);
+            return List.of();
+        });
+        long start = System.nanoTime();
+        List<String> ids = recommend();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(List.of("popular-1"), ids);
+        assertTrue(elapsedMillis < LATENCY_BUDGET_MILLIS + 200, "Took " + elapsedMillis + " ms");
+    }
+
+    private List<String> recommend() {
+        return service.getRecommendations("user-1").stream().map(MenuItem::getId).collect(Collectors.toList());
+    }
+
+    private static MenuItem menuItem(String id) {
+        MenuItem menuItem = new MenuItem();
+        menuItem.setId(id);
+        return menuItem;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.model.Restaurant;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RestaurantGeoIndexTest {
+
+    private MongoTemplate mongoTemplate;
+    private RestaurantGeoIndex index;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        index = new RestaurantGeoIndex();
+        ReflectionTestUtils.setField(index, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(index, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "cellDegrees", 0.05);
+        ReflectionTestUtils.setField(index, "compactThreshold", 1000);
+    }
+
+    @Test
+    void smallRadiusProbesTheCoveredCells() {
+        build(restaurant("near", 12.97, 77.59, 4.5), restaurant("far", 13.30, 77.59, 4.5), restaurant("low", 12.971, 77.591, 3.0));
+
+        List<RestaurantGeoIndex.GeoHit> hits = index.findNearby(12.97, 77.59, 5, 4.0, 10);
+
+        assertEquals(List.of("near"), ids(hits));
+        assertEquals(0, hits.get(0).getDistanceKm(), 1e-9);
+    }
+
+    @Test
+    void wideRadiusWalksOccupiedCellsWithTheSameResults() {
+        // A 2000 km box covers far more grid cells than the three occupied ones
+        build(restaurant("bangalore", 12.97, 77.59, 4.5), restaurant("chennai", 13.08, 80.27, 4.2),
+                restaurant("delhi", 28.61, 77.21, 4.8));
+
+        List<RestaurantGeoIndex.GeoHit> hits = index.findNearby(12.97, 77.59, 2000, 4.0, 10);
+
+        assertEquals(List.of("bangalore", "chennai", "delhi"), ids(hits));
+        assertEquals(RestaurantGeoIndex.distanceKm(12.97, 77.59, 13.08, 80.27), hits.get(1).getDistanceKm(), 1e-9);
+    }
+
+    @Test
+    void overlayWritesShadowTheSnapshot() {
+        build(restaurant("moved", 12.97, 77.59, 4.5));
+        index.upsert(restaurant("moved", 28.61, 77.21, 4.5));
+
+        assertEquals(List.of(), ids(index.findNearby(12.97, 77.59, 5, 4.0, 10)));
+        assertEquals(List.of("moved"), ids(index.findNearby(12.97, 77.59, 2000, 4.0, 10)));
+    }
+
+    private void build(Restaurant... restaurants) {
+        when(mongoTemplate.stream(any(Query.class), eq(Restaurant.class))).thenReturn(Stream.of(restaurants));
+        index.rebuild();
+    }
+
+    private static Restaurant restaurant(String id, double latitude, double longitude, double rating) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(id);
+        restaurant.setLocation(new double[]{longitude, latitude});
+        restaurant.setRating(rating);
+        return restaurant;
+    }
+
+    private static List<String> ids(List<RestaurantGeoIndex.GeoHit> hits) {
+        return hits.stream().map(hit -> hit.getRestaurant().getId()).toList();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,120 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.model.Restaurant;
+import com.example.swiggy_project.util.SearchText;
+import com.mongodb.ConnectionString;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the n-gram restaurant name search with the regex it replaced on a 500k-restaurant
+ * dataset. Needs a real MongoDB, so it only runs when given a throwaway database:
+ * <pre>
+ * mvn test -Dtest=RestaurantNameSearchBenchmarkTest -Dbenchmark.mongo.uri=mongodb://localhost:27017/search_benchmark
+ * </pre>
+ * The {@code restaurants} collection of that database is dropped and reseeded when it does not
+ * hold exactly the benchmark dataset.
+ */
+@EnabledIfSystemProperty(named = "benchmark.mongo.uri", matches = ".+")
+class RestaurantNameSearchBenchmarkTest {
+
+    private static final int RESTAURANTS = 500_000;
+    private static final int RUNS = 20;
+    private static final int LIMIT = 20;
+    private static final List<String> QUERIES = List.of("pizza", "spice garden", "tandoor", "mu", "golden dragon express");
+
+    private static final String[] ADJECTIVES = {"Golden", "Spice", "Royal", "Urban", "Happy", "Green", "Little", "Grand", "Blue", "Lucky"};
+    private static final String[] NOUNS = {"Garden", "Dragon", "Kitchen", "Bowl", "Tandoor", "Pizza", "Curry", "Dhaba", "Bistro", "Grill"};
+    private static final String[] SUFFIXES = {"House", "Express", "Corner", "Point", "Cafe", "Palace", "Hub", "Junction", "Bar", "Co"};
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static RestaurantNameSearch nameSearch;
+
+    @BeforeAll
+    static void seed() {
+        ConnectionString uri = new ConnectionString(System.getProperty("benchmark.mongo.uri"));
+        client = MongoClients.create(uri);
+        mongoTemplate = new MongoTemplate(client, uri.getDatabase() != null ? uri.getDatabase() : "search_benchmark");
+        nameSearch = new RestaurantNameSearch();
+        ReflectionTestUtils.setField(nameSearch, "mongoTemplate", mongoTemplate);
+
+        if (mongoTemplate.getCollection("restaurants").countDocuments() != RESTAURANTS) {
+            mongoTemplate.dropCollection("restaurants");
+            Random random = new Random(42);
+            List<Document> batch = new ArrayList<>();
+            for (int i = 0; i < RESTAURANTS; i++) {
+                String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NOUNS[random.nextInt(NOUNS.length)]
+                        + " " + SUFFIXES[random.nextInt(SUFFIXES.length)] + " " + i;
+                String normalizedName = SearchText.normalize(name);
+                batch.add(new Document("name", name)
+                        .append("normalizedName", normalizedName)
+                        .append("nameNgrams", SearchText.grams(normalizedName))
+                        .append("address", "Street " + i)
+                        .append("rating", Math.round(random.nextDouble() * 50) / 10.0)
+                        .append("ownerId", "owner-" + i));
+                if (batch.size() == 10_000) {
+                    mongoTemplate.getCollection("restaurants").insertMany(batch);
+                    batch.clear();
+                }
+            }
+            mongoTemplate.getCollection("restaurants").insertMany(batch);
+        }
+        mongoTemplate.indexOps("restaurants").ensureIndex(new Index().on("nameNgrams", Sort.Direction.ASC));
+        mongoTemplate.indexOps("restaurants").ensureIndex(new Index().on("normalizedName", Sort.Direction.ASC));
+    }
+
+    @AfterAll
+    static void close() {
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    @Test
+    void ngramSearchAgainstRegex() {
+        System.out.printf("%-24s %14s %14s %10s%n", "query", "regex (ms)", "n-gram (ms)", "results");
+        for (String query : QUERIES) {
+            // What findByNameContainingIgnoreCase sends, an unanchored case-insensitive regex, with the same limit
+            // so the comparison measures the scan rather than the transfer
+            Query regex = new Query(Criteria.where("name").regex(Pattern.quote(query), "i")).limit(LIMIT);
+            double regexMillis = time(() -> mongoTemplate.find(regex, Restaurant.class));
+            double ngramMillis = time(() -> nameSearch.search(query, LIMIT));
+
+            List<Restaurant> results = nameSearch.search(query, LIMIT);
+            for (Restaurant restaurant : results) {
+                assertTrue(restaurant.getName().toLowerCase().contains(query), restaurant.getName() + " does not contain " + query);
+            }
+            System.out.printf("%-24s %14.2f %14.2f %10d%n", query, regexMillis, ngramMillis, results.size());
+        }
+    }
+
+    // Mean wall time over RUNS runs after one warm-up run
+    private static double time(Supplier<?> search) {
+        search.get();
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            search.get();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / RUNS;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.example.swiggy_project.service;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Checks the aggregation the name search sends; running it needs MongoDB, see
+ * {@link RestaurantNameSearchBenchmarkTest}.
+ */
+class RestaurantNameSearchTest {
+
+    @Test
+    void longQueriesSelectCandidatesByTrigrams() {
+        List<Document> stages = stages("pizza hut", 10);
+
+        Document match = stages.get(0).get("$match", Document.class);
+        assertEquals(List.of("piz", "izz", "zza", "za ", "a h", " hu", "hut"),
+                match.get("nameNgrams", Document.class).get("$all"));
+    }
+
+    @Test
+    void shortQueriesKeepSubstringSemantics() {
+        Document match = stages("za", 10).get(0).get("$match", Document.class);
+
+        Pattern pattern = (Pattern) match.get("normalizedName");
+        assertEquals("za", pattern.pattern());
+        assertTrue(pattern.matcher("pizza hut").find());
+    }
+
+    @Test
+    void confirmsTheSubstringAfterTheTrigramLookup() {
+        List<Document> stages = stages("cabc", 10);
+
+        assertEquals(List.of("$normalizedName", "cabc"),
+                stages.get(1).get("$addFields", Document.class).get("matchPosition", Document.class).get("$indexOfCP"));
+        assertEquals(new Document("matchPosition", new Document("$gte", 0)), stages.get(2).get("$match"));
+    }
+
+    @Test
+    void ranksExactThenPrefixThenWordPrefixThenSubstring() {
+        List<Document> stages = stages("hut", 5);
+
+        Document rank = stages.get(3).get("$addFields", Document.class).get("matchRank", Document.class).get("$switch", Document.class);
+        List<Document> branches = rank.getList("branches", Document.class);
+        assertEquals(3, branches.size());
+        assertEquals(new Document("$eq", List.of("$normalizedName", "hut")), branches.get(0).get("case"));
+        assertEquals(new Document("$eq", List.of("$matchPosition", 0)), branches.get(1).get("case"));
+        // The character before the match is a space, so the match starts a word
+        Document wordStart = branches.get(2).get("case", Document.class);
+        assertEquals(" ", wordStart.getList("$eq", Object.class).get(1));
+        assertEquals(List.of(0, 1, 2), branches.stream().map(branch -> branch.get("then")).toList());
+        assertEquals(3, rank.get("default"));
+
+        assertEquals(new Document("matchRank", 1).append("rating", -1).append("normalizedName", 1), stages.get(4).get("$sort"));
+        assertEquals(5L, ((Number) stages.get(5).get("$limit")).longValue());
+        assertEquals(new Document("nameNgrams", 0).append("matchPosition", 0).append("matchRank", 0), stages.get(6).get("$project"));
+    }
+
+    @Test
+    void rejectsTextWithoutLettersOrDigits() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        RestaurantNameSearch search = new RestaurantNameSearch();
+        ReflectionTestUtils.setField(search, "mongoTemplate", mongoTemplate);
+
+        assertThrows(IllegalArgumentException.class, () -> search.search(" -- ", 10));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private static List<Document> stages(String query, int limit) {
+        Aggregation aggregation = RestaurantNameSearch.pipeline(query, limit);
+        return aggregation.toPipeline(Aggregation.DEFAULT_CONTEXT);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.model.Restaurant;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures ranking 1000 nearby candidates with kitchen signals for every restaurant. Runs only
+ * when asked for:
+ * <pre>
+ * mvn test -Dtest=RestaurantRankingEngineBenchmarkTest -Dbenchmark.ranking=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark.ranking", matches = "true")
+class RestaurantRankingEngineBenchmarkTest {
+
+    private static final int CANDIDATES = 1000;
+    private static final int WARM_UP_RUNS = 20_000;
+    private static final int RUNS = 10_000;
+    private static final int LIMIT = 100;
+    private static final double LATITUDE = 12.9716;
+    private static final double LONGITUDE = 77.5946;
+
+    @Test
+    void rankThousandCandidates() {
+        RestaurantRankingEngine engine = new RestaurantRankingEngine();
+        ReflectionTestUtils.setField(engine, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(engine, "ratingWeight", 0.5);
+        ReflectionTestUtils.setField(engine, "minutesPerKm", 3.0);
+        ReflectionTestUtils.setField(engine, "queueMinutesPerOrder", 2.0);
+        ReflectionTestUtils.setField(engine, "defaultPrepMinutes", 15.0);
+        ReflectionTestUtils.setField(engine, "maxEtaMinutes", 60.0);
+        ReflectionTestUtils.setField(engine, "prepAlpha", 0.2);
+
+        Random random = new Random(42);
+        List<Restaurant> candidates = new ArrayList<>();
+        for (int i = 0; i < CANDIDATES; i++) {
+            Restaurant restaurant = new Restaurant();
+            restaurant.setId("restaurant-" + i);
+            restaurant.setRating(Math.round(random.nextDouble() * 50) / 10.0);
+            restaurant.setLocation(new double[]{LONGITUDE + random.nextGaussian() * 0.05, LATITUDE + random.nextGaussian() * 0.05});
+            candidates.add(restaurant);
+            for (int order = random.nextInt(8); order > 0; order--) {
+                engine.orderPlaced(restaurant.getId());
+            }
+            engine.orderPrepared(restaurant.getId(), Duration.ofMinutes(5 + random.nextInt(30)));
+        }
+
+        for (int i = 0; i < WARM_UP_RUNS; i++) {
+            engine.rank(LATITUDE, LONGITUDE, candidates, LIMIT);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            engine.rank(LATITUDE, LONGITUDE, candidates, LIMIT);
+        }
+        double meanMicros = (System.nanoTime() - start) / 1_000.0 / RUNS;
+        System.out.printf("Ranked %d candidates in %.1f us on average%n", CANDIDATES, meanMicros);
+
+        assertEquals(LIMIT, engine.rank(LATITUDE, LONGITUDE, candidates, LIMIT).size());
+        assertTrue(meanMicros < 1_000, "Ranking took " + meanMicros + " us");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.example.swiggy_project.service;
+
+import com.example.swiggy_project.model.MenuItem;
+import com.example.swiggy_project.model.Review;
+import com.example.swiggy_project.repository.ReviewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ReviewServiceTest {
+
+    private final Map<String, MenuItem> menuItems = new HashMap<>();
+    private MongoTemplate mongoTemplate;
+    private MenuCache menuCache;
+    private ReviewService reviewService;
+
+    @BeforeEach
+    void setUp() {
+        ReviewRepository reviewRepository = mock(ReviewRepository.class);
+        when(reviewRepository.save(any(Review.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.findOne(any(Query.class), eq(MenuItem.class)))
+                .thenAnswer(invocation -> menuItems.get(invocation.<Query>getArgument(0).getQueryObject().get("_id")));
+        menuCache = mock(MenuCache.class);
+        reviewService = new ReviewService();
+        ReflectionTestUtils.setField(reviewService, "reviewRepository", reviewRepository);
+        ReflectionTestUtils.setField(reviewService, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(reviewService, "restaurantService", mock(RestaurantService.class));
+        ReflectionTestUtils.setField(reviewService, "popularMenuItemIndex", mock(PopularMenuItemIndex.class));
+        ReflectionTestUtils.setField(reviewService, "menuCache", menuCache);
+    }
+
+    @Test
+    void reviewsOfOneMenuInvalidateItOncePerRefresh() {
+        menuItem("dosa", "restaurant-1");
+        menuItem("idli", "restaurant-1");
+        menuItem("biryani", "restaurant-2");
+
+        reviewService.addReview("dosa", "user-1", review(5));
+        reviewService.addReview("idli", "user-2", review(4));
+        reviewService.addReview("dosa", "user-3", review(3));
+        reviewService.addReview("biryani", "user-1", review(4));
+        verifyNoInteractions(menuCache);
+
+        reviewService.refreshReratedMenus();
+        verify(menuCache, times(1)).invalidate("restaurant-1");
+        verify(menuCache, times(1)).invalidate("restaurant-2");
+
+        reviewService.refreshReratedMenus();
+        verify(menuCache, times(2)).invalidate(any());
+    }
+
+    @Test
+    void failedInvalidationsAreRetriedOnTheNextRefresh() {
+        menuItem("dosa", "restaurant-1");
+        doThrow(new IllegalStateException("Redis unavailable")).doNothing().when(menuCache).invalidate("restaurant-1");
+
+        reviewService.addReview("dosa", "user-1", review(5));
+        reviewService.refreshReratedMenus();
+        reviewService.refreshReratedMenus();
+        reviewService.refreshReratedMenus();
+
+        verify(menuCache, times(2)).invalidate("restaurant-1");
+    }
+
+    private void menuItem(String id, String restaurantId) {
+        MenuItem menuItem = new MenuItem();
+        menuItem.setId(id);
+        menuItem.setRestaurantId(restaurantId);
+        menuItems.put(id, menuItem);
+    }
+
+    private static Review review(int rating) {
+        Review review = new Review();
+        review.setRating(rating);
+        return review;
+    }
+}
\ No newline at end of file
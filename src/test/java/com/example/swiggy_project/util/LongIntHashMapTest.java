@@ -0,0 +1,73 @@
+package com.example.swiggy_project.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LongIntHashMapTest {
+
+    @Test
+    void addsToAbsentAndPresentKeys() {
+        LongIntHashMap map = new LongIntHashMap();
+
+        map.addTo(7, 1);
+        map.addTo(7, 2);
+        map.addTo(0, 5);
+
+        assertEquals(3, map.get(7));
+        assertEquals(5, map.get(0));
+        assertEquals(0, map.get(8));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void rejectsNegativeKeys() {
+        LongIntHashMap map = new LongIntHashMap();
+
+        assertThrows(IllegalArgumentException.class, () -> map.addTo(-1, 1));
+        assertEquals(0, map.get(-1));
+    }
+
+    @Test
+    void growsAndMatchesHashMap() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            // Packed pairs sharing their high or low half, as the co-occurrence counts produce
+            long key = ((long) random.nextInt(300) << 32) | random.nextInt(300);
+            int delta = 1 + random.nextInt(3);
+            map.addTo(key, delta);
+            expected.merge(key, delta, Integer::sum);
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+        Map<Long, Integer> visited = new HashMap<>();
+        map.forEach((key, value) -> assertEquals(null, visited.put(key, value)));
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void addAllMergesCounts() {
+        LongIntHashMap left = new LongIntHashMap();
+        left.addTo(1, 1);
+        left.addTo(2, 2);
+        LongIntHashMap right = new LongIntHashMap();
+        right.addTo(2, 3);
+        right.addTo(Long.MAX_VALUE, 4);
+
+        left.addAll(right);
+
+        assertEquals(3, left.size());
+        assertEquals(1, left.get(1));
+        assertEquals(5, left.get(2));
+        assertEquals(4, left.get(Long.MAX_VALUE));
+        assertEquals(2, right.size());
+    }
+}
\ No newline at end of file
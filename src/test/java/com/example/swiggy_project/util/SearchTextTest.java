@@ -0,0 +1,51 @@
+package com.example.swiggy_project.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchTextTest {
+
+    @Test
+    void normalizeFoldsCaseAccentsAndPunctuation() {
+        assertEquals("cafe coffee day", SearchText.normalize("Café  Coffee-Day!"));
+        assertEquals("pizza hut", SearchText.normalize("  PIZZA\tHut  "));
+        assertEquals("a2b", SearchText.normalize("A2B"));
+        assertEquals("", SearchText.normalize("--!!--"));
+        assertEquals("", SearchText.normalize(null));
+    }
+
+    @Test
+    void gramsAreDistinctAndIncludeSpaces() {
+        assertEquals(List.of("piz", "izz", "zza", "za ", "a h", " hu", "hut"), SearchText.grams("pizza hut"));
+        assertEquals(List.of("aaa"), SearchText.grams("aaaaa"));
+        assertEquals(List.of("abc"), SearchText.grams("abc"));
+        assertEquals(List.of(), SearchText.grams("ab"));
+    }
+
+    @Test
+    void everySubstringHasOnlyGramsOfTheName() {
+        // The trigram lookup must never miss a real match: a substring's grams are the name's grams
+        Random random = new Random(3);
+        for (int i = 0; i < 1_000; i++) {
+            StringBuilder name = new StringBuilder();
+            for (int length = 3 + random.nextInt(20); length > 0; length--) {
+                name.append("ab c".charAt(random.nextInt(4)));
+            }
+            String normalized = SearchText.normalize(name.toString());
+            if (normalized.length() < SearchText.GRAM_SIZE) {
+                continue;
+            }
+            int start = random.nextInt(normalized.length() - SearchText.GRAM_SIZE + 1);
+            int end = start + SearchText.GRAM_SIZE + random.nextInt(normalized.length() - start - SearchText.GRAM_SIZE + 1);
+            String query = SearchText.normalize(normalized.substring(start, end));
+            assertTrue(new HashSet<>(SearchText.grams(normalized)).containsAll(SearchText.grams(query)),
+                    "'" + query + "' has grams missing from '" + normalized + "'");
+        }
+    }
+}
\ No newline at end of file